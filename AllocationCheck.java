@@ -0,0 +1,216 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongConsumer;
+
+/**
+ * Checks that the simulation allocates nothing once a level is running.
+ * It loads a level headless, runs its ticks for a while so that every reused
+ * buffer has grown to size and the JIT has settled, then runs more ticks and
+ * reads how many bytes the simulation thread allocated while doing so, which
+ * must be none at all.
+ * Without a level file it checks a level of its own, built so that the player
+ * stays alive for the whole run while frogs search their way along a long
+ * corridor towards it, flies follow the walls of a room of their own and an
+ * amoeba grows through a room of dirt. With any level, it fails if the player
+ * dies, or if the frogs, flies or amoeba the level has did not move or grow
+ * while it measured, as then their ticks were not checked.
+ * It must be run with -XX:TieredStopAtLevel=1 or -Xint: the optimizing compiler
+ * leaves objects out of the code it compiles, and has to build them on the heap
+ * after all when it later has to fall back to the interpreter, which shows up as
+ * a few hundred bytes at random ticks however long the warm up is.
+ * Run it from the command line; it exits with status 1 if the ticks allocate.
+ * @author Alex Vesely
+ */
+public class AllocationCheck {
+    private static final int DEFAULT_TICKS = 10_000;
+    private static final int SEED = 7;
+    // Ticks run before measuring, to fill the buffers and warm up the JIT
+    private static final int WARMUP_TICKS = 20_000;
+    // Ignores every tick's cost, without a lambda made per call
+    private static final LongConsumer NO_COST = cost -> { };
+
+    // The built-in level: a winding corridor on the left, a fly room and an amoeba room on the right
+    private static final int LEVEL_ROWS = 42;
+    private static final int LEVEL_COLUMNS = 100;
+    private static final int CORRIDOR_END_COLUMN = 57;
+    private static final int CORRIDOR_END_ROW = 39;
+    private static final int ROOM_START_COLUMN = 59;
+    private static final int FLY_ROOM_END_ROW = 19;
+    private static final int FROG_COUNT = 4;
+    private static final int LEVEL_SECONDS = 999;
+    private static final int AMOEBA_GROWTH_RATE = 1000;
+    private static final int AMOEBA_SIZE_LIMIT = 1000;
+
+    private final GameController gameController;
+    private final TickScheduler scheduler;
+    private final Random inputs = new Random(SEED);
+    private final GameController.PlayerInput[] directions = GameController.PlayerInput.values();
+
+    /**
+     * Sets up a level to be checked, with its ticks running.
+     * @param level the level.
+     */
+    public AllocationCheck(LevelData level) {
+        this.gameController = level.createGame(SEED);
+        this.scheduler = TickScheduler.forGame(gameController, level.getAmoebaGrowthRate(), () -> { });
+        scheduler.setRunning(true, 0);
+    }
+
+    /**
+     * Runs ticks of the level in scheduled order, feeding the player random moves.
+     * @param count the number of ticks to run.
+     */
+    public void runTicks(int count) {
+        for (int i = 0; i < count; i++) {
+            gameController.registerInput(directions[inputs.nextInt(directions.length)]);
+            scheduler.runDue(scheduler.getNextDue(), NO_COST);
+        }
+    }
+
+    /**
+     * Runs ticks, measuring how many bytes the current thread allocates while doing so.
+     * @param count the number of ticks to run.
+     * @return the bytes allocated by the ticks.
+     */
+    public long measureTicks(int count) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        runTicks(count);
+        return threads.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    /**
+     * Builds the level checked when no level file is given. The player sits at one
+     * end of a corridor that winds back and forth for over a thousand cells, with
+     * the frogs at the other end, too far to reach the player in the run. A wall
+     * keeps them apart from a room of flies and a room of dirt with an amoeba in it,
+     * big enough for the amoeba to keep growing all the way through the run.
+     * @return the level.
+     */
+    public static LevelData buildLevel() {
+        String[][] grid = new String[LEVEL_ROWS][LEVEL_COLUMNS];
+        for (String[] row : grid) {
+            Arrays.fill(row, "TW");
+        }
+        for (int row = 1; row <= CORRIDOR_END_ROW; row += 2) {
+            Arrays.fill(grid[row], 1, CORRIDOR_END_COLUMN + 1, "P");
+            if (row < CORRIDOR_END_ROW) {
+                // Join each stretch to the next at alternate ends
+                grid[row + 1][row % 4 == 1 ? CORRIDOR_END_COLUMN : 1] = "P";
+            }
+        }
+        grid[1][1] = "*";
+        for (int i = 0; i < FROG_COUNT; i++) {
+            // The last stretch runs right to left, so its far end is on the left
+            grid[CORRIDOR_END_ROW][1 + i] = "F";
+        }
+
+        for (int row = 1; row <= FLY_ROOM_END_ROW; row++) {
+            Arrays.fill(grid[row], ROOM_START_COLUMN, LEVEL_COLUMNS - 1, "P");
+        }
+        for (int row = 5; row < FLY_ROOM_END_ROW; row += 6) {
+            for (int col = ROOM_START_COLUMN + 6; col < LEVEL_COLUMNS - 2; col += 8) {
+                grid[row][col] = "NW";
+            }
+        }
+        grid[1][ROOM_START_COLUMN] = "FFL";
+        grid[FLY_ROOM_END_ROW][ROOM_START_COLUMN] = "FFR";
+        grid[1][LEVEL_COLUMNS - 2] = "BFL";
+        grid[FLY_ROOM_END_ROW][LEVEL_COLUMNS - 2] = "BFR";
+
+        for (int row = FLY_ROOM_END_ROW + 2; row < LEVEL_ROWS - 1; row++) {
+            Arrays.fill(grid[row], ROOM_START_COLUMN, LEVEL_COLUMNS - 1, "DT");
+        }
+        grid[(FLY_ROOM_END_ROW + LEVEL_ROWS) / 2][(ROOM_START_COLUMN + LEVEL_COLUMNS) / 2] = "A";
+        return new LevelData(grid, LEVEL_SECONDS, 0, 1, AMOEBA_GROWTH_RATE, AMOEBA_SIZE_LIMIT, new ArrayList<>());
+    }
+
+    /**
+     * Counts the creatures in a store whose cell is not the one they had.
+     * @param store the creatures.
+     * @param cells the cell index of each creature, by slot, which is updated to where it is now.
+     * @param columns the number of columns in the grid.
+     * @return the number of creatures that moved.
+     */
+    private static int countMoved(EnemyStore<?> store, int[] cells, int columns) {
+        int moved = 0;
+        for (int slot = 0; slot < cells.length && slot < store.size(); slot++) {
+            int cell = store.getRow(slot) * columns + store.getColumn(slot);
+            if (cell != cells[slot]) {
+                moved++;
+            }
+            cells[slot] = cell;
+        }
+        return moved;
+    }
+
+    /**
+     * Counts the amoebas in every group on the grid.
+     * @param gridManager the grid.
+     * @return the number of amoebas.
+     */
+    private static int countAmoebas(GridManager gridManager) {
+        int amoebas = 0;
+        for (AmoebaGroup group : gridManager.getAmoebaGroups()) {
+            amoebas += group.size();
+        }
+        return amoebas;
+    }
+
+    /**
+     * Runs the check on a level.
+     * @param args optionally the level file, then the number of ticks to measure.
+     */
+    public static void main(String[] args) {
+        List<String> jvmArguments = ManagementFactory.getRuntimeMXBean().getInputArguments();
+        if (!jvmArguments.contains("-XX:TieredStopAtLevel=1") && !jvmArguments.contains("-Xint")) {
+            System.out.println("Usage: java -XX:TieredStopAtLevel=1 AllocationCheck [levelFile [ticks]]");
+            return;
+        }
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TICKS;
+        LevelData level = args.length > 0 ? FileHandler.readLevelData(args[0]) : buildLevel();
+        AllocationCheck check = new AllocationCheck(level);
+        GridManager gridManager = check.gameController.getGridManager();
+        check.runTicks(WARMUP_TICKS);
+
+        int columns = gridManager.getColumns();
+        int[] frogCells = new int[gridManager.getFrogs().size()];
+        int[] flyCells = new int[gridManager.getFlies().size()];
+        countMoved(gridManager.getFrogs(), frogCells, columns);
+        countMoved(gridManager.getFlies(), flyCells, columns);
+        int amoebasBefore = countAmoebas(gridManager);
+        boolean aliveBefore = gridManager.getContext().isGameRunning();
+
+        long allocated = check.measureTicks(ticks);
+
+        int frogsMoved = countMoved(gridManager.getFrogs(), frogCells, columns);
+        int fliesMoved = countMoved(gridManager.getFlies(), flyCells, columns);
+        int amoebasGrown = countAmoebas(gridManager) - amoebasBefore;
+        System.out.println(ticks + " ticks allocated " + allocated + " bytes; " + frogsMoved + " of "
+                + frogCells.length + " frogs and " + fliesMoved + " of " + flyCells.length
+                + " flies moved, amoeba grew by " + amoebasGrown);
+
+        boolean failed = false;
+        if (!aliveBefore || !gridManager.getContext().isGameRunning()) {
+            System.out.println("FAILED: the player died, so the enemies stopped chasing it");
+            failed = true;
+        }
+        if ((frogCells.length > 0 && frogsMoved == 0) || (flyCells.length > 0 && fliesMoved == 0)
+                || (amoebasBefore > 0 && amoebasGrown == 0)) {
+            System.out.println("FAILED: some creatures never moved, so their ticks went unchecked");
+            failed = true;
+        }
+        if (allocated != 0) {
+            System.out.println("FAILED: the steady-state tick allocates");
+            failed = true;
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+}
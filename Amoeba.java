@@ -1,5 +1,3 @@
-import javafx.scene.image.Image;
-
 /**
  * This class represents an amoeba element on the game grid.
  * @author Karamveer Singh
@@ -12,11 +10,7 @@ public class Amoeba extends Element {
      * @param column the column of the Amoeba in the grid
      */
     public Amoeba(final int row, final int column) {
-        super(row, column);
-        image = new Image("images/amoeba.png");
-        canBeEntered = false;
-        canExplode = true;
-        name = "Amoeba";
+        super(ElementKind.AMOEBA, row, column);
     }
 
     /**
@@ -0,0 +1,24 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event emitted when an amoeba group grows
+ * or transforms into boulders or diamonds.
+ * @author Alex Vesely
+ */
+@Name("boulderdash.Amoeba")
+@Label("Amoeba Activity")
+@Category({"Boulder Dash", "Simulation"})
+@Description("An amoeba group growing or transforming")
+public class AmoebaEvent extends jdk.jfr.Event {
+
+    @Label("Action")
+    @Description("One of grow, toBoulders or toDiamonds")
+    String action;
+
+    @Label("Group Size")
+    @Description("The number of amoebas in the group when the action happened")
+    int groupSize;
+}
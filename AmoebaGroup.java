@@ -1,13 +1,24 @@
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Arrays;
+import jdk.jfr.FlightRecorder;
 
 /**
  * This class represents all the amoeba groups on the game's grid.
  * @author Karamveer Singh
  */
 public class AmoebaGroup {
-    private final List<Amoeba> amoebas;
+    private static final int INITIAL_CANDIDATE_CAPACITY = 16;
+
+    // Directions for spreading: up, down, left, right
+    private static final int[][] DIRECTIONS = {
+            {-1, 0}, {1, 0}, {0, -1}, {0, 1}
+    };
+
+    private final ArrayList<Amoeba> amoebas;
+    private int[] candidateCells = new int[INITIAL_CANDIDATE_CAPACITY];
+    // Amoebas made ahead of time for the group to grow into, so that growing allocates nothing
+    private Amoeba[] spareAmoebas = new Amoeba[0];
+    private int spareCount;
     private boolean isGrowing;
     private int amoebaSizeLimit;
 
@@ -28,11 +39,26 @@ public class AmoebaGroup {
     }
 
     /**
-     * Sets the size limit of the amoeba.
+     * Sets the size limit of the amoeba, and makes ready everything the group
+     * needs to grow up to it: the amoebas it will grow into, and room for them
+     * and for the cells they could spread to.
      * @param amoebaSizeLimit the new size limit of the amoeba.
      */
     public void setAmoebaSizeLimit(int amoebaSizeLimit) {
         this.amoebaSizeLimit = amoebaSizeLimit;
+        int growth = amoebaSizeLimit - amoebas.size();
+        if (growth > spareCount) {
+            amoebas.ensureCapacity(amoebaSizeLimit);
+            spareAmoebas = Arrays.copyOf(spareAmoebas, growth);
+            while (spareCount < growth) {
+                spareAmoebas[spareCount++] = new Amoeba(0, 0);
+            }
+            // Each amoeba can offer at most one cell in each direction
+            int candidates = amoebaSizeLimit * DIRECTIONS.length;
+            if (candidateCells.length < candidates) {
+                candidateCells = Arrays.copyOf(candidateCells, candidates);
+            }
+        }
     }
 
     /**
@@ -55,31 +81,24 @@ public class AmoebaGroup {
                 return;
             }
 
-            Element[][] grid = gridManager.getElementGrid();
-            int rows = grid.length;
-            int cols = grid[0].length;
-
-            // Directions for spreading: up, down, left, right
-            int[][] directions = {
-                    {-1, 0}, {1, 0}, {0, -1}, {0, 1}
-            };
+            int cols = gridManager.getColumns();
 
             // Collect valid positions for this group
-            List<int[]> validPositions = new ArrayList<>();
-            for (Amoeba amoeba : amoebas) {
-                for (int[] direction : directions) {
+            int candidateCount = 0;
+            for (int i = 0; i < amoebas.size(); i++) {
+                Amoeba amoeba = amoebas.get(i);
+                for (int[] direction : DIRECTIONS) {
                     int newRow = amoeba.getRow() + direction[0];
                     int newCol = amoeba.getColumn() + direction[1];
 
                     // Check grid boundaries,
                     // and if the cell contains dirt, path or an enemy.
-                    if (newRow >= 0 && newRow < rows
-                            && newCol >= 0 && newCol < cols) {
-                        Element target = grid[newRow][newCol];
-                        if (target instanceof Dirt || target instanceof Path
-                                || target instanceof Butterfly
-                                || target instanceof Firefly) {
-                            validPositions.add(new int[]{newRow, newCol});
+                    if (gridManager.isInBounds(newRow, newCol)) {
+                        if (gridManager.getElement(newRow, newCol).getKind().has(ElementKind.AMOEBA_GROWABLE)) {
+                            if (candidateCount == candidateCells.length) {
+                                candidateCells = Arrays.copyOf(candidateCells, candidateCount * 2);
+                            }
+                            candidateCells[candidateCount++] = newRow * cols + newCol;
                         }
                     }
                 }
@@ -87,20 +106,28 @@ public class AmoebaGroup {
 
 
             // If no valid positions, stop growing and convert to diamonds
-            if (validPositions.isEmpty()) {
+            if (candidateCount == 0) {
                 transformToDiamonds(gridManager);
                 isGrowing = false;
             } else {
                 // Spread to one random valid position
-                Collections.shuffle(validPositions);
-                int[] targetPosition = validPositions.get(0);
-                int targetRow = targetPosition[0];
-                int targetCol = targetPosition[1];
-
-                // Replace the dirt with a new amoeba
-                Amoeba newAmoeba = new Amoeba(targetRow, targetCol);
+                int targetCell = candidateCells[gridManager.getRandom().nextInt(candidateCount)];
+                int targetRow = targetCell / cols;
+                int targetCol = targetCell % cols;
+
+                // Replace the dirt with a new amoeba, a spare one if there is any left
+                Amoeba newAmoeba;
+                if (spareCount > 0) {
+                    newAmoeba = spareAmoebas[--spareCount];
+                    spareAmoebas[spareCount] = null;
+                    newAmoeba.setRow(targetRow);
+                    newAmoeba.setColumn(targetCol);
+                } else {
+                    newAmoeba = new Amoeba(targetRow, targetCol);
+                }
                 gridManager.setElement(targetRow, targetCol, newAmoeba);
                 this.addAmoeba(newAmoeba);
+                recordEvent("grow");
             }
         }
     }
@@ -111,6 +138,7 @@ public class AmoebaGroup {
      * @param gridManager the grid manager to access and update the grid
      */
     private void transformToDiamonds(final GridManager gridManager) {
+        recordEvent("toDiamonds");
         for (Amoeba amoeba : amoebas) {
             int row = amoeba.getRow();
             int col = amoeba.getColumn();
@@ -128,6 +156,7 @@ public class AmoebaGroup {
      * @param gridManager the grid manager to access and update the grid
      */
     private void transformToBoulders(final GridManager gridManager) {
+        recordEvent("toBoulders");
         for (Amoeba amoeba : amoebas) {
             int row = amoeba.getRow();
             int col = amoeba.getColumn();
@@ -138,6 +167,23 @@ public class AmoebaGroup {
         amoebas.clear();
     }
 
+    /**
+     * Emits a Flight Recorder event describing what the group just did.
+     * @param action one of grow, toBoulders or toDiamonds
+     */
+    private void recordEvent(final String action) {
+        if (!FlightRecorder.isInitialized()) {
+            // Nothing can record the event, so skip making it
+            return;
+        }
+        AmoebaEvent event = new AmoebaEvent();
+        if (event.shouldCommit()) {
+            event.action = action;
+            event.groupSize = amoebas.size();
+            event.commit();
+        }
+    }
+
     /**
      * Returns the number of amoebas in this group.
      * @return the number of amoebas in this group
@@ -162,6 +208,22 @@ public class AmoebaGroup {
         amoebas.remove(amoeba);
     }
 
+    /**
+     * Checks whether any amoeba of the group is within a level of detail's radius of the player.
+     * @param detailLevel the level of detail.
+     * @param player the player, or null.
+     * @return true if some amoeba is near the player, false otherwise
+     */
+    public boolean isNear(final DetailLevel detailLevel, final Player player) {
+        for (int i = 0; i < amoebas.size(); i++) {
+            Amoeba amoeba = amoebas.get(i);
+            if (detailLevel.isNear(player, amoeba.getRow(), amoeba.getColumn())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Checks if the specified amoeba is part of this group.
      * @param amoeba the Amoeba to be checked
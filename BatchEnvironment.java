@@ -0,0 +1,192 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Steps many copies of a level in lockstep, for training automated players in batches.
+ * The results are kept in structure-of-arrays form: the observations of all the
+ * environments sit back to back in one contiguous byte array, and the player positions,
+ * diamond counts, rewards and done flags sit in parallel arrays indexed by environment.
+ * Each copy is a GameEnvironment running the real game rules, so a batch behaves exactly
+ * like the game does. A step is split into one slice of environments per core;
+ * the copies share nothing but the level they were loaded from, so no locking is needed.
+ * An environment whose episode ends is reset straight away with its next seed,
+ * and its done flag is set for that step.
+ * @author Alex Vesely
+ */
+public class BatchEnvironment {
+    private final GameEnvironment[] environments;
+    private final int observationSize;
+    private final byte[] observations;
+    private final int[] playerRows;
+    private final int[] playerColumns;
+    private final int[] diamondCounts;
+    private final double[] rewards;
+    private final boolean[] dones;
+    private final long[] nextSeeds;
+    private final int sliceSize;
+    private GameController.PlayerInput[] inputs;
+
+    /**
+     * Creates a batch of copies of a level. The level file is read once.
+     * @param levelFile the level file to play.
+     * @param count the number of copies.
+     * @param cropRows the height of the window centred on each player, or 0 to observe the whole grid.
+     * @param cropColumns the width of the window centred on each player, or 0 to observe the whole grid.
+     */
+    public BatchEnvironment(String levelFile, int count, int cropRows, int cropColumns) {
+        LevelData level = FileHandler.readLevelData(levelFile);
+        boolean cropped = cropRows > 0 && cropColumns > 0;
+        this.observationSize = cropped ? cropRows * cropColumns : level.getRows() * level.getColumns();
+        this.observations = new byte[count * observationSize];
+        this.environments = new GameEnvironment[count];
+        for (int i = 0; i < count; i++) {
+            environments[i] = new GameEnvironment(level, cropRows, cropColumns, observations, i * observationSize);
+        }
+        this.playerRows = new int[count];
+        this.playerColumns = new int[count];
+        this.diamondCounts = new int[count];
+        this.rewards = new double[count];
+        this.dones = new boolean[count];
+        this.nextSeeds = new long[count];
+        int slices = ForkJoinPool.getCommonPoolParallelism();
+        this.sliceSize = Math.max(1, (count + slices - 1) / slices);
+    }
+
+    /**
+     * Starts a new episode in every environment.
+     * Environment i is seeded with seed + i, and each later episode
+     * of that environment with the seed of its last episode plus the batch size.
+     * @param seed the seed of the first environment.
+     * @return the observations of every environment, back to back.
+     */
+    public byte[] reset(long seed) {
+        for (int i = 0; i < environments.length; i++) {
+            nextSeeds[i] = seed + i;
+            resetEnvironment(i);
+            rewards[i] = 0;
+            dones[i] = false;
+        }
+        return observations;
+    }
+
+    /**
+     * Applies one input to every environment and advances them all by one player move.
+     * @param inputs the input of each environment, with null to stand still.
+     * @throws IllegalArgumentException if there is not exactly one input per environment.
+     */
+    public void step(GameController.PlayerInput[] inputs) {
+        if (inputs.length != environments.length) {
+            throw new IllegalArgumentException("Expected " + environments.length
+                    + " inputs but got " + inputs.length);
+        }
+        this.inputs = inputs;
+        int slices = (environments.length + sliceSize - 1) / sliceSize;
+        IntStream.range(0, slices).parallel().forEach(this::stepSlice);
+        this.inputs = null;
+    }
+
+    /**
+     * Steps one slice of the environments.
+     * @param slice the index of the slice.
+     */
+    private void stepSlice(int slice) {
+        int end = Math.min(environments.length, (slice + 1) * sliceSize);
+        for (int i = slice * sliceSize; i < end; i++) {
+            GameEnvironment environment = environments[i];
+            rewards[i] = environment.step(inputs[i]);
+            dones[i] = environment.isDone();
+            if (dones[i]) {
+                resetEnvironment(i);
+            } else {
+                recordPlayer(i);
+            }
+        }
+    }
+
+    /**
+     * Starts the next episode of one environment.
+     * @param index the index of the environment.
+     */
+    private void resetEnvironment(int index) {
+        environments[index].reset(nextSeeds[index]);
+        nextSeeds[index] += environments.length;
+        recordPlayer(index);
+    }
+
+    /**
+     * Copies the player's position and diamond count of one environment into the batch arrays.
+     * @param index the index of the environment.
+     */
+    private void recordPlayer(int index) {
+        Player player = environments[index].getGameController().getPlayer();
+        playerRows[index] = player.getRow();
+        playerColumns[index] = player.getColumn();
+        diamondCounts[index] = player.getDiamondCount();
+    }
+
+    /**
+     * Retrieves the number of environments in the batch.
+     * @return the batch size.
+     */
+    public int size() {
+        return environments.length;
+    }
+
+    /**
+     * Retrieves the number of tile codes in each environment's observation.
+     * Environment i's observation starts at index i * getObservationSize().
+     * @return the observation size.
+     */
+    public int getObservationSize() {
+        return observationSize;
+    }
+
+    /**
+     * Retrieves the observations of every environment, back to back. Refilled in place by every step.
+     * @return the observations.
+     */
+    public byte[] getObservations() {
+        return observations;
+    }
+
+    /**
+     * Retrieves the row of each environment's player.
+     * @return the player rows, indexed by environment.
+     */
+    public int[] getPlayerRows() {
+        return playerRows;
+    }
+
+    /**
+     * Retrieves the column of each environment's player.
+     * @return the player columns, indexed by environment.
+     */
+    public int[] getPlayerColumns() {
+        return playerColumns;
+    }
+
+    /**
+     * Retrieves how many diamonds each environment's player has collected.
+     * @return the diamond counts, indexed by environment.
+     */
+    public int[] getDiamondCounts() {
+        return diamondCounts;
+    }
+
+    /**
+     * Retrieves the reward each environment earned in the last step.
+     * @return the rewards, indexed by environment.
+     */
+    public double[] getRewards() {
+        return rewards;
+    }
+
+    /**
+     * Retrieves whether each environment's episode ended in the last step.
+     * Those environments have already been reset.
+     * @return the done flags, indexed by environment.
+     */
+    public boolean[] getDones() {
+        return dones;
+    }
+}
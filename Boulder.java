@@ -1,5 +1,3 @@
-import javafx.scene.image.Image;
-
 /**
  * This class represents a boulder in the game, which is a DangerousRock.
  * A boulder can gain momentum, fall, and interact with other elements.
@@ -13,9 +11,7 @@ public class Boulder extends  DangerousRock {
      * @param column the column position of the boulder in the grid.
      */
     public Boulder(int row, int column) {
-        super(row, column);
-        image = new Image("images/boulder.png");
-        name = "Boulder";
+        super(ElementKind.BOULDER, row, column);
     }
 
     @Override
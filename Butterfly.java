@@ -1,38 +1,27 @@
-import javafx.scene.image.Image;
-
 /**
  * This class represents Butterflies, a type of Fly.
  * Butterflies follow either right/left edge and drop diamonds when exploded.
  * @author Karamveer Singh
  */
 public class Butterfly extends Fly {
-    public static final Boolean dropDiamond = true;
 
     /**
-     * Constructs a Butterfly with the specified row, column, and edge following behaviour.
+     * Constructs a Butterfly with the specified row and column.
+     * The edge it follows is kept by the grid's fly store.
      * @param row             The initial row position of the Butterfly.
      * @param column          The initial column position of the Butterfly.
-     * @param followsLeftEdge True if the Butterfly follows the left edge, false if it follows the right edge.
      */
-    public Butterfly(int row, int column, boolean followsLeftEdge) {
-        super(row, column, followsLeftEdge);
-        image = new Image("images/butterfly.png");
-        this.followsLeftEdge = followsLeftEdge;
-        name = getName();
+    public Butterfly(int row, int column) {
+        super(ElementKind.BUTTERFLY, row, column);
     }
 
     /**
-     * Gets the name of the Butterfly
-     * @return The name of the Butterfly.
+     * Butterflies leave diamonds behind when they explode.
+     * @return true.
      */
-    public String getName() {
-        String extraInfo;
-        if (followsLeftEdge) {
-            extraInfo = "Left";
-        } else {
-            extraInfo = "Right";
-        }
-        return "Butterfly" + extraInfo;
+    @Override
+    public boolean dropsDiamonds() {
+        return true;
     }
 
     /**
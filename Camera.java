@@ -0,0 +1,79 @@
+/**
+ * Camera keeps track of which part of the grid is shown on the game canvas.
+ * The canvas is a fixed-size viewport onto the grid, and the camera keeps
+ * the player centred in it without scrolling past the edges of the grid.
+ * @author Alex Vesely
+ */
+public class Camera {
+    private final int visibleRows;
+    private final int visibleColumns;
+    private int firstRow;
+    private int firstColumn;
+
+    /**
+     * Creates a camera for a viewport of the given size.
+     * @param viewportWidth the width of the viewport, in pixels.
+     * @param viewportHeight the height of the viewport, in pixels.
+     * @param cellWidth the width of a grid cell, in pixels.
+     * @param cellHeight the height of a grid cell, in pixels.
+     */
+    public Camera(double viewportWidth, double viewportHeight, int cellWidth, int cellHeight) {
+        this.visibleRows = (int) Math.ceil(viewportHeight / cellHeight);
+        this.visibleColumns = (int) Math.ceil(viewportWidth / cellWidth);
+    }
+
+    /**
+     * Moves the camera so the given cell is as close to the centre of the viewport
+     * as the edges of the grid allow.
+     * @param row the row to centre on.
+     * @param column the column to centre on.
+     * @param rows the number of rows in the grid.
+     * @param columns the number of columns in the grid.
+     */
+    public void follow(int row, int column, int rows, int columns) {
+        firstRow = clamp(row - visibleRows / 2, rows - visibleRows);
+        firstColumn = clamp(column - visibleColumns / 2, columns - visibleColumns);
+    }
+
+    /**
+     * Retrieves the topmost row shown in the viewport.
+     * @return the first visible row.
+     */
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    /**
+     * Retrieves the leftmost column shown in the viewport.
+     * @return the first visible column.
+     */
+    public int getFirstColumn() {
+        return firstColumn;
+    }
+
+    /**
+     * Retrieves how many rows fit in the viewport.
+     * @return the number of visible rows.
+     */
+    public int getVisibleRows() {
+        return visibleRows;
+    }
+
+    /**
+     * Retrieves how many columns fit in the viewport.
+     * @return the number of visible columns.
+     */
+    public int getVisibleColumns() {
+        return visibleColumns;
+    }
+
+    /**
+     * Keeps a camera position between zero and its largest allowed value.
+     * @param value the desired position.
+     * @param max the largest position that still fills the viewport.
+     * @return the clamped position.
+     */
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(value, max));
+    }
+}
@@ -0,0 +1,222 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Stores the cells of a very large grid in fixed-size square chunks.
+ * Chunks are only allocated once a cell inside them is written, and a chunk
+ * whose cells are all the same shared terrain tile (dirt or wall) is kept as
+ * a single shared constant instead of an array of cells. Writing a different
+ * element into a shared chunk gives that chunk its own copy first.
+ * @author Alex Vesely
+ */
+public class ChunkedGrid {
+    /**
+     * The width and height of a chunk, in cells.
+     */
+    public static final int CHUNK_SIZE = 32;
+    private static final int CHUNK_SHIFT = 5;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int CELLS_PER_CHUNK = CHUNK_SIZE * CHUNK_SIZE;
+
+    private final int rows;
+    private final int columns;
+    private final Chunk[][] chunks;
+    private final ArrayList<Chunk> uniformChunks = new ArrayList<>();
+
+    /**
+     * A block of CHUNK_SIZE x CHUNK_SIZE cells. A uniform chunk has no cell array
+     * and stands for a block filled entirely with its uniform element.
+     */
+    private static final class Chunk {
+        private final Element uniform;
+        private final Element[] cells;
+        private Path[] paths;
+
+        private Chunk(Element uniform) {
+            this.uniform = uniform;
+            this.cells = null;
+        }
+
+        private Chunk(Element[] cells) {
+            this.uniform = null;
+            this.cells = cells;
+        }
+    }
+
+    /**
+     * Creates an empty chunked grid. No chunks are allocated until cells are set.
+     * @param rows the number of rows in the grid.
+     * @param columns the number of columns in the grid.
+     */
+    public ChunkedGrid(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.chunks = new Chunk[(rows + CHUNK_MASK) >> CHUNK_SHIFT][(columns + CHUNK_MASK) >> CHUNK_SHIFT];
+    }
+
+    /**
+     * Retrieves the element at the specified position.
+     * @param row the row position of the element.
+     * @param col the column position of the element.
+     * @return the element, or null if nothing has been set there yet.
+     */
+    public Element get(int row, int col) {
+        Chunk chunk = chunks[row >> CHUNK_SHIFT][col >> CHUNK_SHIFT];
+        if (chunk == null) {
+            return null;
+        }
+        if (chunk.cells == null) {
+            return chunk.uniform;
+        }
+        return chunk.cells[cellIndex(row, col)];
+    }
+
+    /**
+     * Sets the element at the specified position. A shared terrain element
+     * written into an untouched chunk claims the whole chunk without allocating it.
+     * @param row the row position of the element.
+     * @param col the column position of the element.
+     * @param element the element to store.
+     * @param shared true if the element is a shared terrain tile that
+     *               may stand for a whole chunk, false otherwise.
+     */
+    public void set(int row, int col, Element element, boolean shared) {
+        int chunkRow = row >> CHUNK_SHIFT;
+        int chunkCol = col >> CHUNK_SHIFT;
+        Chunk chunk = chunks[chunkRow][chunkCol];
+        if (chunk == null && shared) {
+            chunks[chunkRow][chunkCol] = uniformChunk(element);
+            return;
+        }
+        if (chunk != null && chunk.cells == null) {
+            if (chunk.uniform == element) {
+                return;
+            }
+            chunk = materialize(chunkRow, chunkCol, chunk.uniform);
+        } else if (chunk == null) {
+            chunk = materialize(chunkRow, chunkCol, null);
+        }
+        chunk.cells[cellIndex(row, col)] = element;
+    }
+
+    /**
+     * Retrieves the Path for a cell, creating it the first time it is needed.
+     * Paths are only kept for chunks that have their own cells, since a uniform
+     * chunk is either untouched or entirely covered by terrain.
+     * @param row the row position of the path.
+     * @param col the column position of the path.
+     * @return the Path belonging to that cell.
+     */
+    public Path getPath(int row, int col) {
+        int chunkRow = row >> CHUNK_SHIFT;
+        int chunkCol = col >> CHUNK_SHIFT;
+        Chunk chunk = chunks[chunkRow][chunkCol];
+        if (chunk == null || chunk.cells == null) {
+            chunk = materialize(chunkRow, chunkCol, chunk == null ? null : chunk.uniform);
+        }
+        if (chunk.paths == null) {
+            chunk.paths = new Path[CELLS_PER_CHUNK];
+        }
+        int index = cellIndex(row, col);
+        Path path = chunk.paths[index];
+        if (path == null) {
+            path = new Path(row, col);
+            chunk.paths[index] = path;
+        }
+        return path;
+    }
+
+    /**
+     * Drops every chunk, so the grid can be loaded again from scratch.
+     */
+    public void clear() {
+        for (Chunk[] chunkRow : chunks) {
+            Arrays.fill(chunkRow, null);
+        }
+        uniformChunks.clear();
+    }
+
+    /**
+     * Counts the chunks that hold their own cell array.
+     * @return the number of allocated chunks.
+     */
+    public int getAllocatedChunkCount() {
+        int count = 0;
+        for (Chunk[] chunkRow : chunks) {
+            for (Chunk chunk : chunkRow) {
+                if (chunk != null && chunk.cells != null) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts all chunks that cover the grid.
+     * @return the total number of chunks.
+     */
+    public int getChunkCount() {
+        return chunks.length * chunks[0].length;
+    }
+
+    /**
+     * Retrieves the number of rows in the grid.
+     * @return the number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Retrieves the number of columns in the grid.
+     * @return the number of columns.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Finds or creates the shared constant chunk for a terrain element.
+     * The same chunk object is reused for every chunk filled with that element.
+     * @param element the shared terrain element.
+     * @return the uniform chunk standing for a block of that element.
+     */
+    private Chunk uniformChunk(Element element) {
+        for (int i = 0; i < uniformChunks.size(); i++) {
+            if (uniformChunks.get(i).uniform == element) {
+                return uniformChunks.get(i);
+            }
+        }
+        Chunk chunk = new Chunk(element);
+        uniformChunks.add(chunk);
+        return chunk;
+    }
+
+    /**
+     * Gives a chunk its own cell array, filled with the element it stood for until now.
+     * @param chunkRow the row of the chunk.
+     * @param chunkCol the column of the chunk.
+     * @param fill the element to fill the new cells with, or null.
+     * @return the newly allocated chunk.
+     */
+    private Chunk materialize(int chunkRow, int chunkCol, Element fill) {
+        Element[] cells = new Element[CELLS_PER_CHUNK];
+        if (fill != null) {
+            Arrays.fill(cells, fill);
+        }
+        Chunk chunk = new Chunk(cells);
+        chunks[chunkRow][chunkCol] = chunk;
+        return chunk;
+    }
+
+    /**
+     * Works out where a cell lives inside its chunk's cell array.
+     * @param row the row position of the cell.
+     * @param col the column position of the cell.
+     * @return the index of the cell within its chunk.
+     */
+    private static int cellIndex(int row, int col) {
+        return ((row & CHUNK_MASK) << CHUNK_SHIFT) | (col & CHUNK_MASK);
+    }
+}
@@ -0,0 +1,90 @@
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks that threads reading the grid through GridManager.read always see it
+ * between two ticks, and are never starved by the simulation. It loads a level
+ * headless and runs its ticks back to back, each under the write lock as
+ * TickScheduler runs them, with no pause between them, while reader threads
+ * scan the whole grid over and over. Every read must find the grid's kept hash
+ * matching its scan, which a read that saw a tick half done would not, and
+ * every reader must finish its reads, which it could not if reads that keep
+ * racing the ticks were never allowed to block them.
+ * Run it from the command line; it exits with status 1 if a read sees a torn
+ * grid or the readers do not finish in time.
+ * @author Alex Vesely
+ */
+public class ConcurrentReadCheck {
+    private static final int DEFAULT_READS = 200;
+    private static final int READERS = 2;
+    private static final int SEED = 7;
+    private static final long TIMEOUT_MILLIS = 60_000;
+
+    /**
+     * Runs the check on a level.
+     * @param args the level file, then optionally the number of reads per reader thread.
+     * @throws InterruptedException if interrupted while waiting for the threads.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Usage: ConcurrentReadCheck levelFile [reads]");
+            return;
+        }
+        int reads = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_READS;
+        LevelData level = FileHandler.readLevelData(args[0]);
+        GameController gameController = level.createGame(SEED);
+        GridManager gridManager = gameController.getGridManager();
+        TickScheduler scheduler = TickScheduler.forGame(gameController, level.getAmoebaGrowthRate(), () -> { });
+        scheduler.setRunning(true, 0);
+
+        AtomicBoolean readersDone = new AtomicBoolean();
+        AtomicInteger tornReads = new AtomicInteger();
+        AtomicInteger ticks = new AtomicInteger();
+        Thread simulation = new Thread(() -> {
+            Random inputs = new Random(SEED);
+            GameController.PlayerInput[] directions = GameController.PlayerInput.values();
+            while (!readersDone.get()) {
+                gameController.registerInput(directions[inputs.nextInt(directions.length)]);
+                // Each tick takes the write lock itself, as the scheduler wraps it
+                scheduler.runDue(scheduler.getNextDue(), cost -> { });
+                ticks.incrementAndGet();
+            }
+        }, "simulation");
+
+        Thread[] readers = new Thread[READERS];
+        for (int i = 0; i < READERS; i++) {
+            readers[i] = new Thread(() -> {
+                for (int read = 0; read < reads; read++) {
+                    boolean whole = gridManager.read(grid -> grid.getGridHash() == grid.computeGridHash());
+                    if (!whole) {
+                        tornReads.incrementAndGet();
+                    }
+                }
+            }, "reader-" + i);
+        }
+
+        long start = System.nanoTime();
+        simulation.start();
+        for (Thread reader : readers) {
+            reader.start();
+        }
+        boolean finished = true;
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        for (Thread reader : readers) {
+            reader.join(Math.max(1, deadline - System.currentTimeMillis()));
+            finished &= !reader.isAlive();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        readersDone.set(true);
+        simulation.join();
+
+        System.out.println(READERS + " readers made " + (finished ? READERS * reads + " reads" : "too few reads")
+                + " of " + gridManager.getColumns() + "x" + gridManager.getRows() + " cells in "
+                + elapsedMillis + " ms while " + ticks.get() + " ticks ran, " + tornReads.get() + " saw a torn grid");
+        if (!finished || tornReads.get() > 0) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+    }
+}
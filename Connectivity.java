@@ -0,0 +1,214 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Labels the regions of open ground (paths, the player and the enemies standing
+ * on them), so that a frog walled off from the player can skip its search for a path.
+ * Enemies count as ground rather than as walls, so flies and frogs walking about
+ * leave the labels alone; they only make regions bigger than a frog could cross,
+ * which the search itself then settles.
+ * The regions are kept in a union-find forest over the cells of the grid.
+ * Opening a cell, such as when dirt is dug or a rock falls away, joins it to its
+ * open neighbours straight away. Closing a cell can split a region, which a
+ * union-find cannot undo, so it only marks the labels as inexact; until they are
+ * rebuilt, regions may be joined that are in fact split, which only ever makes a
+ * frog search when it need not, never the other way round. The labels are rebuilt
+ * from scratch by refresh, once per frog tick at most.
+ * Only dense grids are labelled, as a chunked map would need an int per cell.
+ * @author Alex Vesely
+ */
+public class Connectivity {
+    private static final int CLOSED = -1;
+    private static final int[][] DIRECTIONS = {
+            {-1, 0}, {1, 0}, {0, -1}, {0, 1} // Up, down, left, right
+    };
+
+    private final GridManager gridManager;
+    private final int rows;
+    private final int columns;
+    private final int[] parent;
+    private final AtomicLong searchesAvoided = new AtomicLong();
+    private long rebuilds;
+    private boolean built;
+    private boolean exact;
+
+    /**
+     * Creates the labels for a grid. They are first built by refresh.
+     * @param gridManager the grid to label.
+     */
+    public Connectivity(GridManager gridManager) {
+        this.gridManager = gridManager;
+        this.rows = gridManager.getRows();
+        this.columns = gridManager.getColumns();
+        this.parent = new int[rows * columns];
+    }
+
+    /**
+     * Throws the labels away, such as when the grid is being reloaded.
+     */
+    public void invalidate() {
+        built = false;
+    }
+
+    /**
+     * Rebuilds the labels if they have never been built or a cell has closed since.
+     * Must be called on the simulation thread, outside of any parallel decide phase.
+     */
+    public void refresh() {
+        if (built && exact) {
+            return;
+        }
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                int cell = row * columns + col;
+                if (isOpen(row, col)) {
+                    parent[cell] = cell;
+                    if (col > 0 && parent[cell - 1] != CLOSED) {
+                        union(cell - 1, cell);
+                    }
+                    if (row > 0 && parent[cell - columns] != CLOSED) {
+                        union(cell - columns, cell);
+                    }
+                } else {
+                    parent[cell] = CLOSED;
+                }
+            }
+        }
+        // Point every cell straight at its root, so lookups during the decide phase are short
+        for (int cell = 0; cell < parent.length; cell++) {
+            if (parent[cell] != CLOSED) {
+                parent[cell] = parent[parent[cell]];
+            }
+        }
+        built = true;
+        exact = true;
+        rebuilds++;
+    }
+
+    /**
+     * Updates the labels for a cell that has changed.
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     * @param oldKind the kind that was in the cell, or null.
+     * @param newKind the kind now in the cell, or null.
+     */
+    public void cellChanged(int row, int col, ElementKind oldKind, ElementKind newKind) {
+        if (!built) {
+            return;
+        }
+        boolean wasOpen = oldKind != null && oldKind.has(ElementKind.OPEN_GROUND);
+        boolean nowOpen = newKind != null && newKind.has(ElementKind.OPEN_GROUND);
+        int cell = row * columns + col;
+        if (wasOpen && !nowOpen) {
+            // The cell keeps its label until the next rebuild
+            exact = false;
+        } else if (!wasOpen && nowOpen) {
+            if (parent[cell] == CLOSED) {
+                parent[cell] = cell;
+            }
+            for (int[] dir : DIRECTIONS) {
+                int newRow = row + dir[0];
+                int newCol = col + dir[1];
+                if (newRow >= 0 && newRow < rows && newCol >= 0 && newCol < columns
+                        && parent[newRow * columns + newCol] != CLOSED) {
+                    union(newRow * columns + newCol, cell);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether a frog might be able to reach the player. Only reads the labels,
+     * so it is safe to call from the parallel decide phase. Counts every frog that
+     * is found to be walled off, as that frog's search is skipped.
+     * @param frogRow the row of the frog.
+     * @param frogCol the column of the frog.
+     * @param playerRow the row of the player.
+     * @param playerCol the column of the player.
+     * @return false if the frog certainly cannot reach the player, true otherwise.
+     */
+    public boolean mayReach(int frogRow, int frogCol, int playerRow, int playerCol) {
+        if (!built) {
+            return true;
+        }
+        int playerCell = playerRow * columns + playerCol;
+        if (parent[playerCell] == CLOSED) {
+            return true;
+        }
+        int playerRoot = root(playerCell);
+        for (int[] dir : DIRECTIONS) {
+            int newRow = frogRow + dir[0];
+            int newCol = frogCol + dir[1];
+            if (newRow >= 0 && newRow < rows && newCol >= 0 && newCol < columns) {
+                int next = newRow * columns + newCol;
+                if (parent[next] != CLOSED && root(next) == playerRoot) {
+                    return true;
+                }
+            }
+        }
+        searchesAvoided.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Retrieves how many frog searches have been skipped because the frog was walled off.
+     * @return the number of searches avoided.
+     */
+    public long getSearchesAvoided() {
+        return searchesAvoided.get();
+    }
+
+    /**
+     * Retrieves how many times the labels have been built from scratch.
+     * @return the number of rebuilds.
+     */
+    public long getRebuilds() {
+        return rebuilds;
+    }
+
+    /**
+     * Checks whether a cell is open ground.
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     * @return true if the cell is open, false otherwise.
+     */
+    private boolean isOpen(int row, int col) {
+        Element element = gridManager.getElement(row, col);
+        return element != null && element.getKind().has(ElementKind.OPEN_GROUND);
+    }
+
+    /**
+     * Finds the root of a cell's region without changing the forest.
+     * @param cell an open cell.
+     * @return the root cell of its region.
+     */
+    private int root(int cell) {
+        while (parent[cell] != cell) {
+            cell = parent[cell];
+        }
+        return cell;
+    }
+
+    /**
+     * Joins the regions of two open cells, halving the paths walked on the way.
+     * @param a one cell.
+     * @param b the other cell.
+     */
+    private void union(int a, int b) {
+        while (parent[a] != a) {
+            parent[a] = parent[parent[a]];
+            a = parent[a];
+        }
+        while (parent[b] != b) {
+            parent[b] = parent[parent[b]];
+            b = parent[b];
+        }
+        if (a != b) {
+            // Keep the smaller index as the root, so rebuilds always label the same way
+            if (a < b) {
+                parent[b] = a;
+            } else {
+                parent[a] = b;
+            }
+        }
+    }
+}
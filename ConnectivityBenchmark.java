@@ -0,0 +1,54 @@
+/**
+ * Measures what the frog connectivity labels cost and save while frogs and flies
+ * move about. It loads a level headless and runs fly and frog ticks in turn,
+ * timing each frog tick, which brings the labels up to date before its frogs decide.
+ * Levels where the frogs are walled off from the player suit it best, as the
+ * frogs then wander for as long as it runs rather than catching the player.
+ * Run it from the command line.
+ * @author Alex Vesely
+ */
+public class ConnectivityBenchmark {
+    private static final int DEFAULT_FROG_TICKS = 200;
+    private static final int WARMUP_FROG_TICKS = 50;
+    private static final int SEED = 7;
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    /**
+     * Runs the benchmark on a level.
+     * @param args the level file, then optionally the number of frog ticks to time.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: ConnectivityBenchmark levelFile [frogTicks]");
+            return;
+        }
+        int frogTicks = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_FROG_TICKS;
+        GameController gameController = FileHandler.readLevelData(args[0]).createGame(SEED);
+        GridManager gridManager = gameController.getGridManager();
+        Connectivity connectivity = gridManager.getConnectivity();
+        if (connectivity == null) {
+            System.out.println("Chunked grids are not labelled");
+            return;
+        }
+
+        for (int i = 0; i < WARMUP_FROG_TICKS; i++) {
+            gameController.flyTick();
+            gameController.frogTick();
+        }
+        long rebuildsBefore = connectivity.getRebuilds();
+        long avoidedBefore = connectivity.getSearchesAvoided();
+        long nanos = 0;
+        for (int i = 0; i < frogTicks; i++) {
+            gameController.flyTick();
+            long start = System.nanoTime();
+            gameController.frogTick();
+            nanos += System.nanoTime() - start;
+        }
+
+        System.out.println(gridManager.getFrogs().size() + " frogs, "
+                + gridManager.getFlies().size() + " flies, " + frogTicks + " frog ticks");
+        System.out.printf("%.1f us per frog tick%n", nanos / NANOS_PER_MICRO / frogTicks);
+        System.out.println((connectivity.getRebuilds() - rebuildsBefore) + " label rebuilds, "
+                + (connectivity.getSearchesAvoided() - avoidedBefore) + " searches avoided");
+    }
+}
@@ -9,14 +9,13 @@ public abstract class DangerousRock extends Element {
     private boolean hasMomentum = false;
 
     /**
-     * Constructs a DangerousRock with specified row and column positions.
+     * Constructs a DangerousRock of a kind with specified row and column positions.
+     * @param kind the kind of rock.
      * @param row the row position of the dangerous rock in the grid.
      * @param column the column position of the dangerous rock in the grid.
      */
-    public DangerousRock(int row, int column) {
-        super(row, column);
-        canExplode = true;
-        canBeEntered = false;
+    public DangerousRock(ElementKind kind, int row, int column) {
+        super(kind, row, column);
     }
     /**
      * Gains momentum when the boulder falls.
@@ -30,29 +29,28 @@ public abstract class DangerousRock extends Element {
      * @param gridManager the grid manager to access and update the grid
      */
     public void fall(GridManager gridManager) {
-        Element[][] grid = gridManager.getElementGrid();
+        int rows = gridManager.getRows();
         int newRow = this.getRow() + 1;
         int col = this.getColumn();
-        if (newRow < grid.length && grid[this.row][this.column]
-                instanceof MagicWall && (grid[newRow][col] instanceof Path
-                        || grid[newRow][col] instanceof Player
-                        || grid[newRow][col] instanceof Frog
-                        || grid[newRow][col] instanceof Fly)) {
+        Element below = newRow < rows ? gridManager.getElement(newRow, col) : null;
+        Element underBelow = newRow + 1 < rows ? gridManager.getElement(newRow + 1, col) : null;
+        ElementKind belowKind = below == null ? null : below.getKind();
+        if (newRow < rows && gridManager.getElement(this.row, this.column).getKind() == ElementKind.MAGIC_WALL
+                && (belowKind == ElementKind.PATH || Element.has(below, ElementKind.CRUSHABLE))) {
             // transformed rocks are on the same coordinates as the magic wall
             // this if  statement makes sure magic walls are not replaced
             // with paths after the transformed rock falls.
-            gridManager.removeFromList(grid[newRow][col]);
+            gridManager.removeFromList(below);
             gridManager.removeElement(newRow, col);
             gridManager.setElement(newRow, col, this);
             // Update position
             this.setRow(newRow);
             gainMomentum();
-        } else if (newRow < grid.length && grid[newRow][col] instanceof Path) {
+        } else if (belowKind == ElementKind.PATH) {
             // Update the grid to move the boulder
-            gridManager.removeFromList(grid[newRow][col]);
-            Element p = new Path(this.getRow(), this.getColumn());
-            gridManager.setElement(this.getRow(), this.getColumn(), p);
-            gridManager.addToList(p);
+            gridManager.removeFromList(below);
+            gridManager.setElement(this.getRow(), this.getColumn(),
+                    gridManager.getPath(this.getRow(), this.getColumn()));
 
             gridManager.setElement(newRow, col, this);
 
@@ -60,37 +58,29 @@ public abstract class DangerousRock extends Element {
             this.setRow(newRow);
             gainMomentum();
 
-        } else if (newRow < grid.length && (grid[newRow][col] instanceof Player
-                || grid[newRow][col] instanceof Frog
-                || grid[newRow][col] instanceof Fly)) {
+        } else if (Element.has(below, ElementKind.CRUSHABLE)) {
             // if the rock lands on a player/enemy and has momentum , remove the player/enemy
             // If the boulder lands on a player and has momentum
             if (hasMomentum) {
-                gridManager.removeFromList(grid[newRow][col]); // Remove the player or enemy
+                gridManager.removeFromList(below); // Remove the player or enemy
                 gridManager.destroyRemoveFromList(this); //destroy falling boulder/diamond
                 gridManager.setElement(newRow, col, this);     // Replace player with the diamond
 
-                Element p = new Path(this.getRow(), this.getColumn());
-                gridManager.setElement(this.getRow(), this.getColumn(), p);
-                gridManager.addToList(p);
+                gridManager.setElement(this.getRow(), this.getColumn(),
+                        gridManager.getPath(this.getRow(), this.getColumn()));
 
                 this.setRow(newRow);
             }
             hasMomentum = false;
 
-        } else if (newRow < grid.length && grid[newRow][col] instanceof MagicWall
-                && (grid[newRow + 1][col] instanceof Path
-                || grid[newRow + 1][col] instanceof Player
-                || grid[newRow + 1][col] instanceof Frog
-                || grid[newRow + 1][col] instanceof Fly)) {
+        } else if (belowKind == ElementKind.MAGIC_WALL
+                && (underBelow != null && underBelow.getKind() == ElementKind.PATH
+                || Element.has(underBelow, ElementKind.CRUSHABLE))) {
             //row under magic wall is within range , and is a path ,
             // anything else it stays over the  magic wall until its clear
             // beneath the magic wall (assuming it wouldn't roll)
             // turn into diamond and vice versa
 
-            if (grid[newRow + 1][col] instanceof Frog || grid[newRow + 1][col] instanceof Fly) {
-                System.out.println("Rock has crushed Enemy after passing through magic wall");
-            }
             MagicWall magicWall = (MagicWall) gridManager.getElement(newRow, col);
             magicWall.transformRock(this, gridManager);
 
@@ -104,31 +94,27 @@ public abstract class DangerousRock extends Element {
      * @param gridManager the grid manager to access and update the grid
      */
     public void roll(GridManager gridManager) {
-        Element[][] grid = gridManager.getElementGrid();
+        int rows = gridManager.getRows();
+        int columns = gridManager.getColumns();
         int newRow = this.getRow() + 1; // Row below the current position
         int col = this.getColumn();
+        Element below = newRow < rows ? gridManager.getElement(newRow, col) : null;
+        Element underBelow = newRow + 1 < rows ? gridManager.getElement(newRow + 1, col) : null;
 
         // Check if below is a surface rock can roll on Boulder, Diamond, or NormalWall,
         // and check that the magic wall
         // isnt blocked by something a rock can not crush AKA player,enemy
-        if (newRow < grid.length
-                && (grid[newRow][col] instanceof Boulder
-                        || grid[newRow][col] instanceof Diamond
-                        || grid[newRow][col] instanceof NormalWall
-                        || grid[newRow][col] instanceof TitaniumWall
-                        || (grid[newRow][col] instanceof MagicWall)
-                        && !(grid[newRow + 1][col] instanceof Player
-                        || grid[newRow + 1][col] instanceof Frog
-                        || grid[newRow + 1][col] instanceof Fly))) {
+        if (Element.has(below, ElementKind.ROLLABLE_OFF)
+                        || below != null && below.getKind() == ElementKind.MAGIC_WALL
+                        && !Element.has(underBelow, ElementKind.CRUSHABLE)) {
             // Check if rolling to the right is possible by checking if directly right and diagonally right is path.
-            if (col + 1 < grid[0].length
-                    && grid[newRow][col + 1] instanceof Path
-                    && grid[this.getRow()][col + 1] instanceof Path) {
+            if (col + 1 < columns
+                    && gridManager.getElement(newRow, col + 1).getKind() == ElementKind.PATH
+                    && gridManager.getElement(this.getRow(), col + 1).getKind() == ElementKind.PATH) {
 
                 // Move to the diagonal right
-                Element p = new Path(this.getRow(), this.getColumn());
-                gridManager.setElement(this.getRow(), this.getColumn(), p);
-                gridManager.addToList(p);
+                gridManager.setElement(this.getRow(), this.getColumn(),
+                        gridManager.getPath(this.getRow(), this.getColumn()));
 
                 gridManager.setElement(this.getRow(), col + 1, this);
                 this.setRow(this.getRow());
@@ -138,13 +124,12 @@ public abstract class DangerousRock extends Element {
             }
             // Check if rolling to the left is possible by checking
             // if directly left and diagonally left is path.
-            if (col - 1 < grid[0].length && grid[newRow][col - 1] instanceof Path
-                    && grid[this.getRow()][col - 1] instanceof Path) {
+            if (col - 1 >= 0 && gridManager.getElement(newRow, col - 1).getKind() == ElementKind.PATH
+                    && gridManager.getElement(this.getRow(), col - 1).getKind() == ElementKind.PATH) {
 
                 // Move to the diagonal right
-                Element p = new Path(this.getRow(), this.getColumn());
-                gridManager.setElement(this.getRow(), this.getColumn(), p);
-                gridManager.addToList(p);
+                gridManager.setElement(this.getRow(), this.getColumn(),
+                        gridManager.getPath(this.getRow(), this.getColumn()));
 
                 gridManager.setElement(this.getRow(), col - 1, this);
                 this.setRow(this.getRow());
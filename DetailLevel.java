@@ -0,0 +1,70 @@
+/**
+ * The simulation level of detail, for big caves where most enemies and amoebas
+ * are far from the player. Anything within the radius of the player ticks at
+ * full rate; anything further away only acts on one tick in every farInterval.
+ * Which far entities act on a tick depends only on the tick number and their place
+ * in their list, so the far ones are spread evenly over the ticks and a game run
+ * with the same seed and level of detail always plays out the same way.
+ * A far entity simply misses the ticks it does not act on: nothing is owed
+ * or replayed when the player comes near.
+ * @author Alex Vesely
+ */
+public class DetailLevel {
+    private final int radius;
+    private final int farInterval;
+
+    /**
+     * Creates a level of detail.
+     * @param radius how many cells from the player, across or down, still tick at full rate.
+     * @param farInterval far entities act on one tick in this many.
+     * @throws IllegalArgumentException if the radius is negative or the interval is less than 1.
+     */
+    public DetailLevel(int radius, int farInterval) {
+        if (radius < 0 || farInterval < 1) {
+            throw new IllegalArgumentException("Invalid level of detail: radius " + radius
+                    + ", far interval " + farInterval);
+        }
+        this.radius = radius;
+        this.farInterval = farInterval;
+    }
+
+    /**
+     * Checks whether a cell is close enough to the player to tick at full rate.
+     * Everything is close while there is no player.
+     * @param player the player, or null.
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     * @return true if the cell is within the radius of the player, false otherwise.
+     */
+    public boolean isNear(Player player, int row, int col) {
+        return player == null || (Math.abs(row - player.getRow()) <= radius
+                && Math.abs(col - player.getColumn()) <= radius);
+    }
+
+    /**
+     * Checks whether an entity acts on a tick.
+     * @param near whether the entity is within the radius of the player.
+     * @param tick the number of the tick, counted per subsystem.
+     * @param index the entity's place in its list.
+     * @return true if the entity acts on this tick, false if it skips it.
+     */
+    public boolean acts(boolean near, long tick, int index) {
+        return near || (tick + index) % farInterval == 0;
+    }
+
+    /**
+     * Retrieves the radius around the player that ticks at full rate.
+     * @return the radius in cells.
+     */
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Retrieves how many ticks far entities wait between actions.
+     * @return the far tick interval.
+     */
+    public int getFarInterval() {
+        return farInterval;
+    }
+}
@@ -1,5 +1,3 @@
-import javafx.scene.image.Image;
-
 /**
  * Represents a diamond within the grid-based game, which is a type of dangerous rock.
  * The diamond can fall and roll within the grid and interacts with other elements.
@@ -13,9 +11,7 @@ public class Diamond extends DangerousRock {
      * @param column the column position of the diamond in the grid.
      */
     public Diamond(int row, int column) {
-        super(row, column);
-        image = new Image("images/diamond.png");
-        name = "Diamond";
+        super(ElementKind.DIAMOND, row, column);
     }
 
     /**
@@ -1,5 +1,3 @@
-import javafx.scene.image.Image;
-
 /**
  * Represents a Dirt tile in the game.
  * This tile can explode and be walked over.
@@ -14,11 +12,7 @@ public class Dirt extends Element {
      * @param column the column  position of the tile
      */
     public Dirt(final int row, final int column) {
-        super(row, column);
-        canExplode = true;
-        image = new Image("images/dirt.png");
-        canBeEntered = true;
-        name = "Dirt";
+        super(ElementKind.DIRT, row, column);
     }
 
     /**
@@ -1,38 +1,54 @@
-import javafx.scene.image.Image;
-
 /**
  * Represents an abstract base class for elements within the grid-based game.
- * The Element class maintains attributes for its position, image,
- * and properties such as whether it can explode or be entered by a player.
+ * Each Element only holds its kind and its position; the properties shared
+ * by every element of a kind, such as its sprite and whether it can explode
+ * or be entered by a player, are looked up in ElementKind.
  * @author Omar Sanad
  * @author Alex Vesely
  */
 public abstract class Element {
 
-    protected String name;
-    protected Image image;
+    protected final ElementKind kind;
     protected int column;
     protected int row;
-    protected boolean canExplode;
-    protected boolean canBeEntered;
-    protected GridManager gridManager;
 
     /**
-     * Constructs an Element object with specified row and column positions.
+     * Constructs an Element object of a kind with specified row and column positions.
+     * @param kind the kind of element.
      * @param row the row position of the element in the grid.
      * @param column the column position of the element in the grid.
      */
-    public Element(int row, int column) {
+    public Element(ElementKind kind, int row, int column) {
+        this.kind = kind;
         this.column = column;
         this.row = row;
     }
 
+    /**
+     * Retrieves the kind of the element.
+     * @return the element's kind.
+     */
+    public ElementKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Checks whether a flag of its kind holds for an element. An empty cell,
+     * such as one past the edge of the grid, has no flags.
+     * @param element the element to check, or null.
+     * @param flag the flag to test, such as ElementKind.CRUSHABLE.
+     * @return true if the element is not null and the flag is set, false otherwise.
+     */
+    public static boolean has(Element element, int flag) {
+        return element != null && element.kind.has(flag);
+    }
+
     /**
      * Retrieves the name of the element.
      * @return the name of the element as a String.
      */
     public String getName() {
-        return name;
+        return kind.getName();
     }
 
     /**
@@ -67,16 +83,12 @@ public abstract class Element {
         this.column = column;
     }
 
-    public Image getImage() {
-        return image;
-    }
-
     /**
-     * Sets the image representation of this Element.
-     * @param image the Image object to be set for this Element's visual representation.
+     * Retrieves the sprite this Element is drawn with.
+     * @return the index into Sprites.GRID_SPRITES, or Sprites.NO_SPRITE if nothing is drawn.
      */
-    public void setImage(Image image) {
-        this.image = image;
+    public int getSprite() {
+        return kind.getSprite();
     }
 
     /**
@@ -84,7 +96,7 @@ public abstract class Element {
      * @return true if the element can explode, false otherwise.
      */
     public boolean isCanExplode() {
-        return canExplode;
+        return kind.canExplode();
     }
 
     /**
@@ -92,7 +104,24 @@ public abstract class Element {
      * @return true if the element is enterable, false otherwise.
      */
     public boolean isCanBeEntered() {
-        return canBeEntered;
+        return kind.canBeEntered();
+    }
+
+    /**
+     * Determines whether the element is a tile that rarely changes, such as a wall,
+     * so the renderer can keep it on its cached static layer.
+     * @return true if the element belongs on the static layer, false otherwise.
+     */
+    public boolean isStaticTile() {
+        return kind.isStaticTile();
+    }
+
+    /**
+     * Determines whether the element leaves diamonds behind when it explodes.
+     * @return true if its explosion turns into diamonds, false otherwise.
+     */
+    public boolean dropsDiamonds() {
+        return false;
     }
 
     /**
@@ -101,7 +130,7 @@ public abstract class Element {
      */
     @Override
     public String toString() {
-        return name;
+        return getName();
     }
 }
 
@@ -0,0 +1,153 @@
+/**
+ * The kinds of element that can occupy a grid cell, and the properties every
+ * element of a kind shares. Keeping these in one table per kind, rather than
+ * in fields on every element, leaves each element holding little more than
+ * its kind and its position.
+ * The rules that used to ask "is this a Path, a Player or a Fly?" ask one
+ * question of the kind's flags instead, such as whether it is CRUSHABLE.
+ * @author Alex Vesely
+ */
+public enum ElementKind {
+    // Flags are qualified here because they are declared below the kinds
+    PATH("Path", null, true, true,
+            ElementKind.EXPLODABLE | ElementKind.PLAYER_ENTERABLE | ElementKind.FLY_ENTERABLE
+                    | ElementKind.AMOEBA_GROWABLE | ElementKind.FROG_ENTERABLE | ElementKind.OPEN_GROUND),
+    DIRT("Dirt", "images/dirt.png", true, true,
+            ElementKind.EXPLODABLE | ElementKind.PLAYER_ENTERABLE | ElementKind.AMOEBA_GROWABLE),
+    NORMAL_WALL("NormalWall", "images/normal-wall.png", false, true,
+            ElementKind.EXPLODABLE | ElementKind.ROLLABLE_OFF),
+    TITANIUM_WALL("TitaniumWall", "images/titanium-wall.png", false, true,
+            ElementKind.ROLLABLE_OFF),
+    MAGIC_WALL("MagicWall", "images/magic-wall.png", false, true,
+            ElementKind.EXPLODABLE),
+    EXIT("Exit", "images/exit.png", false, true,
+            0),
+    LOCKED_DOOR("LockedDoor", null, false, true,
+            ElementKind.EXPLODABLE),
+    KEY("Key", null, true, false,
+            ElementKind.EXPLODABLE),
+    BOULDER("Boulder", "images/boulder.png", false, false,
+            ElementKind.EXPLODABLE | ElementKind.ROLLABLE_OFF),
+    DIAMOND("Diamond", "images/diamond.png", false, false,
+            ElementKind.EXPLODABLE | ElementKind.ROLLABLE_OFF),
+    PLAYER("Player", "images/player.png", true, false,
+            ElementKind.EXPLODABLE | ElementKind.CRUSHABLE | ElementKind.FLY_ENTERABLE
+                    | ElementKind.FROG_ENTERABLE | ElementKind.OPEN_GROUND),
+    FROG("Frog", "images/frog.png", false, false,
+            ElementKind.EXPLODABLE | ElementKind.CRUSHABLE | ElementKind.OPEN_GROUND),
+    AMOEBA("Amoeba", "images/amoeba.png", false, false,
+            ElementKind.EXPLODABLE | ElementKind.FLY_ENTERABLE),
+    BUTTERFLY("Butterfly", "images/butterfly.png", false, false,
+            ElementKind.EXPLODABLE | ElementKind.CRUSHABLE | ElementKind.AMOEBA_GROWABLE
+                    | ElementKind.OPEN_GROUND),
+    FIREFLY("Firefly", "images/firefly.png", false, false,
+            ElementKind.EXPLODABLE | ElementKind.CRUSHABLE | ElementKind.AMOEBA_GROWABLE
+                    | ElementKind.OPEN_GROUND),
+    EXPLOSION("Explosion", "images/explosion.png", false, false,
+            ElementKind.EXPLODABLE);
+
+    /**
+     * Destroyed by an explosion.
+     */
+    public static final int EXPLODABLE = 1;
+    /**
+     * Killed by a falling rock that lands on it.
+     */
+    public static final int CRUSHABLE = 1 << 1;
+    /**
+     * A surface that rocks roll off sideways.
+     */
+    public static final int ROLLABLE_OFF = 1 << 2;
+    /**
+     * A cell a fly can move into.
+     */
+    public static final int FLY_ENTERABLE = 1 << 3;
+    /**
+     * A cell an amoeba can grow into.
+     */
+    public static final int AMOEBA_GROWABLE = 1 << 4;
+    /**
+     * A cell the player can walk straight onto, digging through it if it is dirt.
+     */
+    public static final int PLAYER_ENTERABLE = 1 << 5;
+    /**
+     * A cell a frog can move into, and so search through on its way to the player.
+     */
+    public static final int FROG_ENTERABLE = 1 << 6;
+    /**
+     * A path, or a creature that walks on paths. Frogs plan long routes across it,
+     * as the creatures on it will have moved on by the time a frog gets there.
+     */
+    public static final int OPEN_GROUND = 1 << 7;
+
+    private final String name;
+    private final int sprite;
+    private final int flags;
+    private final boolean canBeEntered;
+    private final boolean staticTile;
+
+    /**
+     * Creates a kind of element.
+     * @param name the name shared by elements of this kind.
+     * @param spritePath the sprite they are drawn with, or null if it depends on the element.
+     * @param canBeEntered whether the player can walk onto them.
+     * @param staticTile whether they rarely change and so belong on the renderer's static layer.
+     * @param flags the flags that hold for them, such as EXPLODABLE | CRUSHABLE.
+     */
+    ElementKind(String name, String spritePath, boolean canBeEntered, boolean staticTile, int flags) {
+        this.name = name;
+        this.sprite = spritePath == null ? Sprites.NO_SPRITE : Sprites.index(spritePath);
+        this.flags = flags;
+        this.canBeEntered = canBeEntered;
+        this.staticTile = staticTile;
+    }
+
+    /**
+     * Retrieves the name shared by elements of this kind.
+     * @return the kind's name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retrieves the sprite elements of this kind are drawn with.
+     * @return the index into Sprites.GRID_SPRITES, or Sprites.NO_SPRITE.
+     */
+    public int getSprite() {
+        return sprite;
+    }
+
+    /**
+     * Checks whether elements of this kind can be destroyed by an explosion.
+     * @return true if they can explode, false otherwise.
+     */
+    public boolean canExplode() {
+        return (flags & EXPLODABLE) != 0;
+    }
+
+    /**
+     * Checks whether a flag holds for elements of this kind.
+     * @param flag the flag to test, such as CRUSHABLE.
+     * @return true if the flag is set, false otherwise.
+     */
+    public boolean has(int flag) {
+        return (flags & flag) != 0;
+    }
+
+    /**
+     * Checks whether the player can walk onto elements of this kind.
+     * @return true if they can be entered, false otherwise.
+     */
+    public boolean canBeEntered() {
+        return canBeEntered;
+    }
+
+    /**
+     * Checks whether elements of this kind belong on the renderer's static layer.
+     * @return true if they are static tiles, false otherwise.
+     */
+    public boolean isStaticTile() {
+        return staticTile;
+    }
+}
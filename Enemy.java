@@ -0,0 +1,44 @@
+/**
+ * An enemy that moves about the grid on its own: a fly or a frog.
+ * While an enemy is on a grid, its direction and handedness live only in one of
+ * the grid's EnemyStores, in plain arrays that ticks run straight through, and
+ * its position is kept there too; the enemy itself is only the handle the grid's
+ * cells hold, and knows nothing but its slot in the store. Its position must
+ * therefore be changed through the store, which keeps the enemy's own row and
+ * column in step so that anything holding the enemy can still ask where it is.
+ * @author Alex Vesely
+ */
+public abstract class Enemy extends Element {
+    /**
+     * The slot of an enemy that is in no store.
+     */
+    public static final int NO_SLOT = -1;
+
+    private int slot = NO_SLOT;
+
+    /**
+     * Creates an enemy of a kind that is in no store yet.
+     * @param kind the kind of enemy.
+     * @param row the row position of the enemy.
+     * @param column the column position of the enemy.
+     */
+    public Enemy(ElementKind kind, int row, int column) {
+        super(kind, row, column);
+    }
+
+    /**
+     * Retrieves the enemy's place in its store.
+     * @return the slot, or NO_SLOT if the enemy is in no store.
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Records the enemy's place in its store, as the store adds, moves and removes it.
+     * @param slot the enemy's new place in the store, or NO_SLOT once it is removed.
+     */
+    void setSlot(int slot) {
+        this.slot = slot;
+    }
+}
@@ -0,0 +1,215 @@
+import java.util.Arrays;
+
+/**
+ * The flies or frogs of a grid, kept as a structure of arrays: one array each for
+ * rows, columns, directions and handedness, indexed by the enemy's slot, alongside
+ * the enemies themselves as handles for the grid's cells. A tick deciding moves
+ * reads the arrays in order rather than following a reference to every enemy.
+ * Directions and handedness are kept nowhere else. Positions are also kept by the
+ * enemies, as by every element, and setting one here sets the enemy's as well.
+ * Enemies keep the order they were added in, as a list would, so games play out
+ * exactly as they did with a list. Removing an enemy only empties its slot; the
+ * slots after it move down when the store is compacted, once at the end of every
+ * tick, so a tick that removes many enemies shifts the arrays once rather than
+ * once per enemy. Until then, get returns null for an emptied slot.
+ * @param <T> the type of enemy held.
+ * @author Alex Vesely
+ */
+public class EnemyStore<T extends Enemy> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Enemy[] enemies = new Enemy[INITIAL_CAPACITY];
+    private int[] rows = new int[INITIAL_CAPACITY];
+    private int[] columns = new int[INITIAL_CAPACITY];
+    private byte[] directions = new byte[INITIAL_CAPACITY];
+    private boolean[] leftEdges = new boolean[INITIAL_CAPACITY];
+    private int size;
+    private int removed;
+
+    /**
+     * Adds an enemy that follows the right edge at the end of the store, facing up.
+     * @param enemy the enemy, which must not be in any store.
+     * @throws IllegalArgumentException if the enemy is already in a store.
+     */
+    public void add(T enemy) {
+        add(enemy, false);
+    }
+
+    /**
+     * Adds an enemy at the end of the store, facing up.
+     * @param enemy the enemy, which must not be in any store.
+     * @param followsLeftEdge whether the enemy follows the left edge, for flies.
+     * @throws IllegalArgumentException if the enemy is already in a store.
+     */
+    public void add(T enemy, boolean followsLeftEdge) {
+        if (enemy.getSlot() != Enemy.NO_SLOT) {
+            throw new IllegalArgumentException("Enemy is already stored: " + enemy);
+        }
+        if (size == enemies.length) {
+            int capacity = size * 2;
+            enemies = Arrays.copyOf(enemies, capacity);
+            rows = Arrays.copyOf(rows, capacity);
+            columns = Arrays.copyOf(columns, capacity);
+            directions = Arrays.copyOf(directions, capacity);
+            leftEdges = Arrays.copyOf(leftEdges, capacity);
+        }
+        enemies[size] = enemy;
+        rows[size] = enemy.getRow();
+        columns[size] = enemy.getColumn();
+        directions[size] = 0; // Start with "Up" direction
+        leftEdges[size] = followsLeftEdge;
+        enemy.setSlot(size);
+        size++;
+    }
+
+    /**
+     * Removes an enemy. Its slot stays empty until compact.
+     * @param enemy the enemy to remove.
+     * @return true if the enemy was in this store, false otherwise.
+     */
+    public boolean remove(T enemy) {
+        int slot = enemy.getSlot();
+        if (slot == Enemy.NO_SLOT || slot >= size || enemies[slot] != enemy) {
+            return false;
+        }
+        enemy.setSlot(Enemy.NO_SLOT);
+        enemies[slot] = null;
+        removed++;
+        return true;
+    }
+
+    /**
+     * Closes up the slots of removed enemies, moving the enemies after them down
+     * while keeping their order.
+     */
+    public void compact() {
+        if (removed == 0) {
+            return;
+        }
+        int live = 0;
+        for (int slot = 0; slot < size; slot++) {
+            Enemy enemy = enemies[slot];
+            if (enemy == null) {
+                continue;
+            }
+            if (live != slot) {
+                enemies[live] = enemy;
+                rows[live] = rows[slot];
+                columns[live] = columns[slot];
+                directions[live] = directions[slot];
+                leftEdges[live] = leftEdges[slot];
+                enemy.setSlot(live);
+            }
+            live++;
+        }
+        Arrays.fill(enemies, live, size, null);
+        size = live;
+        removed = 0;
+    }
+
+    /**
+     * Removes every enemy.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            if (enemies[i] != null) {
+                enemies[i].setSlot(Enemy.NO_SLOT);
+                enemies[i] = null;
+            }
+        }
+        size = 0;
+        removed = 0;
+    }
+
+    /**
+     * Retrieves the number of slots in use: the enemies in the store,
+     * and those removed since the store was last compacted.
+     * @return the number of slots.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the store uses no slots.
+     * @return true if it is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Retrieves the enemy in a slot.
+     * @param slot the slot, from 0 to size() - 1.
+     * @return the enemy, or null if it was removed since the store was last compacted.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int slot) {
+        return (T) enemies[slot];
+    }
+
+    /**
+     * Retrieves the row of the enemy in a slot.
+     * @param slot the slot.
+     * @return the row position.
+     */
+    public int getRow(int slot) {
+        return rows[slot];
+    }
+
+    /**
+     * Sets the row of the enemy in a slot, and the enemy's own.
+     * @param slot the slot, which must hold an enemy.
+     * @param row the new row position.
+     */
+    public void setRow(int slot, int row) {
+        rows[slot] = row;
+        enemies[slot].row = row;
+    }
+
+    /**
+     * Retrieves the column of the enemy in a slot.
+     * @param slot the slot.
+     * @return the column position.
+     */
+    public int getColumn(int slot) {
+        return columns[slot];
+    }
+
+    /**
+     * Sets the column of the enemy in a slot, and the enemy's own.
+     * @param slot the slot, which must hold an enemy.
+     * @param column the new column position.
+     */
+    public void setColumn(int slot, int column) {
+        columns[slot] = column;
+        enemies[slot].column = column;
+    }
+
+    /**
+     * Retrieves the direction the enemy in a slot last moved in.
+     * @param slot the slot.
+     * @return the direction index.
+     */
+    public int getDirection(int slot) {
+        return directions[slot];
+    }
+
+    /**
+     * Sets the direction the enemy in a slot last moved in.
+     * @param slot the slot.
+     * @param direction the direction index.
+     */
+    public void setDirection(int slot, int direction) {
+        directions[slot] = (byte) direction;
+    }
+
+    /**
+     * Checks which edge the enemy in a slot follows.
+     * @param slot the slot.
+     * @return true if it follows the left edge, false if it follows the right edge.
+     */
+    public boolean followsLeftEdge(int slot) {
+        return leftEdges[slot];
+    }
+}
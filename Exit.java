@@ -1,49 +1,27 @@
-import javafx.scene.image.Image;
-
 /**
  * Represents an Exit tile in the game.
- * Only one exit can be created per level.
+ * Only one exit can be created per level, which GridManager enforces.
  * Initially, cannot be entered/walked over or exploded.
  * @author Rhys Llewellyn
  * @author Joshua Aka
  */
 public class Exit extends Element {
-    /**
-     * Allows us to keep track of whether an exit has already been created.
-     */
-    private static boolean exitExists = false;
+    private boolean unlocked;
 
     /**
      * Creates a new Exit tile at the specified row and column (x and y).
      * @param row the row position of the tile
      * @param column the column position of the tile
-     * @throws IllegalStateException if an exit already exists
      */
     public Exit(final int row, final int column) {
-        super(row, column);
-        // Ensures only one exit can be created per level
-        if (exitExists) {
-            throw new IllegalStateException("An exit already exists!");
-        }
-        image = new Image("images/exit.png");
-        canBeEntered = false;  // Initially can't be entered
-        canExplode = false;
-        name = "Exit";
-        exitExists = true;
-    }
-
-    /**
-     * Resets the exit existence flag to allow the creation of a new exit.
-     */
-    public static void toggleFalseExitExists() {
-        exitExists = false;
+        super(ElementKind.EXIT, row, column);
     }
 
     /**
      * Method to unlock the Exit so it can be entered
      */
     public void unlock() {
-        this.canBeEntered = true;
+        this.unlocked = true;
         System.out.println("Exit Unlocked!");
     }
 
@@ -51,7 +29,7 @@ public class Exit extends Element {
      * Locks the exit, preventing it from being entered.
      */
     public void lock() {
-        this.canBeEntered = false;
+        this.unlocked = false;
         System.out.println("Exit Locked!");
     }
 
@@ -60,7 +38,16 @@ public class Exit extends Element {
      * @return true if the exit can be entered, false otherwise
      */
     public boolean isLocked() {
-        return canBeEntered;
+        return unlocked;
+    }
+
+    /**
+     * Checks whether the player can walk onto the exit, which is only once it is unlocked.
+     * @return true if the exit is unlocked, false otherwise.
+     */
+    @Override
+    public boolean isCanBeEntered() {
+        return unlocked;
     }
 
     /**
@@ -69,6 +56,6 @@ public class Exit extends Element {
      */
     @Override
     public String toString() {
-        return super.toString() + " Unlocked: " + canBeEntered;
+        return super.toString() + " Unlocked: " + unlocked;
     }
 }
@@ -1,5 +1,3 @@
-import javafx.scene.image.Image;
-
 /**
  * Represents an explosion element within a grid-based game.
  * An Explosion object occupies a grid cell and impacts surrounding cells,
@@ -15,11 +13,7 @@ public class Explosion extends Element {
      * @param column the column position of the explosion.
      */
     public Explosion(int row, int column) {
-        super(row, column);
-        image = new Image("images/explosion.png");
-        canBeEntered = false;
-        canExplode = true;
-        name = "Explosion";
+        super(ElementKind.EXPLOSION, row, column);
     }
 
     /**
@@ -31,11 +25,13 @@ public class Explosion extends Element {
      */
     public static void createExplosion(final int row, final int col,
                                        final GridManager gridManager) {
-        Element[][] grid = gridManager.getElementGrid();
+        ExplosionEvent event = new ExplosionEvent();
+        event.begin();
+        int cellsAffected = 0;
 
         for (int i = row - 1; i <= row + 1; i++) {
             for (int j = col - 1; j <= col + 1; j++) {
-                if (i >= 0 && i < grid.length && j >= 0 && j < grid[0].length) {
+                if (gridManager.isInBounds(i, j)) {
                     Element element = gridManager.getElement(i, j);
                     if (element.isCanExplode()) {
                         // If the element is an amoeba, remove it from its group
@@ -50,10 +46,18 @@ public class Explosion extends Element {
                         gridManager.removeFromList(element);
                         Explosion explosion = new Explosion(i, j);
                         gridManager.setElement(i, j, explosion);
+                        cellsAffected++;
                     }
                 }
             }
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.row = row;
+            event.column = col;
+            event.cellsAffected = cellsAffected;
+            event.commit();
+        }
     }
 
     /**
@@ -67,13 +71,11 @@ public class Explosion extends Element {
      * @param gridManager the grid manager that manages the grid of elements.
      */
     public static void createExplosionAfterMath(int row, int col, GridManager gridManager) {
-        Element[][] grid = gridManager.getElementGrid();
         for (int i = row - 1; i <= row + 1; i++) {
             for (int j = col - 1; j <= col + 1; j++) {
-                if (i >= 0 && i < grid.length && j >= 0 && j < grid[0].length) {
+                if (gridManager.isInBounds(i, j)) {
                     if (gridManager.getElement(i, j).isCanExplode()) {
-                        Path path = new Path(i, j);
-                        gridManager.setElement(i, j, path);
+                        gridManager.setElement(i, j, gridManager.getPath(i, j));
                     }
                 }
             }
@@ -91,10 +93,9 @@ public class Explosion extends Element {
      * @param gridManager the grid manager that manages the grid of elements.
      */
     public static void createDiamondExplosionAfterMath(int row, int col, GridManager gridManager) {
-        Element[][] grid = gridManager.getElementGrid();
         for (int i = row - 1; i <= row + 1; i++) {
             for (int j = col - 1; j <= col + 1; j++) {
-                if (i >= 0 && i < grid.length && j >= 0 && j < grid[0].length) {
+                if (gridManager.isInBounds(i, j)) {
                     if (gridManager.getElement(i, j).isCanExplode()) {
                         Diamond diamond = new Diamond(i, j);
                         gridManager.addToList(diamond);
@@ -0,0 +1,25 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event emitted when an explosion is applied to the grid.
+ * @author Alex Vesely
+ */
+@Name("boulderdash.Explosion")
+@Label("Explosion")
+@Category({"Boulder Dash", "Simulation"})
+@Description("An explosion replacing the explodable tiles around a cell")
+public class ExplosionEvent extends jdk.jfr.Event {
+
+    @Label("Row")
+    int row;
+
+    @Label("Column")
+    int column;
+
+    @Label("Cells Affected")
+    @Description("The number of tiles that were replaced by the explosion")
+    int cellsAffected;
+}
@@ -1,5 +1,7 @@
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileReader;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.nio.file.Files;
@@ -25,6 +27,8 @@ public class FileHandler {
      * @return a 2D array of strings representing the grid.
      */
     public static String[][] readElementGridFromLevelFile(String fileName) {
+        LevelIOEvent event = new LevelIOEvent();
+        event.begin();
         File readFile = new File(fileName);
         try {
             Scanner in = new Scanner(readFile);
@@ -48,6 +52,7 @@ public class FileHandler {
                 i++;
             }
             in.close();
+            commitIOEvent(event, "load", fileName);
             return initialGrid;
         } catch (FileNotFoundException exception) {
             System.out.println("Error in finding file");
@@ -55,17 +60,118 @@ public class FileHandler {
         return null;
     }
 
+    /**
+     * Reads a level file straight into a new GridManager, one row at a time.
+     * Levels with more cells than GridManager.CHUNKED_CELL_THRESHOLD are loaded
+     * into a chunked grid, so that very large maps are never held as a whole
+     * grid of element codes.
+     * @param fileName the name of the level file containing the grid data.
+     * @return the loaded GridManager.
+     * @throws RuntimeException if the file cannot be read.
+     */
+    public static GridManager readGridManagerFromLevelFile(String fileName) {
+        LevelIOEvent event = new LevelIOEvent();
+        event.begin();
+        try (BufferedReader in = new BufferedReader(new FileReader(fileName))) {
+            String[] splitGridDimensions = in.readLine().split(" ");
+            int width = Integer.parseInt(splitGridDimensions[0]);
+            int height = Integer.parseInt(splitGridDimensions[1]);
+            boolean chunked = (long) width * height > GridManager.CHUNKED_CELL_THRESHOLD;
+
+            GridManager gridManager = new GridManager(height, width, chunked);
+            loadGridRows(in, gridManager);
+            commitIOEvent(event, "load", fileName);
+            return gridManager;
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading level file: " + fileName, e);
+        }
+    }
+
+    /**
+     * Reads everything in a level file, so games can be started from it without reading the file again.
+     * @param fileName the name of the level file.
+     * @return the level's data.
+     */
+    public static LevelData readLevelData(String fileName) {
+        return new LevelData(readElementGridFromLevelFile(fileName),
+                readSecondsFromLevelFile(fileName),
+                readDiamondsCollectedFromLevelFile(fileName),
+                readRequiredDiamondsFromLevelFile(fileName),
+                readAmoebaGrowthRateFromLevelFile(fileName),
+                readAmoebaSizeLimitFromLevelFile(fileName),
+                readKeyInventoryFromLevelFile(fileName));
+    }
+
+    /**
+     * Applies the diamonds, key inventory and amoeba limit stored in a level file
+     * to a game controller whose grid has been loaded from the same file.
+     * @param gameController the game controller to configure.
+     * @param fileName the name of the level file.
+     */
+    public static void applyLevelSettings(GameController gameController, String fileName) {
+        gameController.setDiamondsRequired(readRequiredDiamondsFromLevelFile(fileName));
+        gameController.getPlayer().setDiamondCount(readDiamondsCollectedFromLevelFile(fileName));
+        gameController.getPlayer().setKeyInventory(readKeyInventoryFromLevelFile(fileName));
+        gameController.setAmoebaLimit(readAmoebaSizeLimitFromLevelFile(fileName));
+    }
+
+    /**
+     * Reloads a level file into an existing GridManager, resetting the player's progress.
+     * @param fileName the name of the level file containing the grid data.
+     * @param gridManager the GridManager to load the level into.
+     * @throws RuntimeException if the file cannot be read.
+     */
+    public static void reloadGridFromLevelFile(String fileName, GridManager gridManager) {
+        LevelIOEvent event = new LevelIOEvent();
+        event.begin();
+        try (BufferedReader in = new BufferedReader(new FileReader(fileName))) {
+            in.readLine(); // Skip line containing grid dimensions
+            gridManager.resetForReinitialize();
+            loadGridRows(in, gridManager);
+            commitIOEvent(event, "load", fileName);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading level file: " + fileName, e);
+        }
+    }
+
+    /**
+     * Loads the rows of a level into a GridManager. The reader must be
+     * positioned just after the line containing the grid dimensions.
+     * @param in the reader for the level file.
+     * @param gridManager the GridManager to load the rows into.
+     * @throws IOException if the file cannot be read.
+     */
+    private static void loadGridRows(BufferedReader in, GridManager gridManager) throws IOException {
+        in.readLine(); //Skip line containing seconds left
+        in.readLine(); //Skip line containing diamond information
+        in.readLine(); //Skip line containing amoeba information
+        in.readLine(); //skip line containing key inventory information
+
+        gridManager.beginLoad();
+        int row = 0;
+        String line = in.readLine();
+        while (line != null && row < gridManager.getRows()) {
+            gridManager.loadRow(row, line.split(" "));
+            row++;
+            line = in.readLine();
+        }
+        gridManager.finishLoad();
+    }
+
     /**
      * Saves the game state to a save file associated to current player playing.
      * @param gameController the game controller.
      * @param currentProfile the profile of the current player.
      * @param secondsRemaining the remaining seconds of the level.
      * @param keyInventory the keys currently held by the player.
+     * @throws RuntimeException if the save file cannot be written.
      */
     public static void writeFile(GameController gameController, PlayerProfile currentProfile, int secondsRemaining,
                                  ArrayList<KeyColour> keyInventory) {
+        LevelIOEvent event = new LevelIOEvent();
+        event.begin();
 
-        Element[][] currentGrid = gameController.getGridManager().getElementGrid();
+        GridManager gridManager = gameController.getGridManager();
         int diamondCount = gameController.getGridManager().getPlayer().getDiamondCount();
         int currentLevel = currentProfile.getMaxLevelReached();
 
@@ -78,7 +184,7 @@ public class FileHandler {
         try {
             String outputFile = "txt/" + fileName;
             PrintWriter out = new PrintWriter(outputFile);
-            out.println(currentGrid[0].length + " " + currentGrid.length);
+            out.println(gridManager.getColumns() + " " + gridManager.getRows());
             out.println(secondsRemaining);
 
             out.println(diamondCount + " " + gameController.getDiamondsRequired());
@@ -86,9 +192,10 @@ public class FileHandler {
 
             out.println(createKeyInventoryString(keyInventory));
 
-            for (int i = 0; i < currentGrid.length; i++) {
-                for (int j = 0; j < currentGrid[i].length; j++) {
-                    switch (gameController.getGridManager().getElement(i, j).getName()) {
+            for (int i = 0; i < gridManager.getRows(); i++) {
+                for (int j = 0; j < gridManager.getColumns(); j++) {
+                    Element element = gridManager.getElement(i, j);
+                    switch (element.getName()) {
                         case "Player" -> out.print("*");
 
                         case "Path" -> out.print("P");
@@ -118,23 +225,41 @@ public class FileHandler {
                         // If there is an explosion, load a path in its place when the save is loaded
                         case "Explosion" -> out.print("P");
 
-                        case "FireflyLeft" -> out.print("FFL");
-                        case "FireflyRight" -> out.print("FFR");
-                        case "ButterflyLeft" -> out.print("BFL");
-                        case "ButterflyRight" -> out.print("BFR");
+                        // The fly store keeps which edge each fly follows
+                        case "Firefly" -> out.print(gridManager.getFlies()
+                                .followsLeftEdge(((Fly) element).getSlot()) ? "FFL" : "FFR");
+                        case "Butterfly" -> out.print(gridManager.getFlies()
+                                .followsLeftEdge(((Fly) element).getSlot()) ? "BFL" : "BFR");
                         default -> System.out.println("Error in reading Symbol");
                     }
-                    if (!(j == currentGrid[i].length - 1)) {
+                    if (!(j == gridManager.getColumns() - 1)) {
                         out.print(" ");
                     }
                 }
-                if (i != currentGrid.length - 1) {
+                if (i != gridManager.getRows() - 1) {
                     out.println();
                 }
             }
             out.close();
+            commitIOEvent(event, "save", outputFile);
         } catch (IOException e) {
-            System.out.println("Cannot write file");
+            throw new RuntimeException("Cannot write save file: " + fileName, e);
+        }
+    }
+
+    /**
+     * Completes a load or save Flight Recorder event, if it is being recorded.
+     * @param event the event that was begun before the file was touched.
+     * @param operation either load or save.
+     * @param fileName the file that was read or written.
+     */
+    private static void commitIOEvent(LevelIOEvent event, String operation, String fileName) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.fileName = fileName;
+            event.bytes = new File(fileName).length();
+            event.commit();
         }
     }
 
@@ -1,15 +1,11 @@
-import javafx.scene.image.Image;
-
 /**
  * Class represents Flies within the game. That move
  * uniquely by following either the left or right edge.
  * @author Karamveer Singh
  */
-public class Fly extends Element {
+public class Fly extends Enemy {
     public static final int POSSIBLE_DIRECTIONS = 4;
     public static final int FEWER_POSSIBLE_DIRECTIONS = 3;
-    protected boolean followsLeftEdge;
-    private int currentDirection;
 
     private static final int[][] DIRECTIONS = {
             {-1, 0}, // Up
@@ -18,20 +14,21 @@ public class Fly extends Element {
             {0, -1}  // Left
     };
 
+    // Every combination of the four neighbours being enterable or not
+    private static final int MASKS = 1 << POSSIBLE_DIRECTIONS;
+    // The 16 x 4 x 2 table of the next direction for each neighbour mask,
+    // last direction and edge followed, laid out flat by transitionIndex
+    private static final byte[] NEXT_DIRECTIONS = buildTransitions();
+
     /**
-     * Creates a new Fly object at the specified row and column.
+     * Creates a new Fly object of a kind at the specified row and column.
+     * The edge it follows is given to the grid's fly store when it is added there.
+     * @param kind the kind of Fly
      * @param row the row of the new Fly
      * @param column the column of the new Fly
-     * @param followsLeftEdge whether the Fly follows the left edge
      */
-    public Fly(final int row, final int column, final boolean followsLeftEdge) {
-        super(row, column);
-        image = new Image("images/butterfly.png");
-        canBeEntered = false;
-        canExplode = true;
-        name = "fly";
-        this.followsLeftEdge = followsLeftEdge;
-        this.currentDirection = 0; // Start with "Up" direction
+    public Fly(final ElementKind kind, final int row, final int column) {
+        super(kind, row, column);
     }
 
     /**
@@ -43,39 +40,76 @@ public class Fly extends Element {
      * @param player the player to check for collision
      */
     public void move(final GridManager gridManager, final Player player) {
-        Element[][] grid = gridManager.getElementGrid();
+        commitMove(gridManager, player, decideDirection(gridManager));
+    }
+
+    /**
+     * Works out the Fly's next direction without changing the grid,
+     * so it can run alongside other flies deciding their moves.
+     * @param gridManager the grid manager holding the current state of the grid
+     * @return the next direction index for the fly to move,
+     * or -1 if no valid move is found
+     */
+    public int decideDirection(final GridManager gridManager) {
+        return decideDirection(gridManager, gridManager.getFlies(), getSlot());
+    }
+
+    /**
+     * Works out the next direction of the fly in a slot of a fly store, reading only
+     * the store's arrays and the grid, so a tick can decide every fly in one pass
+     * over the arrays without touching the flies themselves.
+     * @param gridManager the grid manager holding the current state of the grid
+     * @param flies the store holding the fly
+     * @param slot the fly's slot in the store
+     * @return the next direction index for the fly to move,
+     * or -1 if no valid move is found
+     */
+    public static int decideDirection(final GridManager gridManager, final EnemyStore<Fly> flies, final int slot) {
+        return getNextDirection(gridManager, flies.getRow(slot), flies.getColumn(slot),
+                flies.getDirection(slot), flies.followsLeftEdge(slot));
+    }
 
-        // Determine the next valid direction
-        int nextDirection = getNextDirection(grid);
+    /**
+     * Applies a direction chosen by decideDirection. Other flies may have moved
+     * since the direction was decided, so if the target is no longer a valid
+     * move the direction is decided again against the current grid.
+     * @param gridManager the grid manager to update the Fly's position
+     * @param player the player to check for collision
+     * @param nextDirection the decided direction, or -1 for no move
+     */
+    public void commitMove(final GridManager gridManager, final Player player, int nextDirection) {
+        if (nextDirection != -1
+                && (gridManager.getFlyMask(this.getRow(), this.getColumn()) & (1 << nextDirection)) == 0) {
+            nextDirection = decideDirection(gridManager);
+        }
         if (nextDirection != -1) {
             // Calculate new position
             int newRow = this.getRow() + DIRECTIONS[nextDirection][0];
             int newCol = this.getColumn() + DIRECTIONS[nextDirection][1];
 
-            Element target = grid[newRow][newCol];
+            Element target = gridManager.getElement(newRow, newCol);
             // Move to new position if the target is a Path
             if (target instanceof Path) {
                 gridManager.setElement(this.getRow(), this.getColumn(),
-                        new Path(this.getRow(), this.getColumn()));
+                        gridManager.getPath(this.getRow(), this.getColumn()));
                 // Move to new position
                 gridManager.setElement(newRow, newCol, this);
-                this.setRow(newRow);
-                this.setColumn(newCol);
+                EnemyStore<Fly> flies = gridManager.getFlies();
+                flies.setRow(getSlot(), newRow);
+                flies.setColumn(getSlot(), newCol);
                 // Update the current direction
-                this.currentDirection = nextDirection;
+                flies.setDirection(getSlot(), nextDirection);
 
                 // If the target is a Player, kill the player
             } else if (target instanceof Player) {
                 gridManager.setElement(this.getRow(), this.getColumn(),
-                        new Path(this.getRow(), this.getColumn()));
+                        gridManager.getPath(this.getRow(), this.getColumn()));
                 // Replace player with Frog
                 gridManager.setElement(newRow, newCol, this);
                 // Remove player from the game
                 gridManager.destroyRemoveFromList(player);
-                this.setRow(newRow);
-                this.setColumn(newCol);
-                System.out.println("Player has been killed by the fly!");
-
+                gridManager.getFlies().setRow(getSlot(), newRow);
+                gridManager.getFlies().setColumn(getSlot(), newCol);
             } else if (target instanceof Amoeba) {
                 // explode!!!!!
             }
@@ -83,25 +117,68 @@ public class Fly extends Element {
     }
 
     /**
-     * Determines the next direction for the fly to move based on the rule.
-     * The fly will follow either the left or right edge,
-     * depending on the configuration.
-     * @param grid the 2D array representing the current state of the grid
+     * Determines the next direction for a fly to move based on the rule,
+     * by looking it up in the transition table.
+     * @param gridManager the grid manager holding the current state of the grid
+     * @param flyRow the row of the fly
+     * @param flyCol the column of the fly
+     * @param currentDirection the direction the fly last moved in
+     * @param followsLeftEdge whether the fly follows the left edge
+     * @return the next direction index for the fly to move,
+     * or -1 if no valid move is found
+     */
+    private static int getNextDirection(final GridManager gridManager, final int flyRow, final int flyCol,
+                                        final int currentDirection, final boolean followsLeftEdge) {
+        return NEXT_DIRECTIONS[transitionIndex(gridManager.getFlyMask(flyRow, flyCol),
+                currentDirection, followsLeftEdge)];
+    }
+
+    /**
+     * Works out the place in the transition table of a fly's situation.
+     * @param mask which neighbours the fly could move into, bit d for direction d
+     * @param direction the direction the fly last moved in
+     * @param followsLeftEdge whether the fly follows the left edge
+     * @return the index into NEXT_DIRECTIONS
+     */
+    private static int transitionIndex(final int mask, final int direction, final boolean followsLeftEdge) {
+        return (mask * POSSIBLE_DIRECTIONS + direction) * 2 + (followsLeftEdge ? 1 : 0);
+    }
+
+    /**
+     * Builds the transition table by running the wall-following rule
+     * for every mask, direction and edge.
+     * @return the table, indexed by transitionIndex
+     */
+    private static byte[] buildTransitions() {
+        byte[] table = new byte[MASKS * POSSIBLE_DIRECTIONS * 2];
+        for (int mask = 0; mask < MASKS; mask++) {
+            for (int direction = 0; direction < POSSIBLE_DIRECTIONS; direction++) {
+                table[transitionIndex(mask, direction, true)] = (byte) followEdge(mask, direction, true);
+                table[transitionIndex(mask, direction, false)] = (byte) followEdge(mask, direction, false);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Applies the wall-following rule. The fly will follow either the left
+     * or right edge, depending on the configuration.
+     * @param mask which neighbours the fly could move into, bit d for direction d
+     * @param currentDirection the direction the fly last moved in
+     * @param followsLeftEdge whether the fly follows the left edge
      * @return the next direction index for the fly to move,
      * or -1 if no valid move is found
      */
-    private int getNextDirection(final Element[][] grid) {
+    private static int followEdge(final int mask, final int currentDirection, final boolean followsLeftEdge) {
         int direction = currentDirection;
 
         // Check the wall-following rule
         for (int i = 0; i < POSSIBLE_DIRECTIONS; i++) {
             int checkDirection = followsLeftEdge ? (direction + FEWER_POSSIBLE_DIRECTIONS)
                     % POSSIBLE_DIRECTIONS : (direction + 1) % POSSIBLE_DIRECTIONS;
-            int row = this.getRow() + DIRECTIONS[checkDirection][0];
-            int col = this.getColumn() + DIRECTIONS[checkDirection][1];
 
             // If valid tile to move
-            if (isValidMove(grid, row, col)) {
+            if ((mask & (1 << checkDirection)) != 0) {
                 return checkDirection;
             }
 
@@ -114,27 +191,6 @@ public class Fly extends Element {
         return -1;
     }
 
-
-    /**
-     * Determines if the fly can move to the specified position in the grid.
-     * @param grid the 2D array representing the current state of the grid
-     * @param row  the row index of the target position
-     * @param col  the column index of the target position
-     * @return true if the fly can move to the target position, false otherwise
-     */
-    private boolean isValidMove(final Element[][] grid,
-                                final int row, final int col) {
-        // Check boundaries
-        if (row < 0 || row >= grid.length || col < 0 || col >= grid[0].length) {
-            return false;
-        }
-
-        // Tile must be a Path, Player, or Amoeba
-        Element target = grid[row][col];
-        return (target instanceof Path
-                || target instanceof Player || target instanceof Amoeba);
-    }
-
     /**
      * Returns a string representation of the Fly object.
      * @return "fly"
@@ -0,0 +1,57 @@
+/**
+ * Measures how fast flies move, and how fast many of them can be removed at once,
+ * on a level crowded with flies, such as one with ten thousand of them.
+ * It loads the level headless, times fly ticks, then times removing every other
+ * fly from fresh copies of the level and closing up their slots, as a tick in
+ * which a wave of explosions kills half of them would.
+ * Run it from the command line.
+ * @author Alex Vesely
+ */
+public class FlyBenchmark {
+    private static final int DEFAULT_FLY_TICKS = 200;
+    private static final int ROUNDS = 5;
+    private static final int SEED = 7;
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    /**
+     * Runs the benchmark on a level.
+     * @param args the level file, then optionally the number of fly ticks per round.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: FlyBenchmark levelFile [flyTicks]");
+            return;
+        }
+        int flyTicks = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_FLY_TICKS;
+        LevelData level = FileHandler.readLevelData(args[0]);
+
+        GameController gameController = level.createGame(SEED);
+        int flyCount = gameController.getGridManager().getFlies().size();
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < flyTicks; i++) {
+                gameController.flyTick();
+            }
+            long nanos = System.nanoTime() - start;
+            System.out.printf("%d flies: %.1f us per fly tick, %.1f ns per fly%n", flyCount,
+                    nanos / NANOS_PER_MICRO / flyTicks, (double) nanos / flyTicks / flyCount);
+        }
+
+        for (int round = 0; round < ROUNDS; round++) {
+            GridManager gridManager = level.createGame(SEED).getGridManager();
+            EnemyStore<Fly> flies = gridManager.getFlies();
+            Fly[] doomed = new Fly[flies.size() / 2];
+            for (int i = 0; i < doomed.length; i++) {
+                doomed[i] = flies.get(i * 2);
+            }
+            long start = System.nanoTime();
+            for (Fly fly : doomed) {
+                gridManager.destroyRemoveFromList(fly);
+            }
+            gridManager.compactEnemies();
+            long nanos = System.nanoTime() - start;
+            System.out.printf("Removed %d of %d flies in %.1f us%n", doomed.length,
+                    doomed.length + flies.size(), nanos / NANOS_PER_MICRO);
+        }
+    }
+}
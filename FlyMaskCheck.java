@@ -0,0 +1,58 @@
+import java.util.Random;
+
+/**
+ * Checks that the fly masks kept up to date cell by cell as a game plays out
+ * match masks worked out afresh from the grid. It loads a level headless, plays
+ * it with random moves, and compares every mask on the grid after loading and
+ * then every few ticks.
+ * Run it from the command line; it exits with status 1 if any mask was stale.
+ * @author Alex Vesely
+ */
+public class FlyMaskCheck {
+    private static final int DEFAULT_TICKS = 10_000;
+    private static final int CHECK_INTERVAL = 50;
+    private static final int SEED = 7;
+
+    /**
+     * Runs the check on a level.
+     * @param args the level file, then optionally the number of ticks to play.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: FlyMaskCheck levelFile [ticks]");
+            return;
+        }
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TICKS;
+        LevelData level = FileHandler.readLevelData(args[0]);
+        GameController gameController = level.createGame(SEED);
+        GridManager gridManager = gameController.getGridManager();
+        if (gridManager.isChunked()) {
+            System.out.println("Chunked grids keep no fly masks");
+            return;
+        }
+        TickScheduler scheduler = TickScheduler.forGame(gameController, level.getAmoebaGrowthRate(), () -> { });
+        scheduler.setRunning(true, 0);
+        Random inputs = new Random(SEED);
+        GameController.PlayerInput[] directions = GameController.PlayerInput.values();
+
+        int checks = 1;
+        int staleChecks = gridManager.countStaleFlyMasks() > 0 ? 1 : 0;
+        for (int i = 1; i <= ticks; i++) {
+            gameController.registerInput(directions[inputs.nextInt(directions.length)]);
+            scheduler.runDue(scheduler.getNextDue(), cost -> { });
+            if (i % CHECK_INTERVAL == 0 || i == ticks) {
+                int stale = gridManager.countStaleFlyMasks();
+                checks++;
+                if (stale > 0) {
+                    System.out.println("Tick " + i + ": " + stale + " stale fly masks");
+                    staleChecks++;
+                }
+            }
+        }
+        System.out.println(checks + " checks over " + ticks + " ticks, " + staleChecks + " with stale masks");
+        if (staleChecks > 0) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+    }
+}
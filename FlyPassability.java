@@ -0,0 +1,112 @@
+/**
+ * For every cell, which of its four neighbours a fly could move into, as a mask
+ * with bit d set when the neighbour in Fly direction d (0 up, 1 right, 2 down,
+ * 3 left) is a cell flies can enter. Cells past the edge of the grid never are.
+ * The masks are built once a level has loaded, then kept up to date by cellChanged
+ * as cells change, so a fly works out its move from one mask and Fly's transition
+ * table rather than by looking at its neighbours.
+ * Only dense grids keep masks, as a chunked map would need a byte per cell;
+ * there, masks are worked out from the neighbours when asked for.
+ * @author Alex Vesely
+ */
+public class FlyPassability {
+    // Row and column steps in Fly's direction order: up, right, down, left
+    private static final int[] ROW_STEPS = {-1, 0, 1, 0};
+    private static final int[] COL_STEPS = {0, 1, 0, -1};
+
+    private final GridManager gridManager;
+    private final int rows;
+    private final int columns;
+    private final byte[] masks;
+
+    /**
+     * Creates the masks for a grid. They are first built by rebuild.
+     * @param gridManager the grid to keep masks for.
+     */
+    public FlyPassability(GridManager gridManager) {
+        this.gridManager = gridManager;
+        this.rows = gridManager.getRows();
+        this.columns = gridManager.getColumns();
+        this.masks = new byte[rows * columns];
+    }
+
+    /**
+     * Works out every cell's mask from scratch, such as when a level has finished loading.
+     */
+    public void rebuild() {
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                masks[row * columns + col] = (byte) computeMask(gridManager, row, col);
+            }
+        }
+    }
+
+    /**
+     * Updates the masks of a cell's neighbours after flies became able or unable to enter it.
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     * @param enterable whether flies can now enter the cell.
+     */
+    public void cellChanged(int row, int col, boolean enterable) {
+        for (int direction = 0; direction < ROW_STEPS.length; direction++) {
+            // The neighbour that sees this cell in this direction lies the opposite way
+            int newRow = row - ROW_STEPS[direction];
+            int newCol = col - COL_STEPS[direction];
+            if (newRow >= 0 && newRow < rows && newCol >= 0 && newCol < columns) {
+                int cell = newRow * columns + newCol;
+                if (enterable) {
+                    masks[cell] |= (byte) (1 << direction);
+                } else {
+                    masks[cell] &= (byte) ~(1 << direction);
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieves a cell's mask.
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     * @return the mask, with bit d set if a fly there could move in direction d.
+     */
+    public int getMask(int row, int col) {
+        return masks[row * columns + col];
+    }
+
+    /**
+     * Counts the cells whose kept mask differs from one worked out afresh from their
+     * neighbours. Should always be zero; useful for checking the updates by cellChanged.
+     * @return the number of stale masks.
+     */
+    public int countStaleMasks() {
+        int stale = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                if (masks[row * columns + col] != computeMask(gridManager, row, col)) {
+                    stale++;
+                }
+            }
+        }
+        return stale;
+    }
+
+    /**
+     * Works out a cell's mask by looking at its neighbours.
+     * @param gridManager the grid.
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     * @return the mask, with bit d set if a fly there could move in direction d.
+     */
+    public static int computeMask(GridManager gridManager, int row, int col) {
+        int mask = 0;
+        for (int direction = 0; direction < ROW_STEPS.length; direction++) {
+            int newRow = row + ROW_STEPS[direction];
+            int newCol = col + COL_STEPS[direction];
+            if (gridManager.isInBounds(newRow, newCol)
+                    && Element.has(gridManager.getElement(newRow, newCol), ElementKind.FLY_ENTERABLE)) {
+                mask |= 1 << direction;
+            }
+        }
+        return mask;
+    }
+}
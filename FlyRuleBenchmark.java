@@ -0,0 +1,98 @@
+/**
+ * Compares the two ways of deciding where flies go: the transition table looked
+ * up with a cell's fly mask, which Fly uses, against the wall-following rule
+ * that rotates through the neighbours and reads each one from the grid, which
+ * Fly used before the table. It loads a level headless and decides every fly's
+ * next direction both ways, many times over, timing each way and checking that
+ * they always agree.
+ * Run it from the command line; it exits with status 1 if they ever disagree.
+ * @author Alex Vesely
+ */
+public class FlyRuleBenchmark {
+    private static final int DEFAULT_ROUNDS = 200;
+    private static final int BATCHES = 5;
+    private static final int SEED = 7;
+    private static final int[][] DIRECTIONS = {
+            {-1, 0}, {0, 1}, {1, 0}, {0, -1} // Up, right, down, left, in Fly's order
+    };
+
+    /**
+     * Runs the benchmark on a level.
+     * @param args the level file, then optionally the number of rounds per batch.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: FlyRuleBenchmark levelFile [rounds]");
+            return;
+        }
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ROUNDS;
+        GridManager gridManager = FileHandler.readLevelData(args[0]).createGame(SEED).getGridManager();
+        EnemyStore<Fly> flies = gridManager.getFlies();
+        int flyCount = flies.size();
+        if (flyCount == 0) {
+            System.out.println("The level has no flies");
+            return;
+        }
+
+        for (int slot = 0; slot < flyCount; slot++) {
+            int byTable = Fly.decideDirection(gridManager, flies, slot);
+            int byRule = followEdge(gridManager, flies.getRow(slot), flies.getColumn(slot),
+                    flies.getDirection(slot), flies.followsLeftEdge(slot));
+            if (byTable != byRule) {
+                System.out.println("FAILED: fly " + slot + " goes " + byTable + " by the table but "
+                        + byRule + " by the rule");
+                System.exit(1);
+            }
+        }
+
+        for (int batch = 0; batch < BATCHES; batch++) {
+            long checksum = 0;
+            long start = System.nanoTime();
+            for (int round = 0; round < rounds; round++) {
+                for (int slot = 0; slot < flyCount; slot++) {
+                    checksum += Fly.decideDirection(gridManager, flies, slot);
+                }
+            }
+            long tableNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int round = 0; round < rounds; round++) {
+                for (int slot = 0; slot < flyCount; slot++) {
+                    checksum -= followEdge(gridManager, flies.getRow(slot), flies.getColumn(slot),
+                            flies.getDirection(slot), flies.followsLeftEdge(slot));
+                }
+            }
+            long ruleNanos = System.nanoTime() - start;
+            double decisions = (double) rounds * flyCount;
+            System.out.printf("%d flies: table %.1f ns, rule %.1f ns per decision (checksum %d)%n",
+                    flyCount, tableNanos / decisions, ruleNanos / decisions, checksum);
+        }
+    }
+
+    /**
+     * Applies the wall-following rule as Fly did before its transition table: turn
+     * towards the followed edge, then rotate away from it until a neighbour can be entered.
+     * @param gridManager the grid.
+     * @param flyRow the row of the fly.
+     * @param flyCol the column of the fly.
+     * @param currentDirection the direction the fly last moved in.
+     * @param followsLeftEdge whether the fly follows the left edge.
+     * @return the next direction index, or -1 if no move is possible.
+     */
+    private static int followEdge(GridManager gridManager, int flyRow, int flyCol,
+                                  int currentDirection, boolean followsLeftEdge) {
+        int direction = currentDirection;
+        for (int i = 0; i < Fly.POSSIBLE_DIRECTIONS; i++) {
+            int checkDirection = followsLeftEdge ? (direction + Fly.FEWER_POSSIBLE_DIRECTIONS)
+                    % Fly.POSSIBLE_DIRECTIONS : (direction + 1) % Fly.POSSIBLE_DIRECTIONS;
+            int row = flyRow + DIRECTIONS[checkDirection][0];
+            int col = flyCol + DIRECTIONS[checkDirection][1];
+            if (gridManager.isInBounds(row, col)
+                    && gridManager.getElement(row, col).getKind().has(ElementKind.FLY_ENTERABLE)) {
+                return checkDirection;
+            }
+            direction = followsLeftEdge ? (direction + 1)
+                    % Fly.POSSIBLE_DIRECTIONS : (direction + Fly.FEWER_POSSIBLE_DIRECTIONS) % Fly.POSSIBLE_DIRECTIONS;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,128 @@
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Estimates how much heap a loaded level's grid takes, to keep an eye on the
+ * per-cell cost of elements as the maps grow. Every distinct element on the grid
+ * is counted once, and its shallow size is worked out from its instance fields
+ * using the layout of a 64-bit HotSpot JVM with compressed references: a 12 byte
+ * object header, 4 byte references, and objects padded to a multiple of 8 bytes.
+ * Each cell also costs one reference slot in the grid itself.
+ * @author Alex Vesely
+ */
+public class FootprintReport {
+    private static final int OBJECT_HEADER_BYTES = 12;
+    private static final int REFERENCE_BYTES = 4;
+    private static final int OBJECT_ALIGNMENT = 8;
+
+    private final Map<Class<?>, Integer> shallowSizes = new IdentityHashMap<>();
+    private final TreeMap<String, long[]> byType = new TreeMap<>();
+    private final int cells;
+    private long elementBytes;
+    private int elementCount;
+
+    /**
+     * Measures the grid of a level.
+     * @param gridManager the grid to measure.
+     */
+    public FootprintReport(GridManager gridManager) {
+        this.cells = gridManager.getRows() * gridManager.getColumns();
+        IdentityHashMap<Element, Boolean> seen = new IdentityHashMap<>();
+        for (int row = 0; row < gridManager.getRows(); row++) {
+            for (int col = 0; col < gridManager.getColumns(); col++) {
+                Element element = gridManager.getElement(row, col);
+                if (element != null && seen.put(element, Boolean.TRUE) == null) {
+                    int size = shallowSizeOf(element.getClass());
+                    long[] totals = byType.computeIfAbsent(element.getClass().getName(), name -> new long[2]);
+                    totals[0]++;
+                    totals[1] += size;
+                    elementBytes += size;
+                    elementCount++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Estimates the shallow size of an instance of a class from its instance fields.
+     * @param type the class to measure.
+     * @return the estimated size in bytes, including the header and padding.
+     */
+    public int shallowSizeOf(Class<?> type) {
+        Integer cached = shallowSizes.get(type);
+        if (cached != null) {
+            return cached;
+        }
+        int bytes = OBJECT_HEADER_BYTES;
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    bytes += fieldBytes(field.getType());
+                }
+            }
+        }
+        int size = (bytes + OBJECT_ALIGNMENT - 1) / OBJECT_ALIGNMENT * OBJECT_ALIGNMENT;
+        shallowSizes.put(type, size);
+        return size;
+    }
+
+    /**
+     * Works out how many bytes a field of a type takes in an object.
+     * @param type the type of the field.
+     * @return the size of the field in bytes.
+     */
+    private static int fieldBytes(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        } else if (type == short.class || type == char.class) {
+            return 2;
+        } else if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return REFERENCE_BYTES;
+    }
+
+    /**
+     * Retrieves the estimated bytes taken by the grid's elements and reference slots, per cell.
+     * @return the average bytes per cell.
+     */
+    public double getBytesPerCell() {
+        return cells == 0 ? 0 : (double) (elementBytes + (long) cells * REFERENCE_BYTES) / cells;
+    }
+
+    /**
+     * Builds a summary of the footprint, with a line for each type of element.
+     * @return the report.
+     */
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%d cells, %d distinct elements, %d bytes of elements"
+                        + " + %d bytes of grid references = %.1f bytes per cell%n",
+                cells, elementCount, elementBytes, (long) cells * REFERENCE_BYTES, getBytesPerCell()));
+        for (Map.Entry<String, long[]> entry : byType.entrySet()) {
+            long[] totals = entry.getValue();
+            report.append(String.format("  %-14s %8d x %3d bytes = %10d bytes%n", entry.getKey(),
+                    totals[0], totals[1] / totals[0], totals[1]));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Loads a level and prints its footprint.
+     * Usage: FootprintReport levelFile
+     * @param args the level file.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: FootprintReport levelFile");
+            return;
+        }
+        GridManager gridManager = FileHandler.readLevelData(args[0]).createGame(0).getGridManager();
+        System.out.print(new FootprintReport(gridManager).getReport());
+    }
+}
@@ -0,0 +1,249 @@
+/**
+ * An immutable picture of the game taken by the simulation thread after a tick,
+ * for the JavaFX Application Thread to draw. It holds a tile code for every cell
+ * inside the camera's viewport, the player's position, the diamonds the level
+ * asks for and the entity counts, so drawing never has to touch the live grid.
+ * @author Alex Vesely
+ */
+public class FrameSnapshot {
+    /**
+     * The tile code of a cell with nothing to draw on it.
+     */
+    public static final byte EMPTY = 0;
+    private static final int STATIC_FLAG = 0x40;
+    private static final int SPRITE_MASK = 0x3F;
+
+    private final long sequence;
+    private final int firstRow;
+    private final int firstColumn;
+    private final int rows;
+    private final int columns;
+    private final byte[] tiles;
+    private final int playerRow;
+    private final int playerColumn;
+    private final int diamondsCollected;
+    private final int diamondsRequired;
+    private final int boulderCount;
+    private final int diamondCount;
+    private final int flyCount;
+    private final int frogCount;
+    private final int amoebaCount;
+
+    /**
+     * Creates a snapshot from the tiles gathered by capture.
+     * @param sequence the number of this snapshot.
+     * @param firstRow the grid row shown at the top of the snapshot.
+     * @param firstColumn the grid column shown at the left of the snapshot.
+     * @param rows the number of rows in the snapshot.
+     * @param columns the number of columns in the snapshot.
+     * @param tiles the tile codes, row by row.
+     * @param player the player, or null if the player is gone.
+     * @param diamondsRequired the number of diamonds needed to finish the level.
+     * @param gridManager the grid to count entities on.
+     */
+    private FrameSnapshot(long sequence, int firstRow, int firstColumn, int rows, int columns,
+                          byte[] tiles, Player player, int diamondsRequired, GridManager gridManager) {
+        this.sequence = sequence;
+        this.firstRow = firstRow;
+        this.firstColumn = firstColumn;
+        this.rows = rows;
+        this.columns = columns;
+        this.tiles = tiles;
+        this.playerRow = player == null ? -1 : player.getRow();
+        this.playerColumn = player == null ? -1 : player.getColumn();
+        this.diamondsCollected = player == null ? 0 : player.getDiamondCount();
+        this.diamondsRequired = diamondsRequired;
+        this.boulderCount = gridManager.getBoulders().size();
+        this.diamondCount = gridManager.getDiamonds().size();
+        this.flyCount = gridManager.getFlies().size();
+        this.frogCount = gridManager.getFrogs().size();
+        this.amoebaCount = gridManager.getAmoebas().size();
+    }
+
+    /**
+     * Takes a snapshot of the cells the camera is looking at.
+     * Must be called on the thread that owns the grid.
+     * @param sequence the number of this snapshot, counting up from zero.
+     * @param gridManager the grid to take the snapshot of.
+     * @param camera the camera deciding which cells are visible.
+     * @param diamondsRequired the number of diamonds needed to finish the level.
+     * @return the new snapshot.
+     */
+    public static FrameSnapshot capture(long sequence, GridManager gridManager, Camera camera,
+                                        int diamondsRequired) {
+        int firstRow = camera.getFirstRow();
+        int firstColumn = camera.getFirstColumn();
+        int rows = Math.min(camera.getVisibleRows(), gridManager.getRows() - firstRow);
+        int columns = Math.min(camera.getVisibleColumns(), gridManager.getColumns() - firstColumn);
+        byte[] tiles = new byte[rows * columns];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                tiles[row * columns + col] = tileOf(gridManager.getElement(firstRow + row, firstColumn + col));
+            }
+        }
+        return new FrameSnapshot(sequence, firstRow, firstColumn, rows, columns,
+                tiles, gridManager.getPlayer(), diamondsRequired, gridManager);
+    }
+
+    /**
+     * Works out the tile code for an element: its sprite index plus one,
+     * with STATIC_FLAG set for tiles that belong on the static layer.
+     * @param element the element to encode.
+     * @return the tile code of the element.
+     */
+    private static byte tileOf(Element element) {
+        int tile = element.getSprite() + 1;
+        if (element.isStaticTile()) {
+            tile |= STATIC_FLAG;
+        }
+        return (byte) tile;
+    }
+
+    /**
+     * Checks whether a tile code belongs on the static layer.
+     * @param tile a tile code from this class.
+     * @return true if the tile is static, false otherwise.
+     */
+    public static boolean isStatic(byte tile) {
+        return (tile & STATIC_FLAG) != 0;
+    }
+
+    /**
+     * Finds the sprite drawn for a tile code.
+     * @param tile a tile code from this class.
+     * @return the index into Sprites.GRID_SPRITES, or Sprites.NO_SPRITE if nothing is drawn.
+     */
+    public static int spriteOf(byte tile) {
+        return (tile & SPRITE_MASK) - 1;
+    }
+
+    /**
+     * Retrieves the tile code of a cell in the snapshot.
+     * @param row the row within the snapshot, from zero to getRows() - 1.
+     * @param col the column within the snapshot, from zero to getColumns() - 1.
+     * @return the tile code of that cell.
+     */
+    public byte getTile(int row, int col) {
+        return tiles[row * columns + col];
+    }
+
+    /**
+     * Retrieves the number of this snapshot. Later snapshots have larger numbers.
+     * @return the sequence number.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Retrieves the grid row shown at the top of the snapshot.
+     * @return the first row.
+     */
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    /**
+     * Retrieves the grid column shown at the left of the snapshot.
+     * @return the first column.
+     */
+    public int getFirstColumn() {
+        return firstColumn;
+    }
+
+    /**
+     * Retrieves the number of rows in the snapshot.
+     * @return the number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Retrieves the number of columns in the snapshot.
+     * @return the number of columns.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Checks whether the player was still on the grid.
+     * @return true if the player was alive, false otherwise.
+     */
+    public boolean hasPlayer() {
+        return playerRow >= 0;
+    }
+
+    /**
+     * Retrieves the grid row of the player.
+     * @return the player row, or -1 if there is no player.
+     */
+    public int getPlayerRow() {
+        return playerRow;
+    }
+
+    /**
+     * Retrieves the grid column of the player.
+     * @return the player column, or -1 if there is no player.
+     */
+    public int getPlayerColumn() {
+        return playerColumn;
+    }
+
+    /**
+     * Retrieves how many diamonds the player had collected.
+     * @return the diamonds collected.
+     */
+    public int getDiamondsCollected() {
+        return diamondsCollected;
+    }
+
+    /**
+     * Retrieves how many diamonds were needed to finish the level.
+     * @return the diamonds required.
+     */
+    public int getDiamondsRequired() {
+        return diamondsRequired;
+    }
+
+    /**
+     * Retrieves the number of boulders on the whole grid.
+     * @return the boulder count.
+     */
+    public int getBoulderCount() {
+        return boulderCount;
+    }
+
+    /**
+     * Retrieves the number of diamonds on the whole grid.
+     * @return the diamond count.
+     */
+    public int getDiamondCount() {
+        return diamondCount;
+    }
+
+    /**
+     * Retrieves the number of flies on the whole grid.
+     * @return the fly count.
+     */
+    public int getFlyCount() {
+        return flyCount;
+    }
+
+    /**
+     * Retrieves the number of frogs on the whole grid.
+     * @return the frog count.
+     */
+    public int getFrogCount() {
+        return frogCount;
+    }
+
+    /**
+     * Retrieves the number of amoebas on the whole grid.
+     * @return the amoeba count.
+     */
+    public int getAmoebaCount() {
+        return amoebaCount;
+    }
+}
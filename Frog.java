@@ -1,12 +1,10 @@
-import javafx.scene.image.Image;
-import java.util.*;
+import jdk.jfr.FlightRecorder;
 
 /**
  * This class represents a frog on the game grid.
  * @author Karamveer Singh.
  */
-public class Frog extends Element {
-    public static boolean dropDiamond = false;
+public class Frog extends Enemy {
 
     /**
      * Constructor for the Frog class.
@@ -14,151 +12,127 @@ public class Frog extends Element {
      * @param column column position.
      */
     public Frog(final int row, final int column) {
-        super(row, column);
-        image = new Image("images/frog.png");
-        canBeEntered = false;
-        canExplode = true;
-        name = "Frog";
+        super(ElementKind.FROG, row, column);
     }
 
     /**
-     * Moves the Frog one step closer to the player using Dijkstra's algorithm.
+     * Moves the Frog one step closer to the player along a shortest path.
      * Removes the player from the grid on collision.
      * @param gridManager gridManager.
      * @param player player.
      */
-    // Uses Dijkstra's algorithm to move the Frog one step closer to the player.
     public void seekAndKill(final GridManager gridManager, final Player player) {
+        commitStep(gridManager, player, decideNextStep(gridManager, player));
+    }
+
+    /**
+     * Works out the Frog's next step towards the player without changing the grid,
+     * so it can run alongside other frogs deciding their moves.
+     * @param gridManager gridManager.
+     * @param player player.
+     * @return the cell index (row * columns + column) of the next step,
+     * or FrogPathfinder.NO_MOVE if the player is missing or unreachable.
+     */
+    public int decideNextStep(final GridManager gridManager, final Player player) {
         if (player == null) {
-            return; // No player to seek
+            return FrogPathfinder.NO_MOVE; // No player to seek
         }
 
-        Element[][] grid = gridManager.getElementGrid();
-        int rows = grid.length;
-        int cols = grid[0].length;
-
-        // Get player and frog positions
-        int playerRow = player.getRow();
-        int playerCol = player.getColumn();
-        int frogRow = this.getRow();
-        int frogCol = this.getColumn();
+        Connectivity connectivity = gridManager.getConnectivity();
+        if (connectivity != null && !connectivity.mayReach(this.getRow(), this.getColumn(),
+                player.getRow(), player.getColumn())) {
+            return FrogPathfinder.NO_MOVE; // Walled off from the player, so no search can succeed
+        }
 
-        // Dijkstra's algorithm setup
-        int[][] distances = new int[rows][cols];
-        boolean[][] visited = new boolean[rows][cols];
-        int[][][] previous = new int[rows][cols][2];
+        SectorGraph sectorGraph = gridManager.getSectorGraph();
+        if (sectorGraph != null) {
+            return sectorGraph.findNextStep(this.getRow(), this.getColumn(), player.getRow(), player.getColumn());
+        }
 
-        for (int i = 0; i < rows; i++) {
-            Arrays.fill(distances[i], Integer.MAX_VALUE);
-            Arrays.fill(visited[i], false);
+        FrogPathfinder pathfinder = gridManager.getFrogPathfinder();
+        if (!FlightRecorder.isInitialized()) {
+            // Nothing can record the search, so skip making its event
+            return pathfinder.findNextStep(gridManager, this.getRow(), this.getColumn(),
+                    player.getRow(), player.getColumn());
         }
-        distances[frogRow][frogCol] = 0;
 
-        PriorityQueue<int[]> pq =
-                new PriorityQueue<>(Comparator.comparingInt(cell ->
-                        distances[cell[0]][cell[1]]));
-        pq.add(new int[]{frogRow, frogCol});
+        FrogSearchEvent event = new FrogSearchEvent();
+        event.begin();
 
-        int[][] directions = {
-                {-1, 0}, {1, 0}, {0, -1}, {0, 1} // Up, down, left, right
-        };
+        int nextStep = pathfinder.findNextStep(gridManager, this.getRow(), this.getColumn(),
+                player.getRow(), player.getColumn());
 
-        while (!pq.isEmpty()) {
-            int[] current = pq.poll();
-            int currRow = current[0];
-            int currCol = current[1];
-            if (visited[currRow][currCol]) {
-                continue;
-            }
-            visited[currRow][currCol] = false;
-            if (currRow == playerRow && currCol == playerCol) {
-                break; // Stop if we reach the player
-            }
-            for (int[] dir : directions) {
-                int newRow = currRow + dir[0];
-                int newCol = currCol + dir[1];
-                // Check bounds and valid paths
-                if (newRow >= 0 && newRow < rows && newCol >= 0 && newCol < cols
-                        && !visited[newRow][newCol]
-                        && (grid[newRow][newCol] instanceof Path
-                        || grid[newRow][newCol] instanceof Player)) {
-                    int newDist = distances[currRow][currCol] + 1; // Add movement cost
-                    if (newDist < distances[newRow][newCol]) {
-                        distances[newRow][newCol] = newDist;
-                        previous[newRow][newCol] = new int[]{currRow, currCol};
-                        pq.add(new int[]{newRow, newCol});
-                    }
-                }
-            }
+        event.end();
+        if (event.shouldCommit()) {
+            event.nodesExpanded = pathfinder.getNodesExpanded();
+            event.playerReachable = nextStep != FrogPathfinder.NO_MOVE;
+            event.commit();
         }
-        // Check if the player is unreachable, if yes move randomly
-        if (distances[playerRow][playerCol] == Integer.MAX_VALUE) {
-            List<int[]> validMoves = new ArrayList<>();
-            for (int[] dir : directions) {
-                int newRow = frogRow + dir[0];
-                int newCol = frogCol + dir[1];
+        return nextStep;
+    }
 
-                // Check bounds and if the position can be entered
-                if (newRow >= 0 && newRow < rows && newCol >= 0 && newCol < cols
-                        && grid[newRow][newCol] instanceof Path) {
-                    validMoves.add(new int[]{newRow, newCol});
-                }
+    /**
+     * Applies a step chosen by decideNextStep. Other frogs may have moved since
+     * the step was decided, so if its cell is no longer free the step is decided
+     * again against the current grid. A frog that cannot reach the player moves randomly.
+     * @param gridManager gridManager.
+     * @param player player, or null if the player has already been killed.
+     * @param nextStep the decided step, or FrogPathfinder.NO_MOVE.
+     */
+    public void commitStep(final GridManager gridManager, final Player player, int nextStep) {
+        if (player == null) {
+            return; // No player to seek
+        }
+
+        int frogRow = this.getRow();
+        int frogCol = this.getColumn();
+        int cols = gridManager.getColumns();
+        if (nextStep != FrogPathfinder.NO_MOVE) {
+            Element target = gridManager.getElement(nextStep / cols, nextStep % cols);
+            if (!(target instanceof Path || target instanceof Player)) {
+                nextStep = decideNextStep(gridManager, player);
             }
-            if (!validMoves.isEmpty()) {
-                // Random move
-                Random random = new Random();
-                int[] randomMove = validMoves.get(random.nextInt(validMoves.size()));
-                int newRow = randomMove[0];
-                int newCol = randomMove[1];
-                gridManager.setElement(frogRow, frogCol, new Path(frogRow, frogCol));
+        }
+
+        // Check if the player is unreachable, if yes move randomly
+        if (nextStep == FrogPathfinder.NO_MOVE) {
+            FrogPathfinder pathfinder = gridManager.getFrogPathfinder();
+            int randomMove = pathfinder.findRandomMove(gridManager, frogRow, frogCol,
+                    gridManager.getRandom());
+            if (randomMove != FrogPathfinder.NO_MOVE) {
+                int newRow = randomMove / cols;
+                int newCol = randomMove % cols;
+                gridManager.setElement(frogRow, frogCol, gridManager.getPath(frogRow, frogCol));
                 gridManager.setElement(newRow, newCol, this);
-                this.setRow(newRow);
-                this.setColumn(newCol);
+                gridManager.getFrogs().setRow(getSlot(), newRow);
+                gridManager.getFrogs().setColumn(getSlot(), newCol);
             }
             return;
         }
-        moveToNextStep(gridManager,grid,previous,frogRow,frogCol,playerRow,playerCol);
+        moveToNextStep(gridManager, nextStep / cols, nextStep % cols);
     }
 
     /**
-     *
      * Moves the Frog to its next step.
      * @param gridManager gridManager.
-     * @param grid the element grid.
-     * @param previous the previous cell in the shortest path.
-     * @param frogRow the frog row position.
-     * @param frogCol the frog column position.
-     * @param playerRow the player row position.
-     * @param playerCol the player column position.
+     * @param newRow the row of the next step.
+     * @param newCol the column of the next step.
      */
-    private void moveToNextStep(GridManager gridManager, Element[][] grid, int[][][] previous,
-                                int frogRow, int frogCol, int playerRow, int playerCol) {
-        LinkedList<int[]> path = new LinkedList<>();
-        int[] current = new int[]{playerRow, playerCol};
-        while (!Arrays.equals(current, new int[]{frogRow, frogCol})) {
-            path.addFirst(current);
-            current = previous[current[0]][current[1]];
-            if (current == null) {
-                return;
-            }
-        }
-
-        if (!path.isEmpty()) {
-            int[] nextStep = path.getFirst();
-            int newRow = nextStep[0];
-            int newCol = nextStep[1];
-            gridManager.setElement(frogRow, frogCol, new Path(frogRow, frogCol));
-            Element target = grid[newRow][newCol];
-            if (target instanceof Path) {
-                gridManager.setElement(newRow, newCol, this);
-                this.setRow(newRow);
-                this.setColumn(newCol);
-            } else if (target instanceof Player) {
-                gridManager.setElement(newRow, newCol, this);
-                gridManager.destroyRemoveFromList((Player) target);
-                this.setRow(newRow);
-                this.setColumn(newCol);
-            }
+    private void moveToNextStep(GridManager gridManager, int newRow, int newCol) {
+        int frogRow = this.getRow();
+        int frogCol = this.getColumn();
+        Element target = gridManager.getElement(newRow, newCol);
+        gridManager.setElement(frogRow, frogCol, gridManager.getPath(frogRow, frogCol));
+        EnemyStore<Frog> frogs = gridManager.getFrogs();
+        if (target instanceof Path) {
+            gridManager.setElement(newRow, newCol, this);
+            frogs.setRow(getSlot(), newRow);
+            frogs.setColumn(getSlot(), newCol);
+        } else if (target instanceof Player) {
+            gridManager.setElement(newRow, newCol, this);
+            gridManager.destroyRemoveFromList(target);
+            frogs.setRow(getSlot(), newRow);
+            frogs.setColumn(getSlot(), newCol);
         }
     }
 
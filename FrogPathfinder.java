@@ -0,0 +1,152 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Finds the next step a frog should take towards the player.
+ * Every move costs the same, so a breadth-first search gives the same
+ * shortest paths as Dijkstra's algorithm. All search buffers are sized
+ * to the grid once and reused, so searching does not allocate.
+ * Only dense grids are searched this way: frogs on a chunked grid search its
+ * SectorGraph, as buffers with an entry per cell would not fit in memory.
+ * @author Alex Vesely
+ */
+public class FrogPathfinder {
+    /**
+     * Returned when there is no path or no move available.
+     */
+    public static final int NO_MOVE = -1;
+
+    private static final int[][] DIRECTIONS = {
+            {-1, 0}, {1, 0}, {0, -1}, {0, 1} // Up, down, left, right
+    };
+
+    private int[] queue = new int[0];
+    private int[] previous = new int[0];
+    private int[] visitedStamp = new int[0];
+    private int stamp;
+    private int nodesExpanded;
+    private final int[] candidateMoves = new int[DIRECTIONS.length];
+
+    /**
+     * Searches outwards from the frog through Path cells until the player is found.
+     * @param gridManager the grid manager to search.
+     * @param frogRow the frog row position.
+     * @param frogCol the frog column position.
+     * @param playerRow the player row position.
+     * @param playerCol the player column position.
+     * @return the cell index (row * columns + column) of the first step towards
+     * the player, or NO_MOVE if the player cannot be reached.
+     * @throws IllegalArgumentException if the grid is chunked.
+     */
+    public int findNextStep(GridManager gridManager, int frogRow, int frogCol,
+                            int playerRow, int playerCol) {
+        if (gridManager.isChunked()) {
+            throw new IllegalArgumentException("Chunked grids are searched through their sector graph");
+        }
+        int rows = gridManager.getRows();
+        int cols = gridManager.getColumns();
+        ensureCapacity(rows * cols);
+        nextStamp();
+
+        int start = frogRow * cols + frogCol;
+        int target = playerRow * cols + playerCol;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        visitedStamp[start] = stamp;
+        nodesExpanded = 0;
+
+        boolean found = false;
+        while (head < tail && !found) {
+            int current = queue[head++];
+            nodesExpanded++;
+            int currRow = current / cols;
+            int currCol = current % cols;
+            for (int[] dir : DIRECTIONS) {
+                int newRow = currRow + dir[0];
+                int newCol = currCol + dir[1];
+                if (newRow >= 0 && newRow < rows && newCol >= 0 && newCol < cols) {
+                    int next = newRow * cols + newCol;
+                    if (visitedStamp[next] != stamp
+                            && gridManager.getElement(newRow, newCol).getKind().has(ElementKind.FROG_ENTERABLE)) {
+                        visitedStamp[next] = stamp;
+                        previous[next] = current;
+                        if (next == target) {
+                            found = true;
+                            break;
+                        }
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+        if (!found) {
+            return NO_MOVE;
+        }
+
+        // Walk back from the player to the cell next to the frog
+        int step = target;
+        while (previous[step] != start) {
+            step = previous[step];
+        }
+        return step;
+    }
+
+    /**
+     * Picks a random neighbouring Path cell for a frog that cannot reach the player.
+     * @param gridManager the grid manager to search.
+     * @param frogRow the frog row position.
+     * @param frogCol the frog column position.
+     * @param random the source of randomness for the game.
+     * @return the cell index (row * columns + column) to move to,
+     * or NO_MOVE if the frog is boxed in.
+     */
+    public int findRandomMove(GridManager gridManager, int frogRow, int frogCol, Random random) {
+        int candidateCount = 0;
+        for (int[] dir : DIRECTIONS) {
+            int newRow = frogRow + dir[0];
+            int newCol = frogCol + dir[1];
+            if (gridManager.isInBounds(newRow, newCol)
+                    && gridManager.getElement(newRow, newCol) instanceof Path) {
+                candidateMoves[candidateCount++] = newRow * gridManager.getColumns() + newCol;
+            }
+        }
+        if (candidateCount == 0) {
+            return NO_MOVE;
+        }
+        return candidateMoves[random.nextInt(candidateCount)];
+    }
+
+    /**
+     * Returns how many cells the last call to findNextStep took off its queue.
+     * @return the number of nodes expanded by the last search.
+     */
+    public int getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    /**
+     * Grows the search buffers if the grid has more cells than they can hold.
+     * @param cellCount the number of cells in the grid.
+     */
+    private void ensureCapacity(int cellCount) {
+        if (queue.length < cellCount) {
+            queue = new int[cellCount];
+            previous = new int[cellCount];
+            visitedStamp = new int[cellCount];
+            stamp = 0;
+        }
+    }
+
+    /**
+     * Moves on to a fresh visited marker so the visited buffer
+     * does not have to be cleared between searches.
+     */
+    private void nextStamp() {
+        if (stamp == Integer.MAX_VALUE) {
+            Arrays.fill(visitedStamp, 0);
+            stamp = 0;
+        }
+        stamp++;
+    }
+}
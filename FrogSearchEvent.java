@@ -0,0 +1,23 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event emitted for every path search a frog runs
+ * while seeking the player.
+ * @author Alex Vesely
+ */
+@Name("boulderdash.FrogSearch")
+@Label("Frog Pathfinding")
+@Category({"Boulder Dash", "Simulation"})
+@Description("A frog searching for a path to the player")
+public class FrogSearchEvent extends jdk.jfr.Event {
+
+    @Label("Nodes Expanded")
+    @Description("The number of grid cells taken off the search frontier")
+    int nodesExpanded;
+
+    @Label("Player Reachable")
+    boolean playerReachable;
+}
@@ -0,0 +1,126 @@
+/**
+ * GameContext holds the state of one game that does not belong to any single
+ * element: whether the game is still being played, the explosion waiting to go off,
+ * and whether the level's exit has been placed. Each GridManager owns its own
+ * context, so several games can run side by side in one JVM.
+ * @author Alex Vesely
+ */
+public class GameContext {
+    private boolean gameRunning = true;
+    private boolean waitingForExplosion;
+    private boolean waitingForExplosionAfterMath;
+    private int nextExplosionRow;
+    private int nextExplosionCol;
+    private boolean transformToDiamonds;
+    private boolean exitExists;
+
+    /**
+     * Marks the game as being played.
+     */
+    public void gameStart() {
+        gameRunning = true;
+    }
+
+    /**
+     * Ends the game by setting the game status to false
+     * and displaying a "GAME OVER" message to the console.
+     */
+    public void gameOver() {
+        gameRunning = false;
+        System.out.println("GAME OVER");
+    }
+
+    /**
+     * Checks whether the game is still being played.
+     * @return true if the game is running, false once it is over.
+     */
+    public boolean isGameRunning() {
+        return gameRunning;
+    }
+
+    /**
+     * Selects a spot for a 3x3 Explosion and then its aftermath, on the next explosion ticks.
+     * @param row the row index on the grid where the explosion will occur.
+     * @param column the column index on the grid where the explosion will occur.
+     * @param dropsDiamonds true if the explosion should cause diamonds to drop, false otherwise.
+     */
+    public void applyExplosion(int row, int column, boolean dropsDiamonds) {
+        waitingForExplosion = true;
+        nextExplosionRow = row;
+        nextExplosionCol = column;
+        transformToDiamonds = dropsDiamonds;
+    }
+
+    /**
+     * Records that the explosion has gone off, so its aftermath is next.
+     */
+    public void explosionCreated() {
+        waitingForExplosion = false;
+        waitingForExplosionAfterMath = true;
+    }
+
+    /**
+     * Forgets any explosion or aftermath that has not happened yet.
+     */
+    public void clearExplosion() {
+        waitingForExplosion = false;
+        waitingForExplosionAfterMath = false;
+        transformToDiamonds = false;
+    }
+
+    /**
+     * Checks whether an explosion is waiting to go off.
+     * @return true if an explosion is waiting, false otherwise.
+     */
+    public boolean isWaitingForExplosion() {
+        return waitingForExplosion;
+    }
+
+    /**
+     * Checks whether an explosion has gone off and is waiting for its aftermath.
+     * @return true if an aftermath is waiting, false otherwise.
+     */
+    public boolean isWaitingForExplosionAfterMath() {
+        return waitingForExplosionAfterMath;
+    }
+
+    /**
+     * Retrieves the row of the next explosion.
+     * @return the explosion row.
+     */
+    public int getNextExplosionRow() {
+        return nextExplosionRow;
+    }
+
+    /**
+     * Retrieves the column of the next explosion.
+     * @return the explosion column.
+     */
+    public int getNextExplosionCol() {
+        return nextExplosionCol;
+    }
+
+    /**
+     * Checks whether the next explosion leaves diamonds behind.
+     * @return true if the aftermath turns into diamonds, false otherwise.
+     */
+    public boolean isTransformToDiamonds() {
+        return transformToDiamonds;
+    }
+
+    /**
+     * Checks whether an exit has already been created in this level.
+     * @return true if the level has an exit, false otherwise.
+     */
+    public boolean exitExists() {
+        return exitExists;
+    }
+
+    /**
+     * Sets whether an exit has been created in this level.
+     * @param exitExists true once the exit is placed, false when a new level is loaded.
+     */
+    public void setExitExists(boolean exitExists) {
+        this.exitExists = exitExists;
+    }
+}
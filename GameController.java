@@ -1,29 +1,51 @@
-import javafx.scene.canvas.Canvas;
-import javafx.scene.input.KeyCode;
 import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import jdk.jfr.FlightRecorder;
 
 /**
- * GameController manages the element's movements, interactions,
- * and rendering of the game.
+ * GameController manages the element's movements and interactions.
+ * It holds the rules of the game only: its ticks are run by a SimulationLoop
+ * on the simulation thread, and drawing is left to GameView.
  * @author Omar Sanad
  */
 public class GameController {
-    private final Canvas canvas;
+    /**
+     * The number of enemies from which their moves are decided in parallel.
+     * Below this, handing the work to the ForkJoinPool costs more than it saves.
+     */
+    public static final int PARALLEL_DECIDE_THRESHOLD = 64;
+    // The decision of an enemy that sits out a tick under the level of detail
+    private static final int SKIPPED = Integer.MIN_VALUE;
+    // How many slices a parallel decide phase is cut into for every thread of the common pool
+    private static final int DECIDE_SLICES_PER_THREAD = 4;
+
     private final GridManager gridManager;
-    private final Renderer renderer;
     private final InputHandler inputHandler;
 
-    private static int nextExplosionRow;
-    private static int nextExplosionCol;
-    public static boolean waitingForExplosionAfterMath = false;
-    public static boolean waitingForExplosion = false;
-    private static boolean transformToDiamonds;
+    // Reused every tick to iterate over a stable copy of a list that the tick may modify
+    private final ArrayList<Element> enemiesScratch = new ArrayList<>();
+    private final ArrayList<Boulder> bouldersScratch = new ArrayList<>();
+    private final ArrayList<Diamond> diamondsScratch = new ArrayList<>();
+    private final ArrayList<Frog> frogsScratch = new ArrayList<>();
+    private final ArrayList<Fly> fliesScratch = new ArrayList<>();
+    private int[] decisions = new int[0];
+    // Made once and reused by every parallel decide phase, along with what it is deciding
+    private final DecideSlice[] decideSlices = createDecideSlices();
+    private boolean decidingFrogs;
+    private long decidingTick;
+    private Player decidingPlayer;
+    private int pendingDrawRequests;
+    private volatile long drawsRequested;
+
+    private DetailLevel detailLevel;
+    private long flyTicks;
+    private long frogTicks;
+    private long amoebaTicks;
 
     private int amoebaLimit;
     private int diamondsRequired;
 
-    private static boolean gameStatus = true;
-
     /**
      * Represents possible inputs for the player.
      */
@@ -35,15 +57,21 @@ public class GameController {
     }
 
     /**
-     * Constructs a GameController with the given grid template and canvas.
-     * Initializes the grid, player, renderer, and input handler.
+     * Constructs a GameController with the given grid template.
+     * Initializes the grid, player and input handler.
      * @param gridTemplate the 2D array representing the initial grid layout
-     * @param canvas       the Canvas object used for rendering the game
      */
-    public GameController(String[][] gridTemplate, Canvas canvas) {
-        this.canvas = canvas;
-        this.gridManager = new GridManager(gridTemplate);
-        this.renderer = new Renderer();
+    public GameController(String[][] gridTemplate) {
+        this(new GridManager(gridTemplate));
+    }
+
+    /**
+     * Constructs a GameController around an already loaded grid.
+     * Initializes the input handler.
+     * @param gridManager the GridManager holding the loaded level
+     */
+    public GameController(GridManager gridManager) {
+        this.gridManager = gridManager;
         this.inputHandler = new InputHandler();
     }
 
@@ -58,7 +86,7 @@ public class GameController {
         gridManager.destroyRemoveFromList(gridManager.getElement(targetRow, targetColumn));
 
         // Replace the target with a Path in the grid
-        gridManager.setElement(targetRow, targetColumn, new Path(targetRow, targetColumn));
+        gridManager.setElement(targetRow, targetColumn, gridManager.getPath(targetRow, targetColumn));
 
     }
 
@@ -70,13 +98,13 @@ public class GameController {
      */
     private void replacePlayerWithPath(int playerRow, int playerCol) {
         // Replace the player with a Path in the grid
-        gridManager.setElement(playerRow, playerCol, new Path(playerRow, playerCol));
+        gridManager.setElement(playerRow, playerCol, gridManager.getPath(playerRow, playerCol));
 
         // Remove the player from the game
         gridManager.destroyRemoveFromList(gridManager.getPlayer());
 
         //Stop input handling and end the game
-        gameOver();
+        gridManager.getContext().gameOver();
     }
 
 
@@ -86,16 +114,15 @@ public class GameController {
      * any of the neighboring positions (up, down, left, or right), it replaces the
      * player with a path element.
      * @param enemy the enemy element whose neighbors are to be checked
-     * @param grid a 2D array of elements representing the game grid
      */
-    private void checkNeighboursForPlayer(Element enemy, Element[][] grid) {
+    private void checkNeighboursForPlayer(Element enemy) {
         // Check bounds and get neighbors safely
         int enemyRow = enemy.getRow();
         int enemyCol = enemy.getColumn();
-        Element currentRightNeighbor = (enemyCol + 1 < grid[0].length) ? grid[enemyRow][enemyCol + 1] : null;
-        Element currentLeftNeighbor = (enemyCol - 1 >= 0) ? grid[enemyRow][enemyCol - 1] : null;
-        Element currentDownNeighbor = (enemyRow + 1 < grid.length) ? grid[enemyRow + 1][enemyCol] : null;
-        Element currentUpNeighbor = (enemyRow - 1 >= 0) ? grid[enemyRow - 1][enemyCol] : null;
+        Element currentRightNeighbor = neighbour(enemyRow, enemyCol + 1);
+        Element currentLeftNeighbor = neighbour(enemyRow, enemyCol - 1);
+        Element currentDownNeighbor = neighbour(enemyRow + 1, enemyCol);
+        Element currentUpNeighbor = neighbour(enemyRow - 1, enemyCol);
 
         if (currentUpNeighbor instanceof Player) {
             replacePlayerWithPath(enemyRow - 1, enemyCol); // Replace player at the UP position
@@ -111,16 +138,15 @@ public class GameController {
     /**
      * Goes through all enemies on the grid, and checks their neighbours for amoeba.
      * @param enemy an enemy on the grid.
-     * @param grid the grid of elements.
      */
-    private void checkNeighboursForAmoeba(Element enemy, Element[][] grid) {
+    private void checkNeighboursForAmoeba(Element enemy) {
         // Check bounds and get neighbors safely
         int enemyRow = enemy.getRow();
         int enemyCol = enemy.getColumn();
-        Element currentRightNeighbor = (enemyCol + 1 < grid[0].length) ? grid[enemyRow][enemyCol + 1] : null;
-        Element currentLeftNeighbor = (enemyCol - 1 >= 0) ? grid[enemyRow][enemyCol - 1] : null;
-        Element currentDownNeighbor = (enemyRow + 1 < grid.length) ? grid[enemyRow + 1][enemyCol] : null;
-        Element currentUpNeighbor = (enemyRow - 1 >= 0) ? grid[enemyRow - 1][enemyCol] : null;
+        Element currentRightNeighbor = neighbour(enemyRow, enemyCol + 1);
+        Element currentLeftNeighbor = neighbour(enemyRow, enemyCol - 1);
+        Element currentDownNeighbor = neighbour(enemyRow + 1, enemyCol);
+        Element currentUpNeighbor = neighbour(enemyRow - 1, enemyCol);
 
         if (currentUpNeighbor instanceof Amoeba) {
             replaceEnemyWithPath(enemyRow, enemyCol); // Replace Enemy if UP position is amoeba
@@ -134,112 +160,180 @@ public class GameController {
     }
 
 
+    /**
+     * Retrieves the element in a neighbouring cell, if that cell is on the grid.
+     * @param row the row of the neighbouring cell.
+     * @param col the column of the neighbouring cell.
+     * @return the element in that cell, or null if the cell is off the grid.
+     */
+    private Element neighbour(int row, int col) {
+        return gridManager.isInBounds(row, col) ? gridManager.getElement(row, col) : null;
+    }
+
     /**
      * Goes through all enemies on the grid, and checks their neighbours to kill the player or die from amoeba.
      */
     public void killTick() {
-        ArrayList<Frog> frogs = gridManager.getFrogs();
-        ArrayList<Fly> flies = gridManager.getFlies();
-        ArrayList<Element> enemies = new ArrayList<>();
-        enemies.addAll(frogs);
-        enemies.addAll(flies);
+        TickEvent event = beginTick();
+        ArrayList<Element> enemies = enemiesScratch;
+        enemies.clear();
+        EnemyStore<Frog> frogs = gridManager.getFrogs();
+        for (int i = 0; i < frogs.size(); i++) {
+            enemies.add(frogs.get(i));
+        }
+        EnemyStore<Fly> flies = gridManager.getFlies();
+        for (int i = 0; i < flies.size(); i++) {
+            enemies.add(flies.get(i));
+        }
 
         // Iterate through all enemies to check for neighboring player
-        for (Element enemy : enemies) {
-            checkNeighboursForPlayer(enemy, gridManager.getElementGrid());
+        for (int i = 0; i < enemies.size(); i++) {
+            checkNeighboursForPlayer(enemies.get(i));
         }
 
         // Iterate through all enemies to check for neighboring amoeba
-        for (Element enemy : enemies) {
-            checkNeighboursForAmoeba(enemy, gridManager.getElementGrid());
+        for (int i = 0; i < enemies.size(); i++) {
+            checkNeighboursForAmoeba(enemies.get(i));
         }
+        commitTick(event, "kill", enemies.size());
+        enemies.clear();
     }
 
     /**
      * Executes the boulder tick, triggering all boulders to perform their movement logic.
-     * Updates the grid and redraws the game.
+     * Updates the grid and requests a redraw.
      */
     public void dangerousRockRollTick() {
-        // Making a copy of the boulders Arraylist,
+        TickEvent event = beginTick();
+        // Iterating over a copy of the boulders Arraylist,
         // avoids problems with concurrently changing
         // the arraylist when a diamond passes through magic wall
-        ArrayList<Boulder> boulders = new ArrayList<>(gridManager.getBoulders());
-        ArrayList<Diamond> diamonds = new ArrayList<>(gridManager.getDiamonds());
+        ArrayList<Boulder> boulders = copyInto(gridManager.getBoulders(), bouldersScratch);
+        ArrayList<Diamond> diamonds = copyInto(gridManager.getDiamonds(), diamondsScratch);
 
-        for (Boulder boulder : boulders) {
-            boulder.roll(gridManager);
+        for (int i = 0; i < boulders.size(); i++) {
+            boulders.get(i).roll(gridManager);
         }
 
-        for (Diamond diamond : diamonds) {
-            diamond.roll(gridManager);
+        for (int i = 0; i < diamonds.size(); i++) {
+            diamonds.get(i).roll(gridManager);
         }
+        commitTick(event, "rockRoll", boulders.size() + diamonds.size());
+        boulders.clear();
+        diamonds.clear();
 
-        draw();
+        requestDraw();
     }
 
     /**
      * Executes the boulder tick, triggering all boulders to perform their movement logic.
-     * Updates the grid and redraws the game.
+     * Updates the grid and requests a redraw.
      */
     public void dangerousRockFallTick() {
-        ArrayList<Diamond> diamonds = new ArrayList<>(gridManager.getDiamonds());
-        ArrayList<Boulder> boulders = new ArrayList<>(gridManager.getBoulders());
+        TickEvent event = beginTick();
+        ArrayList<Diamond> diamonds = copyInto(gridManager.getDiamonds(), diamondsScratch);
+        ArrayList<Boulder> boulders = copyInto(gridManager.getBoulders(), bouldersScratch);
 
-        for (Diamond diamond : diamonds) {
-            diamond.fall(gridManager);
+        for (int i = 0; i < diamonds.size(); i++) {
+            diamonds.get(i).fall(gridManager);
         }
 
-        for (Boulder boulder : boulders) {
-            boulder.fall(gridManager);
+        for (int i = 0; i < boulders.size(); i++) {
+            boulders.get(i).fall(gridManager);
         }
-            draw();
+        commitTick(event, "rockFall", boulders.size() + diamonds.size());
+        diamonds.clear();
+        boulders.clear();
+        requestDraw();
     }
 
     /**
-     * Executes the frog's tick method and redraws the game.
+     * Executes the frog's tick method and requests a redraw.
+     * Every frog first decides its step against the unchanged grid, in parallel
+     * on big maps, then the steps are applied one frog at a time.
      */
     public void frogTick() {
-        // Making a copy of the boulders Arraylist,
-        // avoids problems with concurrency
-        ArrayList<Frog> frogs = new ArrayList<>(gridManager.getFrogs());
-        for (Frog frog : frogs) {
-            frog.seekAndKill(gridManager, gridManager.getPlayer());
+        TickEvent event = beginTick();
+        // Frogs are decided straight from the store, which nothing changes until they commit;
+        // they commit from a copy, as a frog killing the player changes the store
+        EnemyStore<Frog> store = gridManager.getFrogs();
+        ArrayList<Frog> frogs = copyInto(store, frogsScratch);
+        Player player = gridManager.getPlayer();
+        if (gridManager.getConnectivity() != null && !frogs.isEmpty()) {
+            // Bring the labels up to date before the frogs read them in parallel
+            gridManager.getConnectivity().refresh();
+        }
+        if (gridManager.getSectorGraph() != null && !frogs.isEmpty()) {
+            // Work out the distances from the player once, for every frog to share
+            gridManager.getSectorGraph().refresh(player);
         }
-        draw();
+        int[] steps = decisionBuffer(frogs.size());
+        decide(true, frogs.size(), frogTicks++, player);
+        for (int i = 0; i < frogs.size(); i++) {
+            if (steps[i] != SKIPPED) {
+                frogs.get(i).commitStep(gridManager, gridManager.getPlayer(), steps[i]);
+            }
+        }
+        commitTick(event, "frog", frogs.size());
+        frogs.clear();
+        requestDraw();
     }
 
     /**
      * Executes the amoeba tick, which checks and updates all active amoeba groups on the game grid.
      * If amoeba groups are present, it updates their state using the GridManager.
-     * After updating the amoeba groups, the game grid is redrawn.
+     * After updating the amoeba groups, a redraw is requested.
      */
     public void amoebaTick() {
-        if (!AmoebaManager.isEmpty()) { // Check if there are any active amoeba groups
+        TickEvent event = beginTick();
+        long tick = amoebaTicks++;
+        if (detailLevel != null) {
+            // Far groups only grow on some ticks
+            ArrayList<AmoebaGroup> groups = gridManager.getAmoebaGroups();
+            Player player = gridManager.getPlayer();
+            for (int i = 0; i < groups.size(); i++) {
+                AmoebaGroup group = groups.get(i);
+                if (detailLevel.acts(group.isNear(detailLevel, player), tick, i)) {
+                    group.spread(gridManager);
+                }
+            }
+        } else if (!gridManager.getAmoebaGroups().isEmpty()) { // Check if there are any active amoeba groups
             AmoebaManager.updateAll(gridManager); // Update all amoeba groups
         }
-        draw(); // Redraw the grid after updating
+        commitTick(event, "amoeba", gridManager.getAmoebaGroups().size());
+        requestDraw(); // Redraw the grid after updating
     }
 
     /**
      * Executes the fly tick, which processes all butterfly movements on the grid.
-     * This method retrieves the current list of butterflies from the grid manager,
-     * iterates over each butterfly, and invokes its movement logic.
-     * After all butterflies have moved, the game state is redrawn to reflect any changes.
+     * Every fly first decides its direction against the unchanged grid, in parallel
+     * on big maps, then the moves are applied one fly at a time.
+     * After all butterflies have moved, a redraw is requested to reflect any changes.
      */
     public void flyTick() {
-        ArrayList<Fly> flies = new ArrayList<>(gridManager.getFlies());
-        for (Fly fly : flies) {
-            fly.move(gridManager, gridManager.getPlayer());
+        TickEvent event = beginTick();
+        // Directions are decided from the store's arrays alone, and applied through a copy of the flies
+        EnemyStore<Fly> store = gridManager.getFlies();
+        ArrayList<Fly> flies = copyInto(store, fliesScratch);
+        int[] directions = decisionBuffer(flies.size());
+        decide(false, flies.size(), flyTicks++, gridManager.getPlayer());
+        for (int i = 0; i < flies.size(); i++) {
+            if (directions[i] != SKIPPED) {
+                flies.get(i).commitMove(gridManager, gridManager.getPlayer(), directions[i]);
+            }
         }
-        draw();
+        commitTick(event, "fly", flies.size());
+        flies.clear();
+        requestDraw();
     }
 
     /**
      * Executes the player tick, handling input and updating the player's position on the grid.
-     * Processes player movement and redraws the game.
+     * Processes player movement and requests a redraw.
      */
     public void playerTick() {
-        if (gameStatus) {
+        if (gridManager.getContext().isGameRunning()) {
+            TickEvent event = beginTick();
             if (inputHandler.isInputPending()) {
                 PlayerInput input = inputHandler.consumeInput();
                 if (input != null) {
@@ -268,49 +362,256 @@ public class GameController {
                     getPlayer().imageAnimation();
                 }
             }
-            draw();
+            commitTick(event, "player", 1);
+            requestDraw();
         }
     }
 
-    /**
-     * Selects an index in the ElementGrid to create a 3x3 Explosion and then its aftermath at the specified spot.
-     * @param row the row index on the grid where the explosion will occur.
-     * @param column the column index on the grid where the explosion will occur.
-     * @param dropsDiamonds true if the explosion should cause diamonds to drop, false otherwise.
-     */
-    public static void applyExplosion(int row, int column, boolean dropsDiamonds) {
-        waitingForExplosion = true;
-        nextExplosionRow = row;
-        nextExplosionCol = column;
-        transformToDiamonds = dropsDiamonds;
-
-    }
-
     /**
      * Executes the explosion tick logic for handling explosions and their aftermath on the game grid.
      */
     public void explosionTick() {
+        TickEvent event = beginTick();
+        GameContext context = gridManager.getContext();
+        int explosionsProcessed = context.isWaitingForExplosion()
+                || context.isWaitingForExplosionAfterMath() ? 1 : 0;
+        int row = context.getNextExplosionRow();
+        int col = context.getNextExplosionCol();
         //Explosion Tick Method, if an applyExplosion has occurred then it is waiting for explosion, after an explosion
         // the next tick cycle and explosion aftermath should occur
-        if (waitingForExplosion) {
+        if (context.isWaitingForExplosion()) {
             // Create the initial explosion
-            Explosion.createExplosion(nextExplosionRow, nextExplosionCol, gridManager);
-            draw();
-            waitingForExplosionAfterMath = true;
-            waitingForExplosion = false;
+            Explosion.createExplosion(row, col, gridManager);
+            requestDraw();
+            context.explosionCreated();
         } else if // Create the aftermath
-        (waitingForExplosionAfterMath && transformToDiamonds) {
+        (context.isWaitingForExplosionAfterMath() && context.isTransformToDiamonds()) {
             // if dropsDiamonds
-            Explosion.createDiamondExplosionAfterMath(nextExplosionRow, nextExplosionCol, gridManager);
-            draw();
-            waitingForExplosionAfterMath = false;
-            transformToDiamonds = false;
+            Explosion.createDiamondExplosionAfterMath(row, col, gridManager);
+            requestDraw();
+            context.clearExplosion();
         } else if // Create the aftermath
-         (waitingForExplosionAfterMath) {
+         (context.isWaitingForExplosionAfterMath()) {
           // if dropsDiamonds
-            Explosion.createExplosionAfterMath(nextExplosionRow, nextExplosionCol, gridManager);
-            draw();
-            waitingForExplosionAfterMath = false;
+            Explosion.createExplosionAfterMath(row, col, gridManager);
+            requestDraw();
+            context.clearExplosion();
+        }
+        commitTick(event, "explosion", explosionsProcessed);
+    }
+
+    /**
+     * Copies the contents of a list into a reusable scratch list.
+     * Unlike the ArrayList copy constructor or addAll, this does not
+     * allocate once the scratch list has grown to the size of the source.
+     * @param source the list to copy.
+     * @param scratch the list to copy into, which is cleared first.
+     * @param <T> the type of element in the lists.
+     * @return the scratch list.
+     */
+    private static <T> ArrayList<T> copyInto(ArrayList<? extends T> source, ArrayList<T> scratch) {
+        scratch.clear();
+        for (int i = 0; i < source.size(); i++) {
+            scratch.add(source.get(i));
+        }
+        return scratch;
+    }
+
+    /**
+     * Copies the enemies in a store into a reusable scratch list, as copyInto does for lists.
+     * @param source the store to copy.
+     * @param scratch the list to copy into, which is cleared first.
+     * @param <T> the type of enemy in the store.
+     * @return the scratch list.
+     */
+    private static <T extends Enemy> ArrayList<T> copyInto(EnemyStore<T> source, ArrayList<T> scratch) {
+        scratch.clear();
+        for (int i = 0; i < source.size(); i++) {
+            scratch.add(source.get(i));
+        }
+        return scratch;
+    }
+
+    /**
+     * Checks whether an enemy acts on a tick under the level of detail.
+     * Safe to call from the decide phase, as it only reads the store.
+     * @param enemies the store holding the enemy.
+     * @param tick the number of the tick, counted per subsystem.
+     * @param slot the enemy's slot in the store.
+     * @return true if the enemy acts, false if it sits this tick out.
+     */
+    private boolean acts(EnemyStore<?> enemies, long tick, int slot) {
+        return detailLevel == null || detailLevel.acts(detailLevel.isNear(gridManager.getPlayer(),
+                enemies.getRow(slot), enemies.getColumn(slot)), tick, slot);
+    }
+
+    /**
+     * Turns the simulation level of detail on or off. While it is on, flies,
+     * frogs and amoeba groups far from the player tick at a reduced rate.
+     * @param detailLevel the level of detail, or null to tick everything at full rate.
+     */
+    public void setDetailLevel(DetailLevel detailLevel) {
+        this.detailLevel = detailLevel;
+    }
+
+    /**
+     * Retrieves the simulation level of detail.
+     * @return the level of detail, or null if everything ticks at full rate.
+     */
+    public DetailLevel getDetailLevel() {
+        return detailLevel;
+    }
+
+    /**
+     * Runs the read-only decide phase of a tick for every frog or fly, writing each
+     * decision to the decision buffer. Large batches are spread over the common
+     * ForkJoinPool as the reused decide slices; small ones run here. Nothing is
+     * allocated either way. Decisions must not change the grid.
+     * @param frogs true to decide the frogs' steps, false to decide the flies' directions.
+     * @param count the number of enemies deciding.
+     * @param tick the number of the tick, counted per subsystem.
+     * @param player the player, as the frogs chase it.
+     */
+    private void decide(boolean frogs, int count, long tick, Player player) {
+        decidingFrogs = frogs;
+        decidingTick = tick;
+        decidingPlayer = player;
+        if (count >= PARALLEL_DECIDE_THRESHOLD) {
+            for (int i = 0; i < decideSlices.length; i++) {
+                decideSlices[i].reinitialize();
+                decideSlices[i].from = (int) ((long) count * i / decideSlices.length);
+                decideSlices[i].to = (int) ((long) count * (i + 1) / decideSlices.length);
+            }
+            joinDecideSlices();
+        } else {
+            decideRange(0, count);
+        }
+        decidingPlayer = null;
+    }
+
+    /**
+     * Runs the decide slices over the common pool and waits for them. This thread decides
+     * the first slice, then every slice no worker has taken. For a slice a worker is still
+     * deciding, it yields rather than blocks, as blocking allocates a wait node.
+     */
+    private void joinDecideSlices() {
+        for (int i = 1; i < decideSlices.length; i++) {
+            decideSlices[i].fork();
+        }
+        decideSlices[0].invoke();
+        // Forked slices are unforked last in, first out
+        for (int i = decideSlices.length - 1; i >= 1; i--) {
+            DecideSlice slice = decideSlices[i];
+            if (slice.tryUnfork()) {
+                slice.invoke();
+            } else {
+                while (!slice.isDone()) {
+                    Thread.yield();
+                }
+                slice.join(); // Done, so this only rethrows what the slice threw
+            }
+        }
+    }
+
+    /**
+     * Decides the enemies in a range of slots, as set up by decide.
+     * @param from the first slot, inclusive.
+     * @param to the last slot, exclusive.
+     */
+    private void decideRange(int from, int to) {
+        int[] buffer = decisions;
+        if (decidingFrogs) {
+            EnemyStore<Frog> store = gridManager.getFrogs();
+            for (int i = from; i < to; i++) {
+                buffer[i] = acts(store, decidingTick, i)
+                        ? store.get(i).decideNextStep(gridManager, decidingPlayer) : SKIPPED;
+            }
+        } else {
+            EnemyStore<Fly> store = gridManager.getFlies();
+            for (int i = from; i < to; i++) {
+                buffer[i] = acts(store, decidingTick, i) ? Fly.decideDirection(gridManager, store, i) : SKIPPED;
+            }
+        }
+    }
+
+    /**
+     * Creates the slices parallel decide phases are cut into, a few for every thread of the common pool.
+     * @return the slices.
+     */
+    private DecideSlice[] createDecideSlices() {
+        DecideSlice[] slices = new DecideSlice[Math.max(1,
+                ForkJoinPool.getCommonPoolParallelism() * DECIDE_SLICES_PER_THREAD)];
+        for (int i = 0; i < slices.length; i++) {
+            slices[i] = new DecideSlice();
+        }
+        return slices;
+    }
+
+    /**
+     * A slice of a parallel decide phase: the enemies in a range of slots.
+     * Reinitialized and given a new range for every phase rather than made anew.
+     */
+    private final class DecideSlice extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private int from;
+        private int to;
+
+        /**
+         * Decides the enemies in the slice.
+         */
+        @Override
+        protected void compute() {
+            decideRange(from, to);
+        }
+    }
+
+    /**
+     * Retrieves the reusable array decisions are written to, growing it if needed.
+     * @param count the number of decisions that will be made.
+     * @return an array with room for at least count decisions.
+     */
+    private int[] decisionBuffer(int count) {
+        if (decisions.length < count) {
+            decisions = new int[count];
+        }
+        return decisions;
+    }
+
+    /**
+     * Marks the start of a tick by beginning its Flight Recorder event. No event is
+     * made while Flight Recorder has never been started, so ticks allocate nothing.
+     * @return the begun event, to be passed to commitTick at the end of the tick,
+     *         or null if Flight Recorder is not in use.
+     */
+    private TickEvent beginTick() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        TickEvent event = new TickEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Completes a tick: closes up the slots of enemies it removed, publishes the grid
+     * changes it made to the change listeners, then completes its Flight Recorder
+     * event, if it is being recorded.
+     * @param event the event that was begun at the start of the tick, or null.
+     * @param subsystem the name of the subsystem that ticked.
+     * @param entitiesProcessed the number of entities the tick went through.
+     */
+    private void commitTick(TickEvent event, String subsystem, int entitiesProcessed) {
+        gridManager.compactEnemies();
+        gridManager.publishChanges();
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.subsystem = subsystem;
+            event.entitiesProcessed = entitiesProcessed;
+            event.commit();
         }
     }
 
@@ -323,39 +624,39 @@ public class GameController {
     }
 
     /**
-     * Ends the current game session by setting the game status to false
-     * and displaying a "GAME OVER" message to the console.
+     * Marks the frame as out of date, so the simulation loop publishes a new
+     * frame once the current ticks are done. Any number of requests made
+     * by the ticks of one loop step result in a single frame.
      */
-    public static void gameOver() {
-        gameStatus = false;
-        System.out.println("GAME OVER");
-    }
-
-    public static void gameStart() {
-        gameStatus = true;
+    public void requestDraw() {
+        pendingDrawRequests++;
+        drawsRequested++;
     }
 
     /**
-     * Draws the current state of the game using the Renderer.
+     * Takes the draw requests made since the last call.
+     * @return the number of draw requests, zero if the frame is up to date.
      */
-    public void draw() {
-        renderer.draw(canvas.getGraphicsContext2D(), gridManager.getElementGrid());
+    public int consumeDrawRequests() {
+        int requests = pendingDrawRequests;
+        pendingDrawRequests = 0;
+        return requests;
     }
 
     /**
-     * Registers a key press input and passes it to the InputHandler.
-     * @param code the KeyCode representing the player's input.
+     * Retrieves how many draws have been requested by ticks and the user interface.
+     * @return the number of draw requests so far.
      */
-    public void registerInput(KeyCode code) {
-        inputHandler.registerInput(code);
+    public long getDrawsRequested() {
+        return drawsRequested;
     }
 
     /**
-     * Retrieves the Canvas object used for rendering the game.
-     * @return the Canvas object.
+     * Registers a player input and passes it to the InputHandler.
+     * @param input the player's input, or null to clear the pending input.
      */
-    public Canvas getCanvas() {
-        return canvas;
+    public void registerInput(PlayerInput input) {
+        inputHandler.registerInput(input);
     }
 
     /**
@@ -0,0 +1,251 @@
+import java.util.function.LongConsumer;
+
+/**
+ * A reset and step interface over the game rules for training and evaluating
+ * automated players, in the style of a reinforcement learning environment.
+ * Each step applies one player input and runs the game for one player move on a
+ * simulated clock, then reports a reward; the observation and whether the episode
+ * is over are read from the environment afterwards. The observation is a byte
+ * array of tile codes, one per cell, either for the whole grid or for a window
+ * centred on the player, and the same array is refilled on every step.
+ * Runs without JavaFX, and a step allocates nothing.
+ * @author Alex Vesely
+ */
+public class GameEnvironment {
+    /**
+     * The tile code of a cropped cell that lies outside the grid.
+     */
+    public static final byte OUT_OF_BOUNDS = -1;
+    /**
+     * The reward for each diamond collected.
+     */
+    public static final double DIAMOND_REWARD = 1.0;
+    /**
+     * The reward for completing the level.
+     */
+    public static final double WIN_REWARD = 10.0;
+    /**
+     * The reward for dying.
+     */
+    public static final double DEATH_REWARD = -10.0;
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    // One step covers one player tick, so every step gives the player one move
+    private static final long STEP_NANOS = 150 * NANOS_PER_MILLI;
+
+    private final LevelData level;
+    private final long timeLimit;
+    private final int observationRows;
+    private final int observationColumns;
+    private final boolean cropped;
+    private final byte[] observation;
+    private final int observationOffset;
+    private final LongConsumer ignoreTickCost = tickNanos -> { };
+    private GameController gameController;
+    private TickScheduler scheduler;
+    private long now;
+    private int lastDiamondCount;
+    private boolean won;
+    private boolean done;
+
+    /**
+     * Creates an environment for a level, observing the whole grid.
+     * @param levelFile the level file to play.
+     */
+    public GameEnvironment(String levelFile) {
+        this(levelFile, 0, 0);
+    }
+
+    /**
+     * Creates an environment for a level. The level is read once and
+     * every episode starts from that copy.
+     * @param levelFile the level file to play.
+     * @param cropRows the height of the window centred on the player, or 0 to observe the whole grid.
+     * @param cropColumns the width of the window centred on the player, or 0 to observe the whole grid.
+     */
+    public GameEnvironment(String levelFile, int cropRows, int cropColumns) {
+        this(FileHandler.readLevelData(levelFile), cropRows, cropColumns, null, 0);
+    }
+
+    /**
+     * Creates an environment for a level that has already been read, which may write
+     * its observation into part of a larger array shared with other environments.
+     * @param level the level to play.
+     * @param cropRows the height of the window centred on the player, or 0 to observe the whole grid.
+     * @param cropColumns the width of the window centred on the player, or 0 to observe the whole grid.
+     * @param observation the array to write the observation into, or null to give this environment its own.
+     * @param observationOffset the index in that array where this environment's observation starts.
+     */
+    public GameEnvironment(LevelData level, int cropRows, int cropColumns,
+                           byte[] observation, int observationOffset) {
+        this.level = level;
+        this.timeLimit = level.getSeconds() * NANOS_PER_SECOND;
+        this.cropped = cropRows > 0 && cropColumns > 0;
+        this.observationRows = cropped ? cropRows : level.getRows();
+        this.observationColumns = cropped ? cropColumns : level.getColumns();
+        this.observation = observation != null ? observation : new byte[observationRows * observationColumns];
+        this.observationOffset = observationOffset;
+    }
+
+    /**
+     * Starts a new episode from the beginning of the level.
+     * @param seed the seed for the game's randomness, so episodes can be replayed.
+     * @return the first observation, which is refilled by every later step.
+     */
+    public byte[] reset(long seed) {
+        gameController = level.createGame(seed);
+        scheduler = TickScheduler.forGame(gameController, level.getAmoebaGrowthRate(), this::checkLevelWin);
+        now = 0;
+        scheduler.setRunning(true, now);
+        lastDiamondCount = level.getDiamondsCollected();
+        won = false;
+        done = false;
+        encodeObservation();
+        return observation;
+    }
+
+    /**
+     * Applies a player input and runs the game until the player's next move.
+     * @param input the player's input, or null to stand still.
+     * @return the reward earned by this step.
+     * @throws IllegalStateException if the episode is over or has not been started,
+     *                               or if a tick failed during the step.
+     */
+    public double step(GameController.PlayerInput input) {
+        if (scheduler == null || done) {
+            throw new IllegalStateException("No episode is running, call reset first");
+        }
+        gameController.registerInput(input);
+        long stepEnd = now + STEP_NANOS;
+        while (scheduler.getNextDue() - stepEnd <= 0) {
+            now = scheduler.getNextDue();
+            scheduler.runDue(now, ignoreTickCost);
+        }
+        if (scheduler.getFailure() != null) {
+            done = true;
+            throw new IllegalStateException("A tick failed, so the episode cannot go on", scheduler.getFailure());
+        }
+        now = stepEnd;
+        // Nothing is drawn, so draw requests are simply dropped
+        gameController.consumeDrawRequests();
+
+        int diamondCount = gameController.getPlayer().getDiamondCount();
+        double reward = (diamondCount - lastDiamondCount) * DIAMOND_REWARD;
+        lastDiamondCount = diamondCount;
+        if (won) {
+            reward += WIN_REWARD;
+            done = true;
+        } else if (!gameController.getGridManager().getContext().isGameRunning()) {
+            reward += DEATH_REWARD;
+            done = true;
+        } else if (now - timeLimit >= 0) {
+            done = true;
+        }
+        encodeObservation();
+        return reward;
+    }
+
+    /**
+     * Stops the episode once the player has completed the level.
+     */
+    private void checkLevelWin() {
+        if (gameController.checkLevelWinTick()) {
+            won = true;
+            scheduler.pause();
+        }
+    }
+
+    /**
+     * Writes the tile code of every observed cell into the observation, row by row.
+     */
+    private void encodeObservation() {
+        GridManager gridManager = gameController.getGridManager();
+        int i = observationOffset;
+        if (!cropped) {
+            for (int row = 0; row < observationRows; row++) {
+                for (int col = 0; col < observationColumns; col++) {
+                    observation[i++] = tileCodeOf(gridManager.getElement(row, col));
+                }
+            }
+            return;
+        }
+        Player player = gridManager.getPlayer();
+        int firstRow = player.getRow() - observationRows / 2;
+        int firstColumn = player.getColumn() - observationColumns / 2;
+        for (int row = firstRow; row < firstRow + observationRows; row++) {
+            for (int col = firstColumn; col < firstColumn + observationColumns; col++) {
+                observation[i++] = gridManager.isInBounds(row, col)
+                        ? tileCodeOf(gridManager.getElement(row, col)) : OUT_OF_BOUNDS;
+            }
+        }
+    }
+
+    /**
+     * Works out the tile code of an element: its sprite index plus one,
+     * so a cell with nothing to draw is zero.
+     * @param element the element to encode.
+     * @return the tile code.
+     */
+    private static byte tileCodeOf(Element element) {
+        return (byte) (element.getSprite() + 1);
+    }
+
+    /**
+     * Retrieves the observation, which is refilled in place by every step.
+     * If the array is shared with other environments, this environment's
+     * cells start at getObservationOffset.
+     * @return the tile codes of the observed cells, row by row.
+     */
+    public byte[] getObservation() {
+        return observation;
+    }
+
+    /**
+     * Retrieves the index in the observation array where this environment's cells start.
+     * @return the observation offset.
+     */
+    public int getObservationOffset() {
+        return observationOffset;
+    }
+
+    /**
+     * Retrieves the number of rows in the observation.
+     * @return the observation height.
+     */
+    public int getObservationRows() {
+        return observationRows;
+    }
+
+    /**
+     * Retrieves the number of columns in the observation.
+     * @return the observation width.
+     */
+    public int getObservationColumns() {
+        return observationColumns;
+    }
+
+    /**
+     * Checks whether the episode is over, because the player won, died or ran out of time.
+     * @return true if the episode is over, false otherwise.
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Checks whether the player completed the level in this episode.
+     * @return true if the level was won, false otherwise.
+     */
+    public boolean isWon() {
+        return won;
+    }
+
+    /**
+     * Retrieves the game controller of the current episode.
+     * @return the game controller, or null before the first reset.
+     */
+    public GameController getGameController() {
+        return gameController;
+    }
+}
@@ -0,0 +1,15 @@
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * A way of drawing a frame published by the simulation onto the game canvas.
+ * @author Alex Vesely
+ */
+public interface GameRenderer {
+    /**
+     * Renders the cells held by a frame.
+     * @param gc the GraphicsContext of the game canvas.
+     * @param frame the frame to draw.
+     * @return the number of cells that were painted.
+     */
+    int draw(GraphicsContext gc, FrameSnapshot frame);
+}
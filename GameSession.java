@@ -0,0 +1,152 @@
+import java.util.Random;
+import java.util.function.LongConsumer;
+
+/**
+ * One headless game, played by a bot that presses random arrow keys.
+ * A session has no thread or window of its own: it keeps its own simulated clock,
+ * and each call to step jumps the clock to the next tick deadline and runs every
+ * tick that is then due, so a SessionManager can run many sessions side by side
+ * as fast as the CPU allows. The session ends when the player wins or dies,
+ * when the level's time limit runs out on the simulated clock, or when a tick fails.
+ * @author Alex Vesely
+ */
+public class GameSession {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final GameController.PlayerInput[] INPUTS = GameController.PlayerInput.values();
+
+    private final int id;
+    private final GameController gameController;
+    private final TickScheduler scheduler;
+    private final LatencyHistogram tickLatencies = new LatencyHistogram();
+    private final LongConsumer tickRecorder = this::recordTick;
+    private final Random bot;
+    private final long endTime;
+    private long now;
+    private long ticksRun;
+    private boolean won;
+    private boolean finished;
+
+    /**
+     * Starts a new session of a level.
+     * @param id the number of the session.
+     * @param level the level to play.
+     * @param seed the seed for the game's randomness and the bot's key presses.
+     */
+    public GameSession(int id, LevelData level, long seed) {
+        this.id = id;
+        this.gameController = level.createGame(seed);
+        this.scheduler = TickScheduler.forGame(gameController, level.getAmoebaGrowthRate(), this::checkLevelWin);
+        this.bot = new Random(seed);
+        this.endTime = level.getSeconds() * NANOS_PER_SECOND;
+        scheduler.setRunning(true, now);
+    }
+
+    /**
+     * Advances the simulated clock to the next tick deadline and runs the ticks that are due.
+     * @return true if the session can keep going, false once it has finished.
+     */
+    public boolean step() {
+        if (finished) {
+            return false;
+        }
+        long nextDue = scheduler.getNextDue();
+        if (nextDue == Long.MAX_VALUE || nextDue - endTime > 0
+                || !gameController.getGridManager().getContext().isGameRunning()) {
+            finished = true;
+            return false;
+        }
+        now = nextDue;
+        gameController.registerInput(INPUTS[bot.nextInt(INPUTS.length)]);
+        scheduler.runDue(now, tickRecorder);
+        // Nothing is drawn, so draw requests are simply dropped
+        gameController.consumeDrawRequests();
+        if (scheduler.getFailure() != null) {
+            finished = true;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Counts a tick and records how long it took.
+     * @param tickNanos the wall-clock cost of the tick, in nanoseconds.
+     */
+    private void recordTick(long tickNanos) {
+        ticksRun++;
+        tickLatencies.record(tickNanos);
+    }
+
+    /**
+     * Stops the session if the player has completed the level.
+     */
+    private void checkLevelWin() {
+        if (gameController.checkLevelWinTick()) {
+            won = true;
+            scheduler.pause();
+        }
+    }
+
+    /**
+     * Retrieves the number of the session.
+     * @return the session id.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Retrieves the game controller the session is playing.
+     * @return the game controller.
+     */
+    public GameController getGameController() {
+        return gameController;
+    }
+
+    /**
+     * Retrieves how many ticks the session has run.
+     * @return the number of ticks.
+     */
+    public long getTicksRun() {
+        return ticksRun;
+    }
+
+    /**
+     * Retrieves how much game time has passed in the session.
+     * @return the simulated time, in nanoseconds.
+     */
+    public long getSimulatedNanos() {
+        return now;
+    }
+
+    /**
+     * Retrieves the wall-clock cost of every tick the session has run.
+     * @return the tick latency histogram.
+     */
+    public LatencyHistogram getTickLatencies() {
+        return tickLatencies;
+    }
+
+    /**
+     * Checks whether the bot completed the level.
+     * @return true if the level was won, false otherwise.
+     */
+    public boolean isWon() {
+        return won;
+    }
+
+    /**
+     * Retrieves the exception of the tick that failed and ended the session, if one did.
+     * @return the exception, or null if no tick has failed.
+     */
+    public RuntimeException getFailure() {
+        return scheduler.getFailure();
+    }
+
+    /**
+     * Checks whether the session has finished.
+     * @return true if finished, false if it can still step.
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+}
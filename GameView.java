@@ -0,0 +1,147 @@
+import javafx.animation.AnimationTimer;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.StackPane;
+
+/**
+ * GameView draws the game on the JavaFX Application Thread.
+ * Once per screen pulse it picks up the latest frame published by the
+ * SimulationLoop and draws it, if it has not been drawn already.
+ * It never reads the live grid, so it never waits on the simulation.
+ * @author Alex Vesely
+ */
+public class GameView {
+    /**
+     * System property choosing the render backend, e.g. -Dboulderdash.renderer=pixels.
+     */
+    public static final String RENDERER_PROPERTY = "boulderdash.renderer";
+    public static final String PIXEL_BUFFER_RENDERER = "pixels";
+
+    private final Canvas canvas;
+    private final StackPane view;
+    private final GameRenderer renderer;
+    private final PerformanceOverlay performanceOverlay;
+    private final SimulationLoop simulation;
+    private final AnimationTimer renderTimer;
+    private FrameSnapshot lastDrawnFrame;
+    private long drawsPerformed;
+
+    /**
+     * Creates a view that draws the frames published by a simulation onto a canvas.
+     * The render backend is chosen by the RENDERER_PROPERTY system property.
+     * @param canvas the canvas the game is drawn on.
+     * @param simulation the simulation publishing the frames.
+     */
+    public GameView(Canvas canvas, SimulationLoop simulation) {
+        this.canvas = canvas;
+        this.simulation = simulation;
+        if (PIXEL_BUFFER_RENDERER.equals(System.getProperty(RENDERER_PROPERTY))) {
+            this.renderer = new PixelBufferRenderer(canvas.getWidth(), canvas.getHeight());
+            this.view = new StackPane(canvas);
+        } else {
+            Renderer layeredRenderer = new Renderer(canvas.getWidth(), canvas.getHeight());
+            this.renderer = layeredRenderer;
+            this.view = new StackPane(layeredRenderer.getStaticLayer(), canvas);
+        }
+        this.performanceOverlay = new PerformanceOverlay();
+        this.performanceOverlay.setSimulationThread(simulation.getThread());
+        simulation.setPerformanceOverlay(performanceOverlay);
+        this.renderTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                renderIfChanged();
+            }
+        };
+    }
+
+    /**
+     * Starts drawing once per screen pulse.
+     */
+    public void start() {
+        renderTimer.start();
+    }
+
+    /**
+     * Stops drawing.
+     */
+    public void stop() {
+        renderTimer.stop();
+    }
+
+    /**
+     * Draws the latest frame if it has not been drawn yet,
+     * or if the performance overlay is due to show new figures.
+     * @return true if the game was drawn, false otherwise.
+     */
+    public boolean renderIfChanged() {
+        FrameSnapshot frame = simulation.getLatestFrame();
+        if (frame == null || (frame == lastDrawnFrame && !performanceOverlay.isRefreshDue())) {
+            return false;
+        }
+        draw(frame);
+        return true;
+    }
+
+    /**
+     * Draws a frame and the performance overlay on top of it.
+     * @param frame the frame to draw.
+     */
+    private void draw(FrameSnapshot frame) {
+        drawsPerformed++;
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        long frameStart = System.nanoTime();
+        int cellsDrawn = renderer.draw(gc, frame);
+        performanceOverlay.recordFrame(System.nanoTime() - frameStart, cellsDrawn);
+        performanceOverlay.draw(gc, frame);
+        lastDrawnFrame = frame;
+    }
+
+    /**
+     * Shows or hides the performance overlay and redraws on the next pulse.
+     */
+    public void togglePerformanceOverlay() {
+        performanceOverlay.toggle();
+        lastDrawnFrame = null;
+    }
+
+    /**
+     * Maps a key press to the player input it stands for.
+     * @param code the KeyCode of the pressed key.
+     * @return the matching player input, or null if the key does not move the player.
+     */
+    public static GameController.PlayerInput inputFor(KeyCode code) {
+        return switch (code) {
+            case UP -> GameController.PlayerInput.UP;
+            case DOWN -> GameController.PlayerInput.DOWN;
+            case LEFT -> GameController.PlayerInput.LEFT;
+            case RIGHT -> GameController.PlayerInput.RIGHT;
+            default -> null;
+        };
+    }
+
+    /**
+     * Retrieves how many times the game has actually been drawn.
+     * @return the number of draws performed so far.
+     */
+    public long getDrawsPerformed() {
+        return drawsPerformed;
+    }
+
+    /**
+     * Retrieves the canvas the game is drawn on.
+     * @return the game canvas.
+     */
+    public Canvas getCanvas() {
+        return canvas;
+    }
+
+    /**
+     * Retrieves the node showing the game, which stacks the game canvas
+     * on top of the renderer's static layer when there is one.
+     * @return the StackPane holding the layers.
+     */
+    public StackPane getView() {
+        return view;
+    }
+}
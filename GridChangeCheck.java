@@ -0,0 +1,117 @@
+import java.util.Random;
+
+/**
+ * Checks that the changes GridManager publishes to its change listeners are
+ * enough to follow the grid. It loads a level headless, copies the kind of
+ * element in every cell, then plays the level with random moves, applying
+ * nothing to its copy but the journals published to it as a listener. After
+ * every tick its copy must match the grid, and every change must start from
+ * the kind its copy already had in that cell. Half way through it reloads the
+ * grid from the level file, which is not journaled, and copies the grid afresh.
+ * Run it from the command line; it exits with status 1 at the first tick after
+ * which its copy and the grid differ.
+ * @author Alex Vesely
+ */
+public class GridChangeCheck implements GridChangeListener {
+    private static final int DEFAULT_TICKS = 10_000;
+    private static final int SEED = 7;
+
+    private ElementKind[] kinds;
+    private int batches;
+    private int changes;
+    private int brokenChanges;
+
+    /**
+     * Copies the kind of element in every cell of a grid, as a listener does after a load.
+     * @param gridManager the grid.
+     */
+    public void copyGrid(GridManager gridManager) {
+        int columns = gridManager.getColumns();
+        kinds = new ElementKind[gridManager.getRows() * columns];
+        for (int cell = 0; cell < kinds.length; cell++) {
+            Element element = gridManager.getElement(cell / columns, cell % columns);
+            kinds[cell] = element == null ? null : element.getKind();
+        }
+    }
+
+    /**
+     * Applies the changes of one tick to the copy of the grid.
+     * @param gridManager the grid that changed.
+     * @param journal the changes, in the order they were made.
+     */
+    @Override
+    public void gridChanged(GridManager gridManager, MutationJournal journal) {
+        batches++;
+        for (int i = 0; i < journal.size(); i++) {
+            int cell = journal.getCell(i);
+            if (kinds[cell] != journal.getOldKind(i)) {
+                brokenChanges++;
+            }
+            kinds[cell] = journal.getNewKind(i);
+            changes++;
+        }
+    }
+
+    /**
+     * Counts the cells where the copy of the grid differs from the grid.
+     * @param gridManager the grid.
+     * @return the number of cells that differ.
+     */
+    public int countDifferences(GridManager gridManager) {
+        int columns = gridManager.getColumns();
+        int differences = 0;
+        for (int cell = 0; cell < kinds.length; cell++) {
+            Element element = gridManager.getElement(cell / columns, cell % columns);
+            if (kinds[cell] != (element == null ? null : element.getKind())) {
+                differences++;
+            }
+        }
+        return differences;
+    }
+
+    /**
+     * Runs the check on a level.
+     * @param args the level file, then optionally the number of ticks to play.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: GridChangeCheck levelFile [ticks]");
+            return;
+        }
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TICKS;
+        LevelData level = FileHandler.readLevelData(args[0]);
+        GameController gameController = level.createGame(SEED);
+        GridManager gridManager = gameController.getGridManager();
+        TickScheduler scheduler = TickScheduler.forGame(gameController, level.getAmoebaGrowthRate(), () -> { });
+        scheduler.setRunning(true, 0);
+        Random inputs = new Random(SEED);
+        GameController.PlayerInput[] directions = GameController.PlayerInput.values();
+
+        GridChangeCheck check = new GridChangeCheck();
+        check.copyGrid(gridManager);
+        gridManager.addChangeListener(check);
+        boolean failed = false;
+        for (int i = 1; i <= ticks && !failed; i++) {
+            gameController.registerInput(directions[inputs.nextInt(directions.length)]);
+            scheduler.runDue(scheduler.getNextDue(), cost -> { });
+            int differences = check.countDifferences(gridManager);
+            if (differences > 0 || check.brokenChanges > 0) {
+                System.out.println("After tick " + i + ", " + differences + " cells differ from the grid and "
+                        + check.brokenChanges + " changes did not start from the kind already in their cell");
+                failed = true;
+            }
+            if (i == ticks / 2) {
+                FileHandler.reloadGridFromLevelFile(args[0], gridManager);
+                check.copyGrid(gridManager);
+            }
+        }
+        gridManager.removeChangeListener(check);
+
+        System.out.println(check.batches + " batches of " + check.changes + " changes published over "
+                + ticks + " ticks");
+        if (failed) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+    }
+}
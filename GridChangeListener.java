@@ -0,0 +1,14 @@
+/**
+ * Told which cells of a grid changed, once per tick that changed any.
+ * Registered with GridManager.addChangeListener.
+ * @author Alex Vesely
+ */
+public interface GridChangeListener {
+    /**
+     * Receives the changes made by one tick. Called on the simulation thread;
+     * the journal is cleared and reused as soon as this returns, so it must not be kept.
+     * @param gridManager the grid that changed.
+     * @param journal the changes, in the order they were made.
+     */
+    void gridChanged(GridManager gridManager, MutationJournal journal);
+}
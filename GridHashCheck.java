@@ -0,0 +1,103 @@
+import java.util.Random;
+
+/**
+ * Checks that the Zobrist hash GridManager keeps up to date with every write
+ * always matches the hash worked out afresh by scanning the grid. It loads a
+ * level headless and plays two games of it side by side with the same seed and
+ * the same random moves, checking the hash after loading, after every tick,
+ * and after reloading both grids from the level file half way through, which
+ * must bring back the hash the grid had when it was first loaded.
+ * The two games must also have the same state hash after every tick, as a game
+ * played again from the same seed and moves should play out exactly the same.
+ * Run it from the command line; it exits with status 1 at the first hash that differs.
+ * @author Alex Vesely
+ */
+public class GridHashCheck {
+    private static final int DEFAULT_TICKS = 10_000;
+    private static final int SEED = 7;
+
+    private final GameController gameController;
+    private final TickScheduler scheduler;
+    private final Random inputs = new Random(SEED);
+    private final GameController.PlayerInput[] directions = GameController.PlayerInput.values();
+
+    /**
+     * Starts a game of a level to be checked, with its ticks running.
+     * @param level the level.
+     */
+    public GridHashCheck(LevelData level) {
+        this.gameController = level.createGame(SEED);
+        this.scheduler = TickScheduler.forGame(gameController, level.getAmoebaGrowthRate(), () -> { });
+        scheduler.setRunning(true, 0);
+    }
+
+    /**
+     * Runs the next due tick, feeding the player a random move first.
+     */
+    public void runTick() {
+        gameController.registerInput(directions[inputs.nextInt(directions.length)]);
+        scheduler.runDue(scheduler.getNextDue(), cost -> { });
+    }
+
+    /**
+     * Checks that the grid's kept hash matches the hash worked out from scratch.
+     * @param when what last happened to the grid, to print if the hashes differ.
+     * @return true if the hashes match, false otherwise.
+     */
+    public boolean hashMatches(String when) {
+        GridManager gridManager = gameController.getGridManager();
+        long kept = gridManager.getGridHash();
+        long scanned = gridManager.computeGridHash();
+        if (kept != scanned) {
+            System.out.printf("After %s the kept grid hash is %016x but the grid scans to %016x%n",
+                    when, kept, scanned);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Runs the check on a level.
+     * @param args the level file, then optionally the number of ticks to play.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: GridHashCheck levelFile [ticks]");
+            return;
+        }
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TICKS;
+        LevelData level = FileHandler.readLevelData(args[0]);
+        GridHashCheck check = new GridHashCheck(level);
+        GridHashCheck replay = new GridHashCheck(level);
+        boolean matched = check.hashMatches("loading");
+        long loadedHash = check.gameController.getGridManager().getGridHash();
+
+        for (int i = 1; i <= ticks && matched; i++) {
+            check.runTick();
+            replay.runTick();
+            matched = check.hashMatches("tick " + i);
+            long stateHash = check.gameController.getGridManager().getStateHash();
+            long replayedHash = replay.gameController.getGridManager().getStateHash();
+            if (matched && stateHash != replayedHash) {
+                System.out.printf("After tick %d the game has state hash %016x but its replay has %016x%n",
+                        i, stateHash, replayedHash);
+                matched = false;
+            }
+            if (matched && i == ticks / 2) {
+                FileHandler.reloadGridFromLevelFile(args[0], check.gameController.getGridManager());
+                FileHandler.reloadGridFromLevelFile(args[0], replay.gameController.getGridManager());
+                matched = check.hashMatches("reloading at tick " + i);
+                if (matched && check.gameController.getGridManager().getGridHash() != loadedHash) {
+                    System.out.println("Reloading at tick " + i + " did not bring back the grid as first loaded");
+                    matched = false;
+                }
+            }
+        }
+        if (!matched) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+        System.out.println("The grid hash matched a scan of the grid after loading, reloading and "
+                + ticks + " ticks");
+    }
+}
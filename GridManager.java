@@ -1,4 +1,13 @@
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
 
 /**
  * The GridManager is responsible for managing the grid of elements in the game.
@@ -7,17 +16,44 @@ import java.util.ArrayList;
  * @author Omar Sanad
  */
 public class GridManager {
+    /**
+     * Grids with more cells than this are stored in chunks rather than one dense array.
+     */
+    public static final long CHUNKED_CELL_THRESHOLD = 1_000_000L;
+    // Optimistic runs of a reader thrown away before it takes the read lock instead
+    private static final int OPTIMISTIC_READ_ATTEMPTS = 4;
+
+    private final int rows;
+    private final int columns;
     private final Element[][] elementGrid;
-    private final ArrayList<Path> paths = new ArrayList<>();
-    final ArrayList<Dirt> dirts = new ArrayList<>();
+    private final Path[][] pathCache;
+    private final ChunkedGrid chunkedGrid;
+    private final Connectivity connectivity;
+    private final FlyPassability flyPassability;
+    private final Dirt sharedDirt;
+    private final NormalWall sharedNormalWall;
+    private final TitaniumWall sharedTitaniumWall;
     private final ArrayList<Player> players = new ArrayList<>();
-    private final ArrayList<NormalWall> walls = new ArrayList<>();
     final ArrayList<Boulder> boulders = new ArrayList<>();
     final ArrayList<Diamond> diamonds = new ArrayList<>();
-    final ArrayList<Fly> flies = new ArrayList<>();
-    final ArrayList<Frog> frogs = new ArrayList<>();
+    final EnemyStore<Fly> flies = new EnemyStore<>();
+    final EnemyStore<Frog> frogs = new EnemyStore<>();
     final ArrayList<Amoeba> amoebas = new ArrayList<>();
     private final ArrayList<AmoebaGroup> amoebaGroups = new ArrayList<>();
+    // Frogs decide their moves on several threads at once, so each thread has its own search buffers:
+    // slot 0 for the thread ticking the grid, then one for each common pool worker, by pool index.
+    // They belong to the grid, so they go when it is reloaded or thrown away. Copied on write.
+    private volatile FrogPathfinder[] frogPathfinders =
+            new FrogPathfinder[1 + ForkJoinPool.getCommonPoolParallelism()];
+    private final Random random = new Random();
+    private final GameContext context = new GameContext();
+    private final MutationJournal journal = new MutationJournal();
+    private final CopyOnWriteArrayList<GridChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    private boolean loading;
+    private SectorGraph sectorGraph;
+    private long gridHash;
+    // Held for writing by the simulation thread while a tick or command changes the grid
+    private final StampedLock lock = new StampedLock();
     private  Player player;
 
 
@@ -27,20 +63,55 @@ public class GridManager {
      * @param gridTemplate the 2D array representing the initial grid setup
      */
     public GridManager(String[][] gridTemplate) {
-        this.elementGrid = new Element[gridTemplate.length][gridTemplate[0].length];
+        this(gridTemplate.length, gridTemplate[0].length,
+                (long) gridTemplate.length * gridTemplate[0].length > CHUNKED_CELL_THRESHOLD);
         initializeGrid(gridTemplate);
 
     }
 
+    /**
+     * Constructs an empty GridManager of the given size, to be filled row by row
+     * with beginLoad, loadRow and finishLoad.
+     * In a chunked grid, cells are stored in lazily allocated chunks and dirt and
+     * walls are shared tiles, so that very large maps fit in bounded memory.
+     * @param rows the number of rows in the grid
+     * @param columns the number of columns in the grid
+     * @param chunked true to store the grid in chunks, false for one dense array
+     */
+    public GridManager(int rows, int columns, boolean chunked) {
+        this.rows = rows;
+        this.columns = columns;
+        if (chunked) {
+            this.elementGrid = null;
+            this.pathCache = null;
+            this.chunkedGrid = new ChunkedGrid(rows, columns);
+            this.sharedDirt = new Dirt(0, 0);
+            this.sharedNormalWall = new NormalWall(0, 0);
+            this.sharedTitaniumWall = new TitaniumWall(0, 0);
+            this.connectivity = null;
+            this.flyPassability = null;
+            // A search over every cell would need buffers far too big, so frogs always search sectors
+            this.sectorGraph = new SectorGraph(this);
+        } else {
+            this.elementGrid = new Element[rows][columns];
+            this.pathCache = new Path[rows][columns];
+            this.chunkedGrid = null;
+            this.sharedDirt = null;
+            this.sharedNormalWall = null;
+            this.sharedTitaniumWall = null;
+            this.connectivity = new Connectivity(this);
+            this.flyPassability = new FlyPassability(this);
+        }
+    }
+
     /**
      * Initializes the player's position based on the grid template.
      * @param gridTemplate the 2D array representing the grid layout
      */
     public void initializePlayer(String[][] gridTemplate) {
-        Element[][] elementGrid = this.getElementGrid();
         for (int row = 0; row < gridTemplate.length; row++) {
             for (int col = 0; col < gridTemplate[row].length; col++) {
-                if (elementGrid[row][col] instanceof Player) {
+                if (getElement(row, col) instanceof Player) {
                     player.setRow(row);
                     player.setColumn(col);
                     break;
@@ -54,30 +125,19 @@ public class GridManager {
      * @param gridTemplate the 2D array representing the initial grid setup
      */
     public void reinitializeGrid(String[][] gridTemplate) {
-        GameController.waitingForExplosion = false;
-        GameController.waitingForExplosionAfterMath = false;
+        resetForReinitialize();
+        initializeGrid(gridTemplate);
+    }
 
-        initializePlayer(gridTemplate);
-        Exit.toggleFalseExitExists();
-        getBoulders().clear();
-        getDiamonds().clear();
-        getFrogs().clear();
-        getAmoebas().clear();
-        getFlies().clear();
-        GameController.gameStart();
+    /**
+     * Clears pending explosions and the player's progress before the grid is loaded again.
+     */
+    public void resetForReinitialize() {
+        context.clearExplosion();
 
         // Clear specific references
         player.resetDiamondCountStatus();
         player.resetKeyInventory();
-
-        for (int row = 0; row < gridTemplate.length; row++) {
-            for (int col = 0; col < gridTemplate[row].length; col++) {
-                Element element = createElement(this, gridTemplate[row][col], row, col); // i removed false here
-                elementGrid[row][col] = element;
-                addToList(element);
-            }
-        }
-        identifyAmoebaGroups();
     }
 
     /**
@@ -86,24 +146,74 @@ public class GridManager {
      * @param gridTemplate the 2D array representing the initial grid setup
      */
     public void initializeGrid(String[][] gridTemplate) {
+        beginLoad();
+        for (int row = 0; row < gridTemplate.length; row++) {
+            loadRow(row, gridTemplate[row]);
+        }
+        finishLoad();
+    }
+
+    /**
+     * Prepares the grid to be loaded row by row.
+     * Clears any existing lists and stored chunks, and starts this grid's game context afresh.
+     * Nothing outside this GridManager is touched, so other grids can be loaded alongside it.
+     */
+    public void beginLoad() {
+        loading = true;
+        journal.clear();
+        gridHash = 0;
+        if (connectivity != null) {
+            connectivity.invalidate();
+        }
+        if (sectorGraph != null) {
+            sectorGraph.invalidateAll();
+        }
+        releaseFrogPathfinders();
         // Clear all memory of existing lists
-        Exit.toggleFalseExitExists();
+        context.setExitExists(false);
+        players.clear();
+        amoebaGroups.clear();
         getBoulders().clear();
         getDiamonds().clear();
         getFrogs().clear();
         getAmoebas().clear();
         getFlies().clear();
-        GameController.gameStart();
-        // follows LeftEdge is true by default
-        for (int row = 0; row < gridTemplate.length; row++) {
-            for (int col = 0; col < gridTemplate[row].length; col++) {
-                Element element = createElement(this,gridTemplate[row][col], row, col); //I removed false here
-                elementGrid[row][col] = element;
+        context.gameStart();
+        if (chunkedGrid != null) {
+            chunkedGrid.clear();
+        }
+    }
+
+    /**
+     * Loads one row of the grid from its element codes.
+     * @param row the row being loaded
+     * @param codes the String codes of the elements in that row
+     */
+    public void loadRow(int row, String[] codes) {
+        for (int col = 0; col < codes.length; col++) {
+            Element element = createElement(this, codes[col], row, col);
+            setElement(row, col, element);
+            if (element instanceof Fly fly) {
+                // Only the code says which edge a fly follows, and only the fly store keeps it
+                flies.add(fly, codes[col].equals("FFL") || codes[col].equals("BFL"));
+            } else {
                 addToList(element);
             }
         }
+    }
+
+    /**
+     * Completes loading the grid once every row has been loaded,
+     * finding the amoeba groups and building the fly masks.
+     */
+    public void finishLoad() {
         identifyAmoebaGroups();
+        if (flyPassability != null) {
+            flyPassability.rebuild();
+        }
+        loading = false;
     }
+
     /**
      * Creates an element based on the provided code and its position in the grid.
      * @param gridManager the gridManager
@@ -117,12 +227,12 @@ public class GridManager {
         return switch (code) {
             case "*" -> player = new Player(row, col);
 
-            case "P" -> new Path(row, col);
-            case "DT" -> new Dirt(row, col);
-            case "E" -> new Exit(row, col);
+            case "P" -> getPath(row, col);
+            case "DT" -> chunkedGrid != null ? sharedDirt : new Dirt(row, col);
+            case "E" -> createExit(row, col);
 
-            case "NW" -> new NormalWall(row, col);
-            case "TW" -> new TitaniumWall(row, col);
+            case "NW" -> chunkedGrid != null ? sharedNormalWall : new NormalWall(row, col);
+            case "TW" -> chunkedGrid != null ? sharedTitaniumWall : new TitaniumWall(row, col);
             case "MW" -> new MagicWall(row, col);
 
             case "B" -> new Boulder(row, col);
@@ -131,10 +241,8 @@ public class GridManager {
             case "F" -> new Frog(row, col);
             case "A" -> new Amoeba(row, col);
 
-            case "FFL" -> new Firefly(row,col,true);
-            case "FFR" -> new Firefly(row,col,false);
-            case "BFL" -> new Butterfly(row,col,true);
-            case "BFR" -> new Butterfly(row,col,false);
+            case "FFL", "FFR" -> new Firefly(row, col);
+            case "BFL", "BFR" -> new Butterfly(row, col);
 
             case "RLD" -> new LockedDoor(row, col, KeyColour.RED);
             case "RK" -> new Key(row, col, KeyColour.RED);
@@ -150,25 +258,31 @@ public class GridManager {
         };
     }
 
+    /**
+     * Creates the level's exit. Only one exit can be created per level.
+     * @param row the row position of the exit
+     * @param col the column position of the exit
+     * @return the created Exit
+     * @throws IllegalStateException if an exit already exists
+     */
+    private Exit createExit(int row, int col) {
+        if (context.exitExists()) {
+            throw new IllegalStateException("An exit already exists!");
+        }
+        context.setExitExists(true);
+        return new Exit(row, col);
+    }
+
     /**
      * Adds an element to its corresponding list based on its type.
+     * Flies are added to the fly store by loadRow, which knows the edge they follow.
      * @param element the Element to be added
      */
     public void addToList(Element element) {
-        if (element instanceof Path path) {
-            paths.add(path);
-        } else if (element instanceof Dirt dirt) {
-            dirts.add(dirt);
-        } else if (element instanceof Player player) {
+        if (element instanceof Player player) {
             players.add(player);
-        } else if (element instanceof NormalWall wall) {
-            walls.add(wall);
         } else if (element instanceof Boulder boulder) {
             boulders.add(boulder);
-        } else if (element instanceof Butterfly butterfly) {
-            flies.add(butterfly);
-        } else if (element instanceof Firefly firefly) {
-            flies.add(firefly);
         } else if (element instanceof Frog frog) {
             frogs.add(frog);
         } else if (element instanceof Amoeba amoeba) {
@@ -178,37 +292,40 @@ public class GridManager {
         }
     }
 
+    /**
+     * Closes up the slots of the flies and frogs removed since the last call,
+     * once at the end of every tick.
+     */
+    public void compactEnemies() {
+        flies.compact();
+        frogs.compact();
+    }
+
     /**
      * Removes an element from its corresponding list based on its type.
      * Explodes if it is an enemy
      * @param element the Element to be removed
      */
     public void removeFromList(Element element) {
-        if (element instanceof Path path) {
-            paths.remove(path);
-        } else if (element instanceof Dirt dirt) {
-            dirts.remove(dirt);
-        } else if (element instanceof Player player) {
+        if (element instanceof Player player) {
             players.remove(player);
-            GameController.gameOver();
-            GameController.applyExplosion(element.row, element.column, Player.dropDiamond);
-        } else if (element instanceof NormalWall wall) {
-            walls.remove(wall);
+            context.gameOver();
+            context.applyExplosion(element.getRow(), element.getColumn(), element.dropsDiamonds());
         } else if (element instanceof Boulder boulder) {
             boulders.remove(boulder);
         } else if (element instanceof Frog frog) {
             frogs.remove(frog);
-            GameController.applyExplosion(element.row, element.column, Frog.dropDiamond);
+            context.applyExplosion(element.getRow(), element.getColumn(), element.dropsDiamonds());
         } else if (element instanceof Amoeba amoeba) {
             amoebas.remove(amoeba);
         } else if (element instanceof Diamond diamond) {
             diamonds.remove(diamond);
         } else if (element instanceof Butterfly butterfly) {
             flies.remove(butterfly);
-            GameController.applyExplosion(element.row, element.column, Butterfly.dropDiamond);
+            context.applyExplosion(element.getRow(), element.getColumn(), element.dropsDiamonds());
         } else if (element instanceof Firefly firefly) {
             flies.remove(firefly);
-            GameController.applyExplosion(element.row, element.column, Firefly.dropDiamond);
+            context.applyExplosion(element.getRow(), element.getColumn(), element.dropsDiamonds());
         }
     }
 
@@ -218,15 +335,9 @@ public class GridManager {
      * @param element the Element to be removed
      */
     public void destroyRemoveFromList(Element element) {
-        if (element instanceof Path path) {
-            paths.remove(path);
-        } else if (element instanceof Dirt dirt) {
-            dirts.remove(dirt);
-        } else if (element instanceof Player player) {
+        if (element instanceof Player player) {
             players.remove(player);
-            GameController.gameOver();
-        } else if (element instanceof NormalWall wall) {
-            walls.remove(wall);
+            context.gameOver();
         } else if (element instanceof Boulder boulder) {
             boulders.remove(boulder);
         } else if (element instanceof Frog frog) {
@@ -243,11 +354,45 @@ public class GridManager {
     }
 
     /**
-     * Retrieves the 2D array of elements in the grid.
-     * @return the element grid
+     * Retrieves the number of rows in the grid.
+     * @return the number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Retrieves the number of columns in the grid.
+     * @return the number of columns
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Checks whether a position lies inside the grid.
+     * @param row the row position to check
+     * @param col the column position to check
+     * @return true if the position is inside the grid, false otherwise
+     */
+    public boolean isInBounds(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < columns;
+    }
+
+    /**
+     * Checks whether the grid is stored in chunks rather than one dense array.
+     * @return true if the grid is chunked, false otherwise
+     */
+    public boolean isChunked() {
+        return chunkedGrid != null;
+    }
+
+    /**
+     * Retrieves the chunk storage of a chunked grid.
+     * @return the chunked grid, or null if the grid is dense
      */
-    public Element[][] getElementGrid() {
-        return elementGrid;
+    public ChunkedGrid getChunkedGrid() {
+        return chunkedGrid;
     }
 
     /**
@@ -258,17 +403,188 @@ public class GridManager {
      * @return the Element at the specified position
      */
     public Element getElement(int row, int col) {
+        if (chunkedGrid != null) {
+            return chunkedGrid.get(row, col);
+        }
         return elementGrid[row][col];
     }
 
     /**
      * Sets an element at the specified position in the grid.
+     * Every write to the grid goes through here, and outside of loading
+     * each one that changes the cell is recorded in the tick's journal.
+     * The grid's Zobrist hash is updated here too.
      * @param row     the row position of the element
      * @param col     the column position of the element
      * @param element the Element to set at the specified position
      */
     public void setElement(int row, int col, Element element) {
-        elementGrid[row][col] = element;
+        int cell = row * columns + col;
+        if (loading) {
+            // Every cell is loaded exactly once, onto a hash that was reset to zero
+            gridHash ^= element == null ? 0 : ZobristKeys.cellKey(cell, element.getKind());
+        } else {
+            Element previous = getElement(row, col);
+            if (previous != element) {
+                journal.record(cell, previous, element);
+                ElementKind oldKind = previous == null ? null : previous.getKind();
+                ElementKind newKind = element == null ? null : element.getKind();
+                if (oldKind != newKind) {
+                    gridHash ^= (oldKind == null ? 0 : ZobristKeys.cellKey(cell, oldKind))
+                            ^ (newKind == null ? 0 : ZobristKeys.cellKey(cell, newKind));
+                    if (connectivity != null) {
+                        connectivity.cellChanged(row, col, oldKind, newKind);
+                    }
+                    boolean flyEnterable = Element.has(element, ElementKind.FLY_ENTERABLE);
+                    if (flyPassability != null && Element.has(previous, ElementKind.FLY_ENTERABLE) != flyEnterable) {
+                        flyPassability.cellChanged(row, col, flyEnterable);
+                    }
+                    if (sectorGraph != null && Element.has(previous, ElementKind.OPEN_GROUND)
+                            != Element.has(element, ElementKind.OPEN_GROUND)) {
+                        sectorGraph.cellChanged(row, col);
+                    }
+                }
+            }
+        }
+        if (chunkedGrid != null) {
+            chunkedGrid.set(row, col, element, element == sharedDirt
+                    || element == sharedNormalWall || element == sharedTitaniumWall);
+        } else {
+            elementGrid[row][col] = element;
+        }
+    }
+
+    /**
+     * Runs a change to the grid while holding the write lock, so that readers
+     * using read never see it half done. Only the simulation thread writes,
+     * and the lock is not reentrant, so a write must not start another write.
+     * @param mutation the change to make, such as one tick.
+     */
+    public void write(Runnable mutation) {
+        long stamp = lock.writeLock();
+        try {
+            mutation.run();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Reads the grid from another thread, blocking the simulation as little as possible.
+     * The reader runs optimistically and its result is only returned if no write
+     * happened meanwhile; otherwise it is thrown away and the reader runs again.
+     * After OPTIMISTIC_READ_ATTEMPTS runs are thrown away, as happens when a read
+     * takes longer than the gap between writes, it runs once more under the read
+     * lock, holding up the next write until it is done. The reader may therefore
+     * run more than once, may see a torn grid on the runs that are thrown away,
+     * and must not change anything.
+     * @param reader reads what it needs from the grid.
+     * @param <T> the type of the result.
+     * @return the result of a run that saw the grid between two writes.
+     */
+    public <T> T read(Function<GridManager, T> reader) {
+        for (int attempt = 0; attempt < OPTIMISTIC_READ_ATTEMPTS; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                try {
+                    T result = reader.apply(this);
+                    if (lock.validate(stamp)) {
+                        return result;
+                    }
+                } catch (RuntimeException e) {
+                    // A read racing a write can fail in any number of ways; only a validated failure is real
+                    if (lock.validate(stamp)) {
+                        throw e;
+                    }
+                }
+            }
+            Thread.onSpinWait();
+        }
+        long stamp = lock.readLock();
+        try {
+            return reader.apply(this);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Retrieves the Zobrist hash of the kinds of element in every cell, which is kept
+     * up to date by every write. Two grids with the same kinds in the same cells
+     * have the same hash, whichever run or engine produced them.
+     * @return the 64-bit hash of the tile grid.
+     */
+    public long getGridHash() {
+        return gridHash;
+    }
+
+    /**
+     * Retrieves a hash of the whole game state: the tile grid, which includes where
+     * the player is, plus the player's diamond count and keys. Costs one step per
+     * key held rather than a scan of the grid, so it can be compared every tick.
+     * @return the 64-bit hash of the game state.
+     */
+    public long getStateHash() {
+        long hash = gridHash;
+        if (player != null) {
+            hash ^= ZobristKeys.diamondKey(player.getDiamondCount());
+            long inventory = 0;
+            ArrayList<KeyColour> keys = player.getKeyInventory();
+            for (int i = 0; i < keys.size(); i++) {
+                inventory += ZobristKeys.inventoryKey(keys.get(i));
+            }
+            hash ^= inventory;
+        }
+        return hash;
+    }
+
+    /**
+     * Works out the grid's Zobrist hash from scratch by scanning every cell.
+     * Should always equal getGridHash; useful for checking the incremental updates.
+     * @return the 64-bit hash of the tile grid.
+     */
+    public long computeGridHash() {
+        long hash = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                Element element = getElement(row, col);
+                if (element != null) {
+                    hash ^= ZobristKeys.cellKey(row * columns + col, element.getKind());
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Registers a listener to be told which cells changed, once per tick.
+     * Loading a level is not journaled, so listeners should read the whole grid after a load.
+     * @param listener the listener to add.
+     */
+    public void addChangeListener(GridChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Unregisters a change listener.
+     * @param listener the listener to remove.
+     */
+    public void removeChangeListener(GridChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Hands the changes recorded since the last call to every listener as one batch,
+     * then empties the journal. Does nothing if no cell changed.
+     */
+    public void publishChanges() {
+        if (journal.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < changeListeners.size(); i++) {
+            changeListeners.get(i).gridChanged(this, journal);
+        }
+        journal.clear();
     }
 
     /**
@@ -278,9 +594,131 @@ public class GridManager {
      * @param col the column position of the element to remove
      */
     public void removeElement(int row, int col) {
-        removeFromList(elementGrid[row][col]);
-        Path p = new Path(row, col);
-        elementGrid[row][col] = p;
+        removeFromList(getElement(row, col));
+        setElement(row, col, getPath(row, col));
+    }
+
+    /**
+     * Retrieves the Path tile for the specified position in the grid.
+     * Paths carry no state of their own, so each cell reuses a single
+     * Path instead of allocating a new one every time something moves.
+     * @param row the row position of the path
+     * @param col the column position of the path
+     * @return the Path belonging to that cell
+     */
+    public Path getPath(int row, int col) {
+        if (chunkedGrid != null) {
+            return chunkedGrid.getPath(row, col);
+        }
+        Path path = pathCache[row][col];
+        if (path == null) {
+            path = new Path(row, col);
+            pathCache[row][col] = path;
+        }
+        return path;
+    }
+
+    /**
+     * Retrieves the calling thread's pathfinder for frogs chasing the player.
+     * Each thread gets its own search buffers, so frogs can search in parallel.
+     * @return the frog pathfinder
+     */
+    public FrogPathfinder getFrogPathfinder() {
+        int slot = 0;
+        if (Thread.currentThread() instanceof ForkJoinWorkerThread worker
+                && worker.getPool() == ForkJoinPool.commonPool()) {
+            slot = 1 + worker.getPoolIndex();
+        }
+        FrogPathfinder[] pathfinders = frogPathfinders;
+        if (slot < pathfinders.length && pathfinders[slot] != null) {
+            return pathfinders[slot];
+        }
+        return createFrogPathfinder(slot);
+    }
+
+    /**
+     * Makes the pathfinder for a slot the first time its thread searches this grid.
+     * @param slot the calling thread's slot.
+     * @return the slot's pathfinder.
+     */
+    private synchronized FrogPathfinder createFrogPathfinder(int slot) {
+        FrogPathfinder[] pathfinders = Arrays.copyOf(frogPathfinders, Math.max(frogPathfinders.length, slot + 1));
+        if (pathfinders[slot] == null) {
+            pathfinders[slot] = new FrogPathfinder();
+        }
+        frogPathfinders = pathfinders;
+        return pathfinders[slot];
+    }
+
+    /**
+     * Drops every thread's pathfinder, and with them search buffers sized to the old grid.
+     */
+    private synchronized void releaseFrogPathfinders() {
+        frogPathfinders = new FrogPathfinder[frogPathfinders.length];
+    }
+
+    /**
+     * Retrieves the labels of the regions frogs can move through.
+     * @return the connectivity labels, or null for a chunked grid, which is not labelled.
+     */
+    public Connectivity getConnectivity() {
+        return connectivity;
+    }
+
+    /**
+     * Retrieves which of a cell's four neighbours a fly could move into.
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     * @return the mask, with bit d set if a fly there could move in Fly direction d.
+     */
+    public int getFlyMask(int row, int col) {
+        return flyPassability != null ? flyPassability.getMask(row, col)
+                : FlyPassability.computeMask(this, row, col);
+    }
+
+    /**
+     * Counts the cells whose kept fly mask differs from one worked out afresh.
+     * Should always be zero; useful for checking the incremental updates.
+     * @return the number of stale masks, always zero for a chunked grid, which keeps none.
+     */
+    public int countStaleFlyMasks() {
+        return flyPassability != null ? flyPassability.countStaleMasks() : 0;
+    }
+
+    /**
+     * Turns hierarchical pathfinding for frogs on or off. Meant for very large caves,
+     * where a full search per frog would cover much of the map; frogs then follow
+     * near shortest paths rather than shortest ones. Off by default on dense grids,
+     * and always on for chunked grids, whose search buffers would need an entry per cell.
+     * Must not be called while a tick is running.
+     * @param enabled true to search the sector graph, false to search the grid itself.
+     * @throws IllegalArgumentException if turned off for a chunked grid.
+     */
+    public void setSectorPathfinding(boolean enabled) {
+        if (!enabled && chunkedGrid != null) {
+            throw new IllegalArgumentException("Chunked grids always use sector pathfinding");
+        }
+        if (enabled && sectorGraph == null) {
+            sectorGraph = new SectorGraph(this);
+        } else if (!enabled) {
+            sectorGraph = null;
+        }
+    }
+
+    /**
+     * Retrieves the sector graph frogs search when hierarchical pathfinding is on.
+     * @return the sector graph, or null if frogs search the grid itself.
+     */
+    public SectorGraph getSectorGraph() {
+        return sectorGraph;
+    }
+
+    /**
+     * Retrieves the source of randomness used by elements in this grid.
+     * @return the grid's Random
+     */
+    public Random getRandom() {
+        return random;
     }
 
     /**
@@ -300,18 +738,18 @@ public class GridManager {
     }
 
     /**
-     * Retrieves the list of Butterfly and Fireflies elements in the grid.
-     * @return the ArrayList of Butterfly and Fireflies elements
+     * Retrieves the store of Butterfly and Fireflies elements in the grid.
+     * @return the EnemyStore of Butterfly and Fireflies elements
      */
-    public ArrayList<Fly> getFlies() {
+    public EnemyStore<Fly> getFlies() {
         return flies;
     }
 
     /**
-     * Retrieves the list of Frog elements in the grid.
-     * @return the ArrayList of Frog elements
+     * Retrieves the store of Frog elements in the grid.
+     * @return the EnemyStore of Frog elements
      */
-    public ArrayList<Frog> getFrogs() {
+    public EnemyStore<Frog> getFrogs() {
         return frogs;
     }
 
@@ -336,8 +774,15 @@ public class GridManager {
      */
     public void killPlayer() {
         removeFromList(player);
-        Path path = new Path(player.getRow(), player.getColumn());
-        elementGrid[player.row][player.column] = path;
+        setElement(player.getRow(), player.getColumn(), getPath(player.getRow(), player.getColumn()));
+    }
+
+    /**
+     * Retrieves the state of this game that does not belong to any single element.
+     * @return the game context
+     */
+    public GameContext getContext() {
+        return context;
     }
 
     /**
@@ -350,48 +795,61 @@ public class GridManager {
     }
     /**
      * Identifies all the groups of connected amoebas in the grid and
-     * stores them in the local list and the global manager.
+     * stores them in the grid's list of groups.
+     * Only the amoebas themselves are visited, so this does not depend on the size of the grid.
      */
     private void identifyAmoebaGroups() {
-        boolean[][] visited = new boolean[elementGrid.length][elementGrid[0].length];
-        AmoebaManager.clearGroups(); // Clear previous groups
-
-        for (int row = 0; row < elementGrid.length; row++) {
-            for (int col = 0; col < elementGrid[row].length; col++) {
-                if (elementGrid[row][col] instanceof Amoeba && !visited[row][col]) {
-                    // Start a new group if an unvisited amoeba is found
-                    AmoebaGroup group = new AmoebaGroup();
-                    exploreAmoebaGroup(row, col, group, visited);
-                    amoebaGroups.add(group); // Add to the local list
-                    AmoebaManager.addAmoebaGroup(group); // Add to the global manager
-                }
+        HashSet<Amoeba> visited = new HashSet<>();
+
+        for (Amoeba amoeba : amoebas) {
+            if (!visited.contains(amoeba)) {
+                // Start a new group if an unvisited amoeba is found
+                AmoebaGroup group = new AmoebaGroup();
+                exploreAmoebaGroup(amoeba, group, visited);
+                amoebaGroups.add(group);
             }
         }
     }
 
     /**
-     * Explores a group of connected amoebas by performing a depth-first search.
+     * Explores a group of connected amoebas by flood filling outwards from one of them.
+     * @param start the amoeba to start exploring from
+     * @param group the group of amoebas to add to
+     * @param visited the amoebas that already belong to a group
+     */
+    private void exploreAmoebaGroup(Amoeba start, AmoebaGroup group, HashSet<Amoeba> visited) {
+        ArrayDeque<Amoeba> toExplore = new ArrayDeque<>();
+        visited.add(start);
+        toExplore.add(start);
+        while (!toExplore.isEmpty()) {
+            Amoeba amoeba = toExplore.poll();
+            group.addAmoeba(amoeba);
+
+            // Explore all four directions
+            int row = amoeba.getRow();
+            int col = amoeba.getColumn();
+            exploreNeighbour(row - 1, col, toExplore, visited); // Up
+            exploreNeighbour(row + 1, col, toExplore, visited); // Down
+            exploreNeighbour(row, col - 1, toExplore, visited); // Left
+            exploreNeighbour(row, col + 1, toExplore, visited); // Right
+        }
+    }
+
+    /**
+     * Queues the amoeba at a neighbouring cell for exploration, if there is an unvisited one.
      * @param row the row of the cell to explore
      * @param col the column of the cell to explore
-     * @param group the group of amoebas to add to
-     * @param visited a 2D boolean array to mark visited cells
+     * @param toExplore the amoebas waiting to be explored
+     * @param visited the amoebas that already belong to a group
      */
-    private void exploreAmoebaGroup(int row, int col, AmoebaGroup group, boolean[][] visited) {
+    private void exploreNeighbour(int row, int col, ArrayDeque<Amoeba> toExplore, HashSet<Amoeba> visited) {
         // Boundary check
-        if (row < 0 || row >= elementGrid.length || col < 0 || col >= elementGrid[0].length) return;
-
-        // Check if the cell is already visited or not an amoeba
-        if (visited[row][col] || !(elementGrid[row][col] instanceof Amoeba amoeba)) return;
+        if (!isInBounds(row, col)) return;
 
-        // Mark the cell as visited and add the amoeba to the group
-        visited[row][col] = true;
-        group.addAmoeba(amoeba);
-
-        // Explore all four directions
-        exploreAmoebaGroup(row - 1, col, group, visited); // Up
-        exploreAmoebaGroup(row + 1, col, group, visited); // Down
-        exploreAmoebaGroup(row, col - 1, group, visited); // Left
-        exploreAmoebaGroup(row, col + 1, group, visited); // Right
+        // Check if the cell is an amoeba that has not been visited yet
+        if (getElement(row, col) instanceof Amoeba amoeba && visited.add(amoeba)) {
+            toExplore.add(amoeba);
+        }
     }
 
 }
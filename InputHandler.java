@@ -1,34 +1,22 @@
-import javafx.scene.input.KeyCode;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * InputHandler processes and manages player inputs in the game.
  * It tracks the most recent input and provides mechanisms to consume and check for pending inputs.
+ * Inputs are registered on the JavaFX Application Thread and consumed on the
+ * simulation thread, so the pending input is held in an atomic reference.
  * @author Omar Sanad
  * @author Alex Vesely
  */
 public class InputHandler {
-    private boolean isInputPending;
-    private GameController.PlayerInput currentInput;
+    private final AtomicReference<GameController.PlayerInput> pendingInput = new AtomicReference<>();
 
     /**
-     * Registers a key press and maps it to a corresponding player input.
-     * @param code the KeyCode representing the player's input
+     * Registers a player input, replacing any input that has not been consumed yet.
+     * @param input the player's input, or null to clear the pending input
      */
-    public void registerInput(KeyCode code) {
-
-        switch (code) {
-            case UP -> currentInput = GameController.PlayerInput.UP;
-            case DOWN -> currentInput = GameController.PlayerInput.DOWN;
-            case LEFT -> currentInput = GameController.PlayerInput.LEFT;
-            case RIGHT -> currentInput = GameController.PlayerInput.RIGHT;
-            default -> {
-                currentInput = null; // Reset or handle invalid input
-                isInputPending = false; // No valid input is pending
-            }
-        }
-        if (currentInput != null) {
-            isInputPending = true;
-        }
+    public void registerInput(GameController.PlayerInput input) {
+        pendingInput.set(input);
     }
 
 
@@ -37,7 +25,7 @@ public class InputHandler {
      * @return true if there is an input waiting to be consumed, false otherwise
      */
     public boolean isInputPending() {
-        return isInputPending;
+        return pendingInput.get() != null;
     }
 
     /**
@@ -46,10 +34,6 @@ public class InputHandler {
      * @return the current player input if available, or {@code null} if no input is pending
      */
     public GameController.PlayerInput consumeInput() {
-        if (isInputPending) {
-            isInputPending = false;
-            return currentInput;
-        }
-        return null;
+        return pendingInput.getAndSet(null);
     }
 }
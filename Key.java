@@ -1,5 +1,3 @@
-import javafx.scene.image.Image;
-
 /**
  * Represents a Key tile in the game.
  * This tile can be entered/walked over and is
@@ -10,6 +8,14 @@ public class Key extends Element {
     /**
      * The colour of the key.
      */
+    private static final int[] SPRITES = {
+            Sprites.index("images/red-key.png"),
+            Sprites.index("images/green-key.png"),
+            Sprites.index("images/yellow-key.png"),
+            Sprites.index("images/blue-key.png"),
+            Sprites.index("images/rainbow-key.png")
+    };
+
     private final KeyColour colour;
 
     /**
@@ -20,19 +26,26 @@ public class Key extends Element {
      * @param colour the colour of the key
      */
     public Key(final int row, final int column, final KeyColour colour) {
-        super(row, column);
+        super(ElementKind.KEY, row, column);
         this.colour = colour;
-        canBeEntered = true;
-        name = colour + "Key";
-        canExplode = true;
+    }
 
-        switch (colour) {
-            case RED -> image = new Image("images/red-key.png");
-            case GREEN -> image = new Image("images/green-key.png");
-            case YELLOW -> image = new Image("images/yellow-key.png");
-            case BLUE -> image = new Image("images/blue-key.png");
-            case RAINBOW -> image = new Image("images/rainbow-key.png");
-        }
+    /**
+     * Retrieves the name of the key, which includes its colour.
+     * @return the colour followed by "Key".
+     */
+    @Override
+    public String getName() {
+        return colour + "Key";
+    }
+
+    /**
+     * Retrieves the sprite of the key, which depends on its colour.
+     * @return the index of the key's sprite.
+     */
+    @Override
+    public int getSprite() {
+        return SPRITES[colour.ordinal()];
     }
 
     /**
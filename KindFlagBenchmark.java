@@ -0,0 +1,136 @@
+import java.util.Random;
+
+/**
+ * Measures the rules that ask an element's kind for a flag rather than running a
+ * chain of instanceof checks: rocks falling and rolling, flies moving, amoeba
+ * spreading and the player moving. It loads a level headless and times each of
+ * those ticks on its own, on fresh copies of the level, so running it against a
+ * build from before ElementKind had flags and against a build after shows what
+ * the flags changed on the paths that use them.
+ * It first puts each rule's question to every cell of the grid both ways, by flag
+ * and by the instanceof chain the rule used before, to check the two agree.
+ * Run it from the command line; it exits with status 1 if they ever disagree.
+ * @author Alex Vesely
+ */
+public class KindFlagBenchmark {
+    private static final int DEFAULT_TICKS = 2000;
+    private static final int BATCHES = 5;
+    private static final int SEED = 7;
+    private static final double NANOS_PER_MICRO = 1_000.0;
+    private static final int[] FLAGS = {
+            ElementKind.CRUSHABLE, ElementKind.ROLLABLE_OFF, ElementKind.FLY_ENTERABLE,
+            ElementKind.AMOEBA_GROWABLE, ElementKind.PLAYER_ENTERABLE
+    };
+    private static final String[] FLAG_NAMES = {
+            "CRUSHABLE", "ROLLABLE_OFF", "FLY_ENTERABLE", "AMOEBA_GROWABLE", "PLAYER_ENTERABLE"
+    };
+    private static final String[] TICK_NAMES = {
+            "rock fall", "rock roll", "fly", "amoeba", "player"
+    };
+
+    /**
+     * Runs the benchmark on a level.
+     * @param args the level file, then optionally the number of ticks to time per batch.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: KindFlagBenchmark levelFile [ticks]");
+            return;
+        }
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TICKS;
+        LevelData level = FileHandler.readLevelData(args[0]);
+        if (!flagsAgree(level.createGame(SEED).getGridManager())) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+
+        for (int batch = 0; batch < BATCHES; batch++) {
+            StringBuilder line = new StringBuilder();
+            for (int rule = 0; rule < TICK_NAMES.length; rule++) {
+                double nanos = timeTicks(level.createGame(SEED), rule, ticks);
+                line.append(String.format("%s %.1f us  ", TICK_NAMES[rule], nanos / NANOS_PER_MICRO / ticks));
+            }
+            System.out.println(line.toString().trim());
+        }
+    }
+
+    /**
+     * Runs one rule's tick many times over on a game, feeding the player random moves
+     * for the player's tick.
+     * @param gameController a fresh game.
+     * @param rule the index of the tick in TICK_NAMES.
+     * @param ticks the number of ticks to run.
+     * @return the wall-clock time the ticks took, in nanoseconds.
+     */
+    private static long timeTicks(GameController gameController, int rule, int ticks) {
+        GameController.PlayerInput[] directions = GameController.PlayerInput.values();
+        Random inputs = new Random(SEED);
+        long start = System.nanoTime();
+        for (int i = 0; i < ticks; i++) {
+            switch (rule) {
+                case 0:
+                    gameController.dangerousRockFallTick();
+                    break;
+                case 1:
+                    gameController.dangerousRockRollTick();
+                    break;
+                case 2:
+                    gameController.flyTick();
+                    break;
+                case 3:
+                    gameController.amoebaTick();
+                    break;
+                default:
+                    gameController.registerInput(directions[inputs.nextInt(directions.length)]);
+                    gameController.playerTick();
+                    break;
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Puts each rule's question to every cell of a grid, by flag and by instanceof chain.
+     * @param gridManager the grid.
+     * @return true if the two ways always agree, false otherwise.
+     */
+    private static boolean flagsAgree(GridManager gridManager) {
+        for (int row = 0; row < gridManager.getRows(); row++) {
+            for (int col = 0; col < gridManager.getColumns(); col++) {
+                Element cell = gridManager.getElement(row, col);
+                for (int rule = 0; rule < FLAGS.length; rule++) {
+                    if (cell.getKind().has(FLAGS[rule]) != askByType(cell, rule)) {
+                        System.out.println(cell.getName() + " is " + FLAG_NAMES[rule] + " by its kind "
+                                + cell.getKind().has(FLAGS[rule]) + " but by its type " + askByType(cell, rule));
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Answers a rule's question about an element with the instanceof checks the
+     * rule made before ElementKind had flags.
+     * @param element the element to ask about.
+     * @param rule the index of the rule's flag in FLAGS.
+     * @return true if the rule would have treated the element as having the flag.
+     */
+    private static boolean askByType(Element element, int rule) {
+        switch (rule) {
+            case 0: // DangerousRock.fall, what a falling rock crushes
+                return element instanceof Player || element instanceof Frog || element instanceof Fly;
+            case 1: // DangerousRock.roll, what a rock rolls off
+                return element instanceof Boulder || element instanceof Diamond
+                        || element instanceof NormalWall || element instanceof TitaniumWall;
+            case 2: // Fly.isValidMove
+                return element instanceof Path || element instanceof Player || element instanceof Amoeba;
+            case 3: // AmoebaGroup.spread
+                return element instanceof Dirt || element instanceof Path
+                        || element instanceof Butterfly || element instanceof Firefly;
+            default: // Player.isValidMove
+                return element instanceof Dirt || element instanceof Path;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Counts latencies in log-linear buckets: every power of two is split into
+ * sixteen equal buckets, so any percentile is reported to within about 6%
+ * while the histogram stays a fixed-size array no matter how many values it holds.
+ * Not thread-safe: each thread records into its own histogram and they are merged afterwards.
+ * @author Alex Vesely
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long totalNanos;
+    private long maxNanos;
+
+    /**
+     * Records one latency.
+     * @param nanos the latency, in nanoseconds.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[bucketOf(value)]++;
+        totalCount++;
+        totalNanos += value;
+        maxNanos = Math.max(maxNanos, value);
+    }
+
+    /**
+     * Adds every latency recorded by another histogram to this one.
+     * @param other the histogram to merge in.
+     */
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        totalNanos += other.totalNanos;
+        maxNanos = Math.max(maxNanos, other.maxNanos);
+    }
+
+    /**
+     * Finds the latency below which the given share of recorded latencies fall.
+     * The upper edge of the bucket is reported, so the figure never flatters.
+     * @param percentile the percentile, from 0 to 100.
+     * @return the latency at that percentile, in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(totalCount * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(upperEdgeOf(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    /**
+     * Retrieves the number of latencies recorded.
+     * @return the count.
+     */
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * Retrieves the mean of the recorded latencies.
+     * @return the mean latency, in nanoseconds, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) totalNanos / totalCount;
+    }
+
+    /**
+     * Retrieves the largest latency recorded.
+     * @return the maximum latency, in nanoseconds.
+     */
+    public long getMax() {
+        return maxNanos;
+    }
+
+    /**
+     * Works out which bucket a latency is counted in.
+     * Values below SUB_BUCKETS get a bucket each; above that, the top
+     * SUB_BUCKET_BITS + 1 bits of the value pick the bucket.
+     * @param value the latency, in nanoseconds.
+     * @return the bucket index.
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * Works out the largest latency counted in a bucket.
+     * @param bucket the bucket index.
+     * @return the upper edge of the bucket, in nanoseconds.
+     */
+    private static long upperEdgeOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = SUB_BUCKETS + bucket % SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
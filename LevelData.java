@@ -0,0 +1,93 @@
+import java.util.ArrayList;
+
+/**
+ * Everything a level file holds, read once so that any number of games can be
+ * started from it without going back to the file.
+ * @author Alex Vesely
+ */
+public class LevelData {
+    private final String[][] gridTemplate;
+    private final int seconds;
+    private final int diamondsCollected;
+    private final int diamondsRequired;
+    private final int amoebaGrowthRate;
+    private final int amoebaSizeLimit;
+    private final ArrayList<KeyColour> keyInventory;
+
+    /**
+     * Creates the data of a level.
+     * @param gridTemplate the element codes of the grid, row by row.
+     * @param seconds the time limit, in seconds.
+     * @param diamondsCollected the diamonds the player starts with.
+     * @param diamondsRequired the diamonds needed to open the exit.
+     * @param amoebaGrowthRate the amoeba tick period in milliseconds.
+     * @param amoebaSizeLimit the size at which amoeba groups stop growing.
+     * @param keyInventory the keys the player starts with.
+     */
+    public LevelData(String[][] gridTemplate, int seconds, int diamondsCollected, int diamondsRequired,
+                     int amoebaGrowthRate, int amoebaSizeLimit, ArrayList<KeyColour> keyInventory) {
+        this.gridTemplate = gridTemplate;
+        this.seconds = seconds;
+        this.diamondsCollected = diamondsCollected;
+        this.diamondsRequired = diamondsRequired;
+        this.amoebaGrowthRate = amoebaGrowthRate;
+        this.amoebaSizeLimit = amoebaSizeLimit;
+        this.keyInventory = keyInventory;
+    }
+
+    /**
+     * Starts a new game of this level.
+     * @param seed the seed for the game's randomness.
+     * @return a game controller for a freshly loaded grid.
+     */
+    public GameController createGame(long seed) {
+        GridManager gridManager = new GridManager(gridTemplate);
+        gridManager.getRandom().setSeed(seed);
+        GameController gameController = new GameController(gridManager);
+        gameController.setDiamondsRequired(diamondsRequired);
+        gameController.getPlayer().setDiamondCount(diamondsCollected);
+        gameController.getPlayer().setKeyInventory(new ArrayList<>(keyInventory));
+        gameController.setAmoebaLimit(amoebaSizeLimit);
+        return gameController;
+    }
+
+    /**
+     * Retrieves the number of rows in the grid.
+     * @return the grid height.
+     */
+    public int getRows() {
+        return gridTemplate.length;
+    }
+
+    /**
+     * Retrieves the number of columns in the grid.
+     * @return the grid width.
+     */
+    public int getColumns() {
+        return gridTemplate[0].length;
+    }
+
+    /**
+     * Retrieves the time limit of the level.
+     * @return the time limit, in seconds.
+     */
+    public int getSeconds() {
+        return seconds;
+    }
+
+    /**
+     * Retrieves the diamonds the player starts with.
+     * @return the diamonds already collected.
+     */
+    public int getDiamondsCollected() {
+        return diamondsCollected;
+    }
+
+    /**
+     * Retrieves the amoeba growth rate.
+     * @return the amoeba tick period in milliseconds.
+     */
+    public int getAmoebaGrowthRate() {
+        return amoebaGrowthRate;
+    }
+}
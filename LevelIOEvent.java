@@ -0,0 +1,27 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event emitted when a level is loaded or a game is saved.
+ * @author Alex Vesely
+ */
+@Name("boulderdash.LevelIO")
+@Label("Level Load/Save")
+@Category({"Boulder Dash", "I/O"})
+@Description("Reading a level file or writing a save file")
+public class LevelIOEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    @Description("Either load or save")
+    String operation;
+
+    @Label("File Name")
+    String fileName;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
@@ -1,5 +1,3 @@
-import javafx.scene.image.Image;
-
 /**
  * Represents a Locked Door tile in the game.
  * This tile cannot be entered until it is unlocked.
@@ -10,7 +8,16 @@ public class LockedDoor extends Element {
     /**
      * The colour of the key required to unlock this door.
      */
+    private static final int[] SPRITES = {
+            Sprites.index("images/red-locked-door.png"),
+            Sprites.index("images/green-locked-door.png"),
+            Sprites.index("images/yellow-locked-door.png"),
+            Sprites.index("images/blue-locked-door.png"),
+            Sprites.NO_SPRITE
+    };
+
     private final KeyColour colour;
+    private boolean unlocked;
 
     /**
      * Creates a new Locked Door tile at the specified
@@ -20,18 +27,35 @@ public class LockedDoor extends Element {
      * @param colour the colour of the key required to unlock the door
      */
     public LockedDoor(final int row, final int column, final KeyColour colour) {
-        super(row, column);
+        super(ElementKind.LOCKED_DOOR, row, column);
         this.colour = colour;
-        canBeEntered = false;
-        name = colour + "LockedDoor";
-        canExplode = true;
+    }
+
+    /**
+     * Retrieves the name of the door, which includes its colour.
+     * @return the colour followed by "LockedDoor".
+     */
+    @Override
+    public String getName() {
+        return colour + "LockedDoor";
+    }
 
-        switch (colour) {
-            case RED -> image = new Image("images/red-locked-door.png");
-            case GREEN -> image = new Image("images/green-locked-door.png");
-            case YELLOW -> image = new Image("images/yellow-locked-door.png");
-            case BLUE -> image = new Image("images/blue-locked-door.png");
-        }
+    /**
+     * Retrieves the sprite of the door, which depends on its colour.
+     * @return the index of the door's sprite.
+     */
+    @Override
+    public int getSprite() {
+        return SPRITES[colour.ordinal()];
+    }
+
+    /**
+     * Checks whether the player can walk through the door, which is only once it is unlocked.
+     * @return true if the door is unlocked, false otherwise.
+     */
+    @Override
+    public boolean isCanBeEntered() {
+        return unlocked;
     }
 
     /**
@@ -46,6 +70,6 @@ public class LockedDoor extends Element {
      * Unlocks the door, allowing it to be entered/walked over.
      */
     public void unlock() {
-        this.canBeEntered = true;
+        this.unlocked = true;
     }
 }
@@ -1,5 +1,3 @@
-import javafx.scene.image.Image;
-
 /**
  * Represents a Magic Wall tile in the game.
  * This tile cannot be entered/walked over but can explode.
@@ -15,11 +13,7 @@ public class MagicWall extends Element {
      * @param column the column (Y co-ord) position of the tile
      */
     public MagicWall(final int row, final int column) {
-        super(row, column);
-        image = new Image("images/magic-wall.png");
-        canBeEntered = false;
-        canExplode = true;
-        name = "MagicWall";
+        super(ElementKind.MAGIC_WALL, row, column);
     }
 
     /**
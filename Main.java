@@ -11,6 +11,7 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
@@ -21,6 +22,8 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 
@@ -36,6 +39,9 @@ public class Main extends Application {
 	public static final int WINDOW_HEIGHT = 800;
 	public static final int GRID_CELL_WIDTH = 30;
 	public static final int GRID_CELL_HEIGHT = 30;
+	public static final int TOOLBAR_HEIGHT = 50;
+	public static final int VIEWPORT_WIDTH = WINDOW_WIDTH;
+	public static final int VIEWPORT_HEIGHT = WINDOW_HEIGHT - TOOLBAR_HEIGHT;
 
 	public static final int DIAMOND_SCORE_VALUE = 100;
 	public static final int TIME_SCORE_VALUE = 25;
@@ -45,20 +51,19 @@ public class Main extends Application {
 	public static final int PROFILE_SELECTION_H = 200;
 	public static final int HIGH_SCORE_SELECTION_W = 300;
 	public static final int HIGH_SCORE_SELECTION_H = 150;
+	public static final int LAST_LEVEL = 3;
 
 
-	// Timeline for periodic ticks
-	private Timeline playerTickTimeline;
-	private Timeline dangerousRockFallTickTimeline;
-	private Timeline dangerousRockRollTimeline;
-	private Timeline frogTickTimeline;
-	private Timeline amoebaTickTimeline;
-	private Timeline flyTickTimeline;
-	private Timeline killPlayerTickTimeLine;
-	private Timeline explosionTickTimeLine;
+	// Timelines for the toolbar, the game ticks run on the simulation thread
 	private Timeline timerTimeline;
 	private Timeline diamondCountTimeline;
-	private Timeline checkLevelWinTimeline;
+
+	private SimulationLoop simulation;
+	private GameView gameView;
+
+	// The next level is loaded in the background while the current one is played
+	private CompletableFuture<GridManager> preloadedGrid;
+	private String preloadedLevelFile;
 
 	private int secondsRemaining;
 	private ArrayList<PlayerProfile> profiles = new ArrayList<>();
@@ -324,80 +329,80 @@ public class Main extends Application {
 	 * @param levelFile the file of the level being loaded in
 	 */
 	public void setupGame(Stage primaryStage, String levelFile) {
-		String[][] initialGrid = FileHandler.readElementGridFromLevelFile(levelFile);
+		GridManager gridManager = loadGrid(levelFile);
 		int amoebaGrowthRate = FileHandler.readAmoebaGrowthRateFromLevelFile(levelFile); //Read amoeba growth rate
 		secondsRemaining = FileHandler.readSecondsFromLevelFile(levelFile);
 
-		final int canvasWidth = initialGrid[0].length * GRID_CELL_WIDTH;
-		final int canvasHeight = initialGrid.length * GRID_CELL_HEIGHT;
+		// The canvas is a viewport onto the grid, so it never grows beyond the window
+		final int canvasWidth = Math.min(gridManager.getColumns() * GRID_CELL_WIDTH, VIEWPORT_WIDTH);
+		final int canvasHeight = Math.min(gridManager.getRows() * GRID_CELL_HEIGHT, VIEWPORT_HEIGHT);
 
 		Canvas canvas = new Canvas(canvasWidth, canvasHeight);
 
-		GameController gameController = initializeGameController(initialGrid, canvas, levelFile);
+		// Stop the previous level's simulation and drawing, if there was one
+		if (simulation != null) {
+			simulation.stop();
+		}
+		if (gameView != null) {
+			gameView.stop();
+		}
+
+		GameController gameController = initializeGameController(gridManager, levelFile);
+		simulation = new SimulationLoop(gameController, amoebaGrowthRate, canvasWidth, canvasHeight,
+				() -> Platform.runLater(() -> levelCompleted(gameController)),
+				failure -> Platform.runLater(() -> tickFailed(failure)));
+		gameView = new GameView(canvas, simulation);
 
 		Pane root = buildGUI(gameController);
 
 		Scene scene = new Scene(root, WINDOW_WIDTH, WINDOW_HEIGHT);
 		scene.addEventFilter(KeyEvent.KEY_PRESSED, event -> {
-			gameController.registerInput(event.getCode());
+			if (event.getCode() == KeyCode.F3) {
+				gameView.togglePerformanceOverlay();
+			} else {
+				gameController.registerInput(GameView.inputFor(event.getCode()));
+			}
 			event.consume();
 		});
 
-		KeyFrame playerKeyFrame = new KeyFrame(Duration.millis(150), event -> {
-			gameController.playerTick();
-		});
-
-		KeyFrame killPlayerKeyFrame = new KeyFrame(Duration.millis(50), event -> {
-			gameController.killTick();
-		});
-
-		KeyFrame dangerousRocksRollKeyFrame = new KeyFrame(Duration.millis(120), event -> {
-			gameController.dangerousRockRollTick();
-		});
-
-		KeyFrame dangerousRocksFallKeyFrame = new KeyFrame(Duration.millis(100), event -> {
-			gameController.dangerousRockFallTick();
-
-		});
+		simulation.start();
+		gameView.start();
+		preloadNextLevel();
 
-		KeyFrame flyKeyFrame = new KeyFrame(Duration.millis(2000), event -> {
-			gameController.flyTick();
-		});
-
-		KeyFrame frogKeyFrame = new KeyFrame(Duration.millis(2000), event -> {
-			gameController.frogTick();
-		});
-
-		KeyFrame amoebaKeyFrame = new KeyFrame(Duration.millis(amoebaGrowthRate), event -> {
-			gameController.amoebaTick();
-		});
-
-		KeyFrame explosionKeyFrame = new KeyFrame(Duration.millis(1000), event -> {
-			gameController.explosionTick();
-		});
+		primaryStage.setScene(scene);
+		primaryStage.show();
+	}
 
-		KeyFrame checkLevelWinKeyFrame = new KeyFrame(Duration.millis(49), event -> {
-			if (gameController.checkLevelWinTick()) {
-				levelCompleted(gameController);
+	/**
+	 * Retrieves the grid of a level, taking the preloaded copy if it is the level asked for.
+	 * @param levelFile the file of the level being loaded in
+	 * @return the loaded GridManager
+	 */
+	private GridManager loadGrid(String levelFile) {
+		CompletableFuture<GridManager> preloaded = preloadedGrid;
+		preloadedGrid = null;
+		if (preloaded != null && levelFile.equals(preloadedLevelFile)) {
+			try {
+				return preloaded.join();
+			} catch (CompletionException e) {
+				System.out.println("Error preloading level: " + e.getCause().getMessage());
 			}
-		});
-
-		playerTickTimeline = new Timeline(playerKeyFrame);
-		dangerousRockFallTickTimeline = new Timeline(dangerousRocksFallKeyFrame);
-		dangerousRockRollTimeline = new Timeline(dangerousRocksRollKeyFrame);
-		flyTickTimeline = new Timeline(flyKeyFrame);
-		frogTickTimeline = new Timeline(frogKeyFrame);
-		amoebaTickTimeline = new Timeline(amoebaKeyFrame);
-		killPlayerTickTimeLine = new Timeline(killPlayerKeyFrame);
-		explosionTickTimeLine = new Timeline(explosionKeyFrame);
-		checkLevelWinTimeline = new Timeline(checkLevelWinKeyFrame);
-
-		setTimelinesToIndefinite();
-
-		gameController.draw();
+		}
+		return FileHandler.readGridManagerFromLevelFile(levelFile);
+	}
 
-		primaryStage.setScene(scene);
-		primaryStage.show();
+	/**
+	 * Starts loading the level after the player's current one in the background,
+	 * so it is ready as soon as the current level is completed. Every GridManager
+	 * keeps its own game state, so loading one does not disturb the game being played.
+	 */
+	private void preloadNextLevel() {
+		int nextLevel = currentProfile.getMaxLevelReached() + 1;
+		if (nextLevel <= LAST_LEVEL) {
+			String nextLevelFile = "txt/Level" + nextLevel + ".txt";
+			preloadedLevelFile = nextLevelFile;
+			preloadedGrid = CompletableFuture.supplyAsync(() -> FileHandler.readGridManagerFromLevelFile(nextLevelFile));
+		}
 	}
 
 	/**
@@ -409,8 +414,8 @@ public class Main extends Application {
 	private Pane buildGUI(GameController gameController) {
 		BorderPane root = new BorderPane();
 
-		// Add the canvas to the center
-		root.setCenter(gameController.getCanvas());
+		// Add the game layers to the center
+		root.setCenter(gameView.getView());
 
 		// Create a toolbar with buttons
 		HBox toolbar = new HBox(SPACING);
@@ -427,21 +432,37 @@ public class Main extends Application {
 		resetGridButton.setOnAction(e -> {
 			int levelReached = currentProfile.getMaxLevelReached();
 			String levelFile = "txt/Level" + levelReached + ".txt";
-			secondsRemaining = FileHandler.readSecondsFromLevelFile(levelFile);
-			gameController.getPlayer().setDiamondCount(FileHandler.readDiamondsCollectedFromLevelFile(levelFile));
-			gameController.getPlayer().setKeyInventory(FileHandler.readKeyInventoryFromLevelFile(levelFile));
-			String[][] initialGrid = FileHandler.readElementGridFromLevelFile(levelFile);
-			gameController.getGridManager().reinitializeGrid(initialGrid);
-			gameController.getGridManager().initializePlayer(initialGrid);
-			gameController.setAmoebaLimit(FileHandler.readAmoebaSizeLimitFromLevelFile(levelFile));
-			timerText.setText("Time Remaining: " + secondsRemaining + "s");
-			gameController.draw();
+			// The level file is read on the simulation thread, and the clock reset back here
+			simulation.submit(() -> {
+				int levelSeconds = FileHandler.readSecondsFromLevelFile(levelFile);
+				// Reloading creates a new player, so the level's settings are applied afterwards
+				FileHandler.reloadGridFromLevelFile(levelFile, gameController.getGridManager());
+				FileHandler.applyLevelSettings(gameController, levelFile);
+				gameController.requestDraw();
+				Platform.runLater(() -> {
+					secondsRemaining = levelSeconds;
+					timerText.setText("Time Remaining: " + secondsRemaining + "s");
+				});
+			});
 		});
 
 		saveButton.setOnAction(e -> {
-			ArrayList<KeyColour> keyInventory = gameController.getPlayer().getKeyInventory();
-			FileHandler.writeFile(gameController, currentProfile, secondsRemaining, keyInventory);
-			closeGame();
+			// Written on the simulation thread, which owns the grid,
+			// then the window is closed on the JavaFX Application Thread
+			int secondsToSave = secondsRemaining;
+			simulation.submit(() -> {
+				ArrayList<KeyColour> keyInventory = gameController.getPlayer().getKeyInventory();
+				try {
+					FileHandler.writeFile(gameController, currentProfile, secondsToSave, keyInventory);
+				} catch (RuntimeException failure) {
+					Platform.runLater(() -> saveFailed(failure));
+					return;
+				}
+				Platform.runLater(() -> {
+					primaryStage.close();
+					closeGame();
+				});
+			});
 		});
 
 		startTickButton.setOnAction(e -> {
@@ -455,15 +476,7 @@ public class Main extends Application {
 		stopTickButton.setOnAction(e -> {
 			timerTimeline.stop();
 			diamondCountTimeline.stop();
-			playerTickTimeline.stop();
-			dangerousRockRollTimeline.stop();
-			dangerousRockFallTickTimeline.stop();
-			flyTickTimeline.stop();
-			frogTickTimeline.stop();
-			amoebaTickTimeline.stop();
-			killPlayerTickTimeLine.stop();
-			explosionTickTimeLine.stop();
-			checkLevelWinTimeline.stop();
+			simulation.setRunning(false);
 			stopTickButton.setDisable(true);
 			startTickButton.setDisable(false);
 			saveButton.setDisable(false);
@@ -474,23 +487,25 @@ public class Main extends Application {
 			secondsRemaining--;
 			timerText.setText("Time Remaining: " + secondsRemaining + "s");
 			if (secondsRemaining == 0) {
-				gameController.getGridManager().killPlayer();
-				gameController.draw();
+				simulation.submit(() -> {
+					gameController.getGridManager().killPlayer();
+					gameController.requestDraw();
+				});
 				timerTimeline.stop();
 			}
 		}));
 		timerTimeline.setCycleCount(Animation.INDEFINITE);
 
-		int diamondsCollected = gameController.getPlayer().getDiamondCount();
-		int diamondsRequired = FileHandler.readRequiredDiamondsFromLevelFile(
-				"txt/Level" + currentProfile.getMaxLevelReached() + ".txt");
-		Text diamondCountText = new Text("Diamonds Collected: " + diamondsCollected + " / " + diamondsRequired);
+		FrameSnapshot firstFrame = simulation.getLatestFrame();
+		Text diamondCountText = new Text("Diamonds Collected: " + firstFrame.getDiamondsCollected()
+				+ " / " + firstFrame.getDiamondsRequired());
 		diamondCountTimeline = new Timeline(new KeyFrame(Duration.millis(49), event -> {
-			if (gameController.getPlayer() != null) {
+			FrameSnapshot frame = simulation.getLatestFrame();
+			if (frame.hasPlayer()) {
 				diamondCountText.setText("Diamonds collected: "
-						+ gameController.getPlayer().getDiamondCount() + " / " + diamondsRequired);
+						+ frame.getDiamondsCollected() + " / " + frame.getDiamondsRequired());
 			} else {
-				diamondCountText.setText("Diamonds collected: 0 / " + diamondsRequired);
+				diamondCountText.setText("Diamonds collected: 0 / " + frame.getDiamondsRequired());
 			}
 		}));
 		diamondCountTimeline.setCycleCount(Animation.INDEFINITE);
@@ -511,6 +526,34 @@ public class Main extends Application {
 		System.exit(0);
 	}
 
+	/**
+	 * Tells the player the game could not be saved, leaving the game open so
+	 * they can try again or carry on playing.
+	 * @param failure the exception thrown while writing the save file.
+	 */
+	private void saveFailed(RuntimeException failure) {
+		Alert alert = new Alert(Alert.AlertType.ERROR);
+		alert.setTitle("Save Failed");
+		alert.setHeaderText("The game could not be saved");
+		alert.setContentText(failure.toString());
+		alert.show();
+	}
+
+	/**
+	 * Stops the game clocks and tells the player the game has stopped, after a tick
+	 * or a command failed and left the grid in a state that cannot be played on.
+	 * @param failure the exception thrown by the tick.
+	 */
+	private void tickFailed(RuntimeException failure) {
+		timerTimeline.stop();
+		diamondCountTimeline.stop();
+		Alert alert = new Alert(Alert.AlertType.ERROR);
+		alert.setTitle("Game Stopped");
+		alert.setHeaderText("The game has stopped because of an error");
+		alert.setContentText(failure.toString());
+		alert.show();
+	}
+
 	/**
 	 * Handles the completion of the current level.
 	 * Displays High score after level complete.
@@ -519,22 +562,13 @@ public class Main extends Application {
 	 * @param gameController  the gameController managing the game logic and state.
 	 */
 	public void levelCompleted(GameController gameController) {
-		int levelReached = currentProfile.getMaxLevelReached();
-		String levelFile = "txt/Level" + levelReached + ".txt";
-		String[][] initialGrid = FileHandler.readElementGridFromLevelFile(levelFile);
-		int score = calcScore(secondsRemaining, gameController.getPlayer().getDiamondCount());
-		gameController.getGridManager().reinitializeGrid(initialGrid);
-		gameController.getGridManager().initializePlayer(initialGrid);
-
-		playerTickTimeline.stop();
-		killPlayerTickTimeLine.stop();
-		dangerousRockFallTickTimeline.stop();
-		dangerousRockRollTimeline.stop();
-		flyTickTimeline.stop();
-		frogTickTimeline.stop();
-		amoebaTickTimeline.stop();
-		explosionTickTimeLine.stop();
+		// Stopping the simulation first hands the grid back to this thread
+		simulation.stop();
+		gameView.stop();
 		timerTimeline.stop();
+		diamondCountTimeline.stop();
+
+		int score = calcScore(secondsRemaining, gameController.getPlayer().getDiamondCount());
 
 		// Show the high score table for level just beat
 		int currentLevel = currentProfile.getMaxLevelReached();
@@ -546,7 +580,7 @@ public class Main extends Application {
 
 		// Check if there’s a next level
 		int nextLevel = currentLevel + 1;
-		if (nextLevel <= 3) {
+		if (nextLevel <= LAST_LEVEL) {
 			String nextLevelFile = "txt/Level" + nextLevel + ".txt";
 			currentProfile.setMaxLevelReached(nextLevel); // Update player's progress
 			profiles.set(profiles.indexOf(currentProfile), currentProfile); // Update profile list
@@ -578,53 +612,23 @@ public class Main extends Application {
 	}
 
 	/**
-	 * Starts all the timelines.
+	 * Starts the toolbar timelines and the game ticks.
 	 */
 	private void playAllTimelines() {
 		timerTimeline.play();
 		diamondCountTimeline.play();
-		playerTickTimeline.play();
-		dangerousRockFallTickTimeline.play();
-		dangerousRockRollTimeline.play();
-		flyTickTimeline.play();
-		frogTickTimeline.play();
-		amoebaTickTimeline.play();
-		killPlayerTickTimeLine.play();
-		explosionTickTimeLine.play();
-		checkLevelWinTimeline.play();
-	}
-
-	/**
-	 * Sets all the timelines associated with game events to cycle indefinitely.
-	 */
-	private void setTimelinesToIndefinite() {
-		playerTickTimeline.setCycleCount(Animation.INDEFINITE);
-		killPlayerTickTimeLine.setCycleCount(Animation.INDEFINITE);
-		dangerousRockFallTickTimeline.setCycleCount(Animation.INDEFINITE);
-		dangerousRockRollTimeline.setCycleCount(Animation.INDEFINITE);
-		flyTickTimeline.setCycleCount(Animation.INDEFINITE);
-		frogTickTimeline.setCycleCount(Animation.INDEFINITE);
-		amoebaTickTimeline.setCycleCount(Animation.INDEFINITE);
-		timerTimeline.setCycleCount(Animation.INDEFINITE);
-		explosionTickTimeLine.setCycleCount(Animation.INDEFINITE);
-		checkLevelWinTimeline.setCycleCount(Animation.INDEFINITE);
+		simulation.setRunning(true);
 	}
 
 	/**
 	 * Initializes the game controller and sets its properties.
-	 * @param initialGrid the 2D array of the initial state of the game grid.
-	 * @param canvas the canvas used for drawing the game.
+	 * @param gridManager the grid manager holding the loaded level.
 	 * @param levelFile the file containing the level's data.
 	 * @return the GameController with key data set.
 	 */
-	private GameController initializeGameController(String[][] initialGrid, Canvas canvas, String levelFile) {
-		GameController gameController = new GameController(initialGrid, canvas);
-
-		gameController.setDiamondsRequired(FileHandler.readRequiredDiamondsFromLevelFile(levelFile));
-		gameController.getPlayer().setDiamondCount(FileHandler.readDiamondsCollectedFromLevelFile(levelFile));
-		gameController.getPlayer().setKeyInventory(FileHandler.readKeyInventoryFromLevelFile(levelFile));
-		gameController.setAmoebaLimit(FileHandler.readAmoebaSizeLimitFromLevelFile(levelFile));
-
+	private GameController initializeGameController(GridManager gridManager, String levelFile) {
+		GameController gameController = new GameController(gridManager);
+		FileHandler.applyLevelSettings(gameController, levelFile);
 		return gameController;
 	}
 
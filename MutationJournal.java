@@ -0,0 +1,111 @@
+import java.util.Arrays;
+
+/**
+ * Records every cell a GridManager changes during a tick, as a cell index
+ * (row * columns + column) with the kind of element that was there before and
+ * the kind that replaced it. The records are kept in parallel arrays that are
+ * reused from tick to tick, so recording a change allocates nothing once the
+ * arrays have grown to the busiest tick's size. A cell that changes several
+ * times in a tick has one record per change, in the order they happened.
+ * @author Alex Vesely
+ */
+public class MutationJournal {
+    /**
+     * The kind recorded for a cell that held no element.
+     */
+    public static final int NO_KIND = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final ElementKind[] KINDS = ElementKind.values();
+
+    private int[] cells = new int[INITIAL_CAPACITY];
+    private byte[] oldKinds = new byte[INITIAL_CAPACITY];
+    private byte[] newKinds = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Appends a change to the journal.
+     * @param cell the index of the cell that changed.
+     * @param oldElement the element that was in the cell, or null.
+     * @param newElement the element now in the cell, or null.
+     */
+    public void record(int cell, Element oldElement, Element newElement) {
+        if (size == cells.length) {
+            cells = Arrays.copyOf(cells, size * 2);
+            oldKinds = Arrays.copyOf(oldKinds, size * 2);
+            newKinds = Arrays.copyOf(newKinds, size * 2);
+        }
+        cells[size] = cell;
+        oldKinds[size] = kindCodeOf(oldElement);
+        newKinds[size] = kindCodeOf(newElement);
+        size++;
+    }
+
+    /**
+     * Works out the code an element's kind is stored as.
+     * @param element the element, or null.
+     * @return the ordinal of its kind, or NO_KIND for null.
+     */
+    private static byte kindCodeOf(Element element) {
+        return (byte) (element == null ? NO_KIND : element.getKind().ordinal());
+    }
+
+    /**
+     * Empties the journal, keeping its arrays for the next tick.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Retrieves the number of changes recorded.
+     * @return the number of records.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether any changes have been recorded.
+     * @return true if the journal is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Retrieves the cell of a record.
+     * @param index the index of the record, from 0 to size() - 1.
+     * @return the cell index, row * columns + column.
+     */
+    public int getCell(int index) {
+        return cells[index];
+    }
+
+    /**
+     * Retrieves the kind of element a record's cell held before the change.
+     * @param index the index of the record, from 0 to size() - 1.
+     * @return the old kind, or null if the cell was empty.
+     */
+    public ElementKind getOldKind(int index) {
+        return kindOf(oldKinds[index]);
+    }
+
+    /**
+     * Retrieves the kind of element a record's cell holds after the change.
+     * @param index the index of the record, from 0 to size() - 1.
+     * @return the new kind, or null if the cell was emptied.
+     */
+    public ElementKind getNewKind(int index) {
+        return kindOf(newKinds[index]);
+    }
+
+    /**
+     * Turns a stored kind code back into its kind.
+     * @param code the stored code.
+     * @return the kind, or null for NO_KIND.
+     */
+    private static ElementKind kindOf(byte code) {
+        return code == NO_KIND ? null : KINDS[code];
+    }
+}
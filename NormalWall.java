@@ -1,5 +1,3 @@
-import javafx.scene.image.Image;
-
 /**
  * Represents a Normal Wall tile in the game.
  * This tile cannot be entered/walked over but can explode.
@@ -16,11 +14,7 @@ public class NormalWall extends Element {
      * @param column the column (Y co-ord) position of the tile
      */
     public NormalWall(final int row, final int column) {
-        super(row, column);
-        image = new Image("images/normal-wall.png");
-        canBeEntered = false;
-        canExplode = true;
-        name = "NormalWall";
+        super(ElementKind.NORMAL_WALL, row, column);
     }
 
     /**
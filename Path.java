@@ -12,10 +12,7 @@ public class Path extends Element {
      * @param column the column position(y co-ord)  of the tile
      */
     public Path(final int row, final int column) {
-        super(row, column);
-        canExplode = true;
-        canBeEntered = true;
-        name = "Path";
+        super(ElementKind.PATH, row, column);
     }
 
     /**
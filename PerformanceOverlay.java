@@ -0,0 +1,202 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * A toggleable heads-up display drawn on top of the game canvas that shows
+ * frame time, tick cost, render work, entity counts and memory figures.
+ * Measurements are gathered every frame and tick, but the text is only
+ * rebuilt a few times per second so drawing the overlay stays cheap.
+ * Ticks are recorded on the simulation thread and frames on the JavaFX
+ * Application Thread, so recording and rebuilding are synchronized.
+ * @author Alex Vesely
+ */
+public class PerformanceOverlay {
+    private static final long REFRESH_INTERVAL_NANOS = 250_000_000L;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+    private static final int X_OFFSET = 8;
+    private static final int Y_OFFSET = 18;
+    private static final int LINE_HEIGHT = 16;
+    private static final int PANEL_WIDTH = 300;
+    private static final int LINE_COUNT = 8;
+    private static final Color BACKGROUND = Color.rgb(0, 0, 0, 0.6);
+
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final String[] lines = new String[LINE_COUNT];
+    private boolean visible;
+
+    private long windowStart = System.nanoTime();
+    private int framesInWindow;
+    private int drawRequestsInWindow;
+    private long frameNanosInWindow;
+    private int cellsDrawnInWindow;
+    private int ticksInWindow;
+    private long tickNanosInWindow;
+    private long maxTickNanosInWindow;
+    private long allocatedAtWindowStart = -1;
+    private long simulationThreadId = -1;
+
+    /**
+     * Creates a hidden overlay.
+     */
+    public PerformanceOverlay() {
+        lines[0] = "Collecting...";
+    }
+
+    /**
+     * Shows the overlay if hidden, or hides it if shown.
+     */
+    public void toggle() {
+        visible = !visible;
+    }
+
+    /**
+     * Checks whether the overlay is currently shown.
+     * @return true if the overlay is drawn on the canvas, false otherwise.
+     */
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * Sets the thread whose allocations are counted alongside the calling thread's.
+     * @param simulationThread the thread running the game rules.
+     */
+    public void setSimulationThread(Thread simulationThread) {
+        this.simulationThreadId = simulationThread.getId();
+    }
+
+    /**
+     * Records the cost of a single simulation tick.
+     * @param tickNanos how long the tick took, in nanoseconds.
+     */
+    public synchronized void recordTick(long tickNanos) {
+        ticksInWindow++;
+        tickNanosInWindow += tickNanos;
+        maxTickNanosInWindow = Math.max(maxTickNanosInWindow, tickNanos);
+    }
+
+    /**
+     * Records draw requests made by the ticks of one simulation step.
+     * @param requests the number of draw requests.
+     */
+    public synchronized void recordDrawRequests(int requests) {
+        drawRequestsInWindow += requests;
+    }
+
+    /**
+     * Checks whether the overlay is shown and its figures are old enough
+     * to be rebuilt, so the game should be redrawn even if nothing else changed.
+     * @return true if the overlay wants a redraw, false otherwise.
+     */
+    public boolean isRefreshDue() {
+        return visible && System.nanoTime() - windowStart >= REFRESH_INTERVAL_NANOS;
+    }
+
+    /**
+     * Records the cost of rendering a single frame.
+     * @param frameNanos how long the renderer took to draw the frame, in nanoseconds.
+     * @param cellsDrawn the number of grid cells the renderer painted.
+     */
+    public synchronized void recordFrame(long frameNanos, int cellsDrawn) {
+        framesInWindow++;
+        frameNanosInWindow += frameNanos;
+        cellsDrawnInWindow += cellsDrawn;
+    }
+
+    /**
+     * Draws the overlay in the top left corner of the canvas, rebuilding
+     * its text first if the refresh interval has passed.
+     * @param gc the GraphicsContext of the game canvas.
+     * @param frame the frame to read entity counts from.
+     */
+    public void draw(GraphicsContext gc, FrameSnapshot frame) {
+        if (!visible) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (now - windowStart >= REFRESH_INTERVAL_NANOS) {
+            refresh(now, frame);
+        }
+
+        gc.setFill(BACKGROUND);
+        gc.fillRect(0, 0, PANEL_WIDTH, LINE_COUNT * LINE_HEIGHT + X_OFFSET);
+        gc.setFill(Color.WHITE);
+        for (int i = 0; i < LINE_COUNT; i++) {
+            if (lines[i] != null) {
+                gc.fillText(lines[i], X_OFFSET, Y_OFFSET + i * LINE_HEIGHT);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the overlay text from the measurements of the window that just ended,
+     * then starts a new window.
+     * @param now the current time in nanoseconds.
+     * @param frame the frame to read entity counts from.
+     */
+    private synchronized void refresh(long now, FrameSnapshot frame) {
+        double windowSeconds = (now - windowStart) / NANOS_PER_SECOND;
+        double fps = framesInWindow / windowSeconds;
+        double drawRequestsPerSecond = drawRequestsInWindow / windowSeconds;
+        double avgFrameMs = framesInWindow == 0 ? 0 : frameNanosInWindow / NANOS_PER_MILLI / framesInWindow;
+        int avgCells = framesInWindow == 0 ? 0 : cellsDrawnInWindow / framesInWindow;
+        double avgTickMs = ticksInWindow == 0 ? 0 : tickNanosInWindow / NANOS_PER_MILLI / ticksInWindow;
+        double maxTickMs = maxTickNanosInWindow / NANOS_PER_MILLI;
+
+        Runtime runtime = Runtime.getRuntime();
+        long heapUsed = runtime.totalMemory() - runtime.freeMemory();
+
+        long allocated = allocatedBytes();
+        String allocationRate = "n/a";
+        if (allocated >= 0 && allocatedAtWindowStart >= 0) {
+            double megabytesPerSecond = (allocated - allocatedAtWindowStart)
+                    / (double) BYTES_PER_MEGABYTE / windowSeconds;
+            allocationRate = String.format("%.2f MB/s", megabytesPerSecond);
+        }
+
+        lines[0] = String.format("FPS: %.1f  Frame: %.2f ms", fps, avgFrameMs);
+        lines[1] = String.format("Tick: %.3f ms avg, %.3f ms max", avgTickMs, maxTickMs);
+        lines[2] = "Cells redrawn per frame: " + avgCells;
+        lines[3] = "Boulders: " + frame.getBoulderCount()
+                + "  Diamonds: " + frame.getDiamondCount();
+        lines[4] = "Flies: " + frame.getFlyCount()
+                + "  Frogs: " + frame.getFrogCount()
+                + "  Amoebas: " + frame.getAmoebaCount();
+        lines[5] = "Heap used: " + heapUsed / BYTES_PER_MEGABYTE + " MB";
+        lines[6] = "Allocation rate: " + allocationRate;
+        lines[7] = String.format("Draws/s: %.1f requested, %.1f performed", drawRequestsPerSecond, fps);
+
+        windowStart = now;
+        framesInWindow = 0;
+        drawRequestsInWindow = 0;
+        frameNanosInWindow = 0;
+        cellsDrawnInWindow = 0;
+        ticksInWindow = 0;
+        tickNanosInWindow = 0;
+        maxTickNanosInWindow = 0;
+        allocatedAtWindowStart = allocated;
+    }
+
+    /**
+     * Reads the number of bytes allocated so far by the calling thread,
+     * which is the JavaFX Application Thread, plus the simulation thread.
+     * @return the allocated bytes, or -1 if the JVM cannot report them.
+     */
+    private long allocatedBytes() {
+        if (threadBean instanceof com.sun.management.ThreadMXBean sunThreadBean
+                && sunThreadBean.isThreadAllocatedMemorySupported()
+                && sunThreadBean.isThreadAllocatedMemoryEnabled()) {
+            long allocated = sunThreadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            if (simulationThreadId >= 0) {
+                // Reported as -1 once the simulation thread has ended
+                allocated += Math.max(0, sunThreadBean.getThreadAllocatedBytes(simulationThreadId));
+            }
+            return allocated;
+        }
+        return -1;
+    }
+}
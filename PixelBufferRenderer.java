@@ -0,0 +1,67 @@
+import java.util.Arrays;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+/**
+ * An alternative to Renderer that composes each frame in an ARGB pixel array.
+ * Sprites are copied out of a SpriteAtlas row by row, and the finished frame
+ * is pushed to the canvas with a single image draw, instead of one drawImage
+ * call per cell.
+ * @author Alex Vesely
+ */
+public class PixelBufferRenderer implements GameRenderer {
+    private static final int GRID_CELL_WIDTH = Main.GRID_CELL_WIDTH;
+    private static final int GRID_CELL_HEIGHT = Main.GRID_CELL_HEIGHT;
+    private static final int BACKGROUND = 0xFF808080; // Color.GRAY
+
+    private final int width;
+    private final int height;
+    private final int[] frame;
+    private final WritableImage frameImage;
+    private final PixelWriter pixelWriter;
+    private final SpriteAtlas atlas;
+
+    /**
+     * Creates a pixel buffer renderer for a canvas of the given size.
+     * Must be called on the JavaFX Application Thread, which builds the sprite atlas.
+     * @param width the width of the game canvas, in pixels.
+     * @param height the height of the game canvas, in pixels.
+     */
+    public PixelBufferRenderer(double width, double height) {
+        this.width = (int) width;
+        this.height = (int) height;
+        this.frame = new int[this.width * this.height];
+        this.frameImage = new WritableImage(this.width, this.height);
+        this.pixelWriter = frameImage.getPixelWriter();
+        this.atlas = new SpriteAtlas(GRID_CELL_WIDTH, GRID_CELL_HEIGHT, BACKGROUND);
+    }
+
+    /**
+     * Composes the cells of a frame into the frame buffer
+     * and draws it onto the canvas in one go.
+     * @param gc the GraphicsContext of the game canvas.
+     * @param snapshot the frame to draw.
+     * @return the number of cells that were painted.
+     */
+    @Override
+    public int draw(GraphicsContext gc, FrameSnapshot snapshot) {
+        Arrays.fill(frame, BACKGROUND);
+
+        int cellsDrawn = 0;
+        for (int row = 0; row < snapshot.getRows(); row++) {
+            for (int col = 0; col < snapshot.getColumns(); col++) {
+                int sprite = FrameSnapshot.spriteOf(snapshot.getTile(row, col));
+                if (sprite != Sprites.NO_SPRITE) {
+                    atlas.copyTo(sprite, frame, width, height, col * GRID_CELL_WIDTH, row * GRID_CELL_HEIGHT);
+                    cellsDrawn++;
+                }
+            }
+        }
+
+        pixelWriter.setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), frame, 0, width);
+        gc.drawImage(frameImage, 0, 0);
+        return cellsDrawn;
+    }
+}
@@ -1,5 +1,4 @@
 import java.util.ArrayList;
-import javafx.scene.image.Image;
 
 /**
  * The Player class represents a player in the game, managing their position
@@ -8,7 +7,8 @@ import javafx.scene.image.Image;
  */
 public class Player extends Element {
 
-    public static boolean dropDiamond = true;
+    private static final int LOOKING_LEFT_SPRITE = Sprites.index("images/player.png");
+    private static final int LOOKING_RIGHT_SPRITE = Sprites.index("images/player-looking-right.png");
 
     private ArrayList<KeyColour> keyInventory;
     private int diamondCount = 0;
@@ -23,11 +23,7 @@ public class Player extends Element {
      * @param column the initial column position of the player.
      */
     public Player(int row, int column) {
-        super(row, column);
-        canExplode = true;
-        image = new Image("images/player.png");
-        canBeEntered = true;
-        name = "Player";
+        super(ElementKind.PLAYER, row, column);
         this.keyInventory = new ArrayList<>();
         hasEnoughDiamonds = false;
     }
@@ -39,11 +35,15 @@ public class Player extends Element {
      */
     public void imageAnimation() {
         lookingRight = !lookingRight;
-        if (lookingRight) {
-            image = new Image("images/player-looking-right.png");
-        } else if (!lookingRight) {
-            image = new Image("images/player.png");
-        }
+    }
+
+    /**
+     * Retrieves the sprite of the player, which depends on which way they are facing.
+     * @return the index of the player's current sprite.
+     */
+    @Override
+    public int getSprite() {
+        return lookingRight ? LOOKING_RIGHT_SPRITE : LOOKING_LEFT_SPRITE;
     }
 
     /**
@@ -135,7 +135,7 @@ public class Player extends Element {
     public void movePlayer(int newRow, int newColumn, GridManager gridManager) {
         if (isValidMove(newRow, newColumn, gridManager)) {
             // Replace the player's current position with a Path
-            gridManager.setElement(this.getRow(), this.getColumn(), new Path(this.getRow(), this.getColumn()));
+            gridManager.setElement(this.getRow(), this.getColumn(), gridManager.getPath(this.getRow(), this.getColumn()));
             gridManager.removeElement(this.getRow(), this.getColumn());
             // Update the grid and the player's position
             gridManager.setElement(newRow, newColumn, this);
@@ -152,19 +152,19 @@ public class Player extends Element {
      * @return true if the move is valid according to the game's rules, false otherwise
      */
     private boolean isValidMove(int targetRow, int targetColumn, GridManager gridManager) {
-        Element[][] grid = gridManager.getElementGrid();
         // Ensure the move is within bounds
-        if (targetRow < 0 || targetRow >= grid.length || targetColumn < 0 || targetColumn >= grid[0].length) {
+        if (!gridManager.isInBounds(targetRow, targetColumn)) {
             return false;
         }
+        Element target = gridManager.getElement(targetRow, targetColumn);
 
         // Check if the target cell is enterable (e.g., a Path)
-        if (grid[targetRow][targetColumn] instanceof Dirt || grid[targetRow][targetColumn] instanceof Path) {
+        if (target.getKind().has(ElementKind.PLAYER_ENTERABLE)) {
             return true;
         }
 
         // Check if the target cell contains a Boulder
-        if (targetRow == this.getRow() && grid[targetRow][targetColumn] instanceof Boulder) {
+        if (targetRow == this.getRow() && target instanceof Boulder boulder) {
             // Determine the direction of the push
             int pushBoulderToRow = targetRow;
             int pushBoulderToColumn;
@@ -176,31 +176,28 @@ public class Player extends Element {
             }
 
             // Ensure the adjacent cell (where the boulder would move) is within bounds and is a Path
-            if (pushBoulderToColumn >= 0 && pushBoulderToColumn < grid[0].length
+            if (gridManager.isInBounds(pushBoulderToRow, pushBoulderToColumn)
                     && gridManager.getElement(pushBoulderToRow, pushBoulderToColumn) instanceof Path) {
                 // Move the boulder to the new position
-                Boulder boulder = (Boulder)gridManager.getElement(targetRow, targetColumn);
-
                 gridManager.setElement(pushBoulderToRow, pushBoulderToColumn, boulder);
-                gridManager.setElement(targetRow, targetColumn, new Path(targetRow, targetColumn));
+                gridManager.setElement(targetRow, targetColumn, gridManager.getPath(targetRow, targetColumn));
                 boulder.setColumn(pushBoulderToColumn);
                 return true;
             }
         }
-        if (grid[targetRow][targetColumn] instanceof Diamond) {
+        if (target instanceof Diamond) {
             diamondCount++;
-            gridManager.removeFromList(gridManager.getElement(targetRow, targetColumn)); //remove from diamonds list to stop falling
+            gridManager.removeFromList(target); //remove from diamonds list to stop falling
             gridManager.removeElement(targetRow, targetColumn);
-            grid[targetRow][targetColumn] = null;
             System.out.println("Diamond removed");
             checkDiamonds();
             return true;
         }
-        if (grid[targetRow][targetColumn] instanceof Key key) {
+        if (target instanceof Key key) {
             collectKey(key);
             return true;
         }
-        if (grid[targetRow][targetColumn] instanceof LockedDoor lockedDoor) {
+        if (target instanceof LockedDoor lockedDoor) {
             if (hasKey(lockedDoor.getColour())) {
                 useKey(lockedDoor.getColour());
                 lockedDoor.unlock();
@@ -214,7 +211,7 @@ public class Player extends Element {
                 return false;
             }
         }
-        if (grid[targetRow][targetColumn] instanceof Exit exit) {
+        if (target instanceof Exit exit) {
             checkDiamonds();
             if (isHasEnoughDiamonds()) {
                 exit.unlock();
@@ -272,6 +269,15 @@ public class Player extends Element {
         this.diamondsRequired = diamondsRequired;
     }
 
+    /**
+     * The player leaves diamonds behind when they explode.
+     * @return true.
+     */
+    @Override
+    public boolean dropsDiamonds() {
+        return true;
+    }
+
     /**
      * Returns a string representation of the player, including the number of diamonds collected.
      * @return a string showing the number of collected diamonds
@@ -0,0 +1,188 @@
+import java.util.Random;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.StackPane;
+import javafx.stage.Stage;
+
+/**
+ * Compares the two render backends, Renderer and PixelBufferRenderer, drawing
+ * a whole level at once, such as an 80x40 one. It plays the level headless to
+ * capture a run of frames with a viewport as big as the grid, then has each
+ * backend draw them, snapshotting the result after every frame so the time
+ * covers rasterizing the frame as well as issuing its drawing.
+ * Before timing them it checks that both backends draw every frame with exactly
+ * the same pixels, as the sprites PixelBufferRenderer copies are blended over the
+ * background ahead of time rather than as they are drawn.
+ * Each backend is timed on its first frame, a full redraw with nothing cached,
+ * and on the frames after it, where Renderer only repaints changed static tiles.
+ * Run it from the command line; it needs a display for JavaFX, or a headless
+ * Glass platform such as Monocle. It exits with status 1 at the first pixel
+ * the backends draw differently.
+ * @author Alex Vesely
+ */
+public class RenderBenchmark extends Application {
+    private static final int DEFAULT_FRAMES = 300;
+    private static final int COLD_ROUNDS = 5;
+    private static final int SEED = 7;
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    /**
+     * Captures the frames, checks both backends draw them alike and times them, then exits.
+     * @param stage the primary stage, which is never shown.
+     */
+    @Override
+    public void start(Stage stage) {
+        String levelFile = getParameters().getRaw().get(0);
+        int frameCount = getParameters().getRaw().size() > 1
+                ? Integer.parseInt(getParameters().getRaw().get(1)) : DEFAULT_FRAMES;
+        FrameSnapshot[] frames = captureFrames(levelFile, frameCount);
+        int width = frames[0].getColumns() * Main.GRID_CELL_WIDTH;
+        int height = frames[0].getRows() * Main.GRID_CELL_HEIGHT;
+        System.out.println(frames[0].getColumns() + "x" + frames[0].getRows() + " cells, "
+                + width + "x" + height + " pixels, " + frameCount + " frames");
+        if (!drawAlike(frames, width, height)) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+        System.out.println("Both backends drew every frame with the same pixels");
+
+        // Once to warm the JIT up, then again to be timed
+        for (int pass = 0; pass < 2; pass++) {
+            boolean report = pass == 1;
+            timeBackend("Renderer", frames, width, height, false, report);
+            timeBackend("PixelBufferRenderer", frames, width, height, true, report);
+        }
+        Platform.exit();
+    }
+
+    /**
+     * Plays a level with random moves, capturing a frame of the whole grid after every tick.
+     * @param levelFile the path of the level file.
+     * @param frameCount the number of frames to capture.
+     * @return the captured frames.
+     */
+    private static FrameSnapshot[] captureFrames(String levelFile, int frameCount) {
+        LevelData level = FileHandler.readLevelData(levelFile);
+        GameController gameController = level.createGame(SEED);
+        TickScheduler scheduler = TickScheduler.forGame(gameController, level.getAmoebaGrowthRate(), () -> { });
+        scheduler.setRunning(true, 0);
+        GridManager gridManager = gameController.getGridManager();
+        Camera camera = new Camera(gridManager.getColumns() * Main.GRID_CELL_WIDTH,
+                gridManager.getRows() * Main.GRID_CELL_HEIGHT, Main.GRID_CELL_WIDTH, Main.GRID_CELL_HEIGHT);
+        GameController.PlayerInput[] directions = GameController.PlayerInput.values();
+        Random inputs = new Random(SEED);
+        FrameSnapshot[] frames = new FrameSnapshot[frameCount];
+        for (int i = 0; i < frameCount; i++) {
+            frames[i] = FrameSnapshot.capture(i, gridManager, camera, gameController.getDiamondsRequired());
+            gameController.registerInput(directions[inputs.nextInt(directions.length)]);
+            scheduler.runDue(scheduler.getNextDue(), cost -> { });
+        }
+        return frames;
+    }
+
+    /**
+     * Has both backends draw every frame in turn, as GameView would, and compares
+     * the pixels of the two results, reporting the first that differs.
+     * @param frames the frames to draw.
+     * @param width the width of the canvas, in pixels.
+     * @param height the height of the canvas, in pixels.
+     * @return true if every pixel of every frame is the same, false otherwise.
+     */
+    private static boolean drawAlike(FrameSnapshot[] frames, int width, int height) {
+        Canvas layeredCanvas = new Canvas(width, height);
+        Renderer layeredRenderer = new Renderer(width, height);
+        StackPane layeredView = new StackPane(layeredRenderer.getStaticLayer(), layeredCanvas);
+        Canvas pixelCanvas = new Canvas(width, height);
+        PixelBufferRenderer pixelRenderer = new PixelBufferRenderer(width, height);
+        StackPane pixelView = new StackPane(pixelCanvas);
+        WritableImage layeredImage = new WritableImage(width, height);
+        WritableImage pixelImage = new WritableImage(width, height);
+
+        for (int i = 0; i < frames.length; i++) {
+            layeredRenderer.draw(layeredCanvas.getGraphicsContext2D(), frames[i]);
+            layeredView.snapshot(null, layeredImage);
+            pixelRenderer.draw(pixelCanvas.getGraphicsContext2D(), frames[i]);
+            pixelView.snapshot(null, pixelImage);
+            PixelReader layered = layeredImage.getPixelReader();
+            PixelReader pixels = pixelImage.getPixelReader();
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    int expected = layered.getArgb(x, y);
+                    int actual = pixels.getArgb(x, y);
+                    if (expected != actual) {
+                        System.out.printf("Frame %d differs at pixel %d,%d in cell %d,%d: "
+                                        + "Renderer drew %08X, PixelBufferRenderer drew %08X%n",
+                                i, x, y, y / Main.GRID_CELL_HEIGHT, x / Main.GRID_CELL_WIDTH, expected, actual);
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Times a backend drawing a run of frames, each onto the canvas of a view laid
+     * out as GameView lays it out, and prints the mean cost of a cold and a warm frame.
+     * @param name the name of the backend, to print.
+     * @param frames the frames to draw.
+     * @param width the width of the canvas, in pixels.
+     * @param height the height of the canvas, in pixels.
+     * @param pixelBuffer true for PixelBufferRenderer, false for Renderer.
+     * @param report whether to print the timings.
+     */
+    private static void timeBackend(String name, FrameSnapshot[] frames, int width, int height,
+                                    boolean pixelBuffer, boolean report) {
+        WritableImage target = new WritableImage(width, height);
+        long coldNanos = 0;
+        long warmNanos = 0;
+        int cellsDrawn = 0;
+        for (int round = 0; round < COLD_ROUNDS; round++) {
+            Canvas canvas = new Canvas(width, height);
+            GameRenderer renderer;
+            StackPane view;
+            if (pixelBuffer) {
+                renderer = new PixelBufferRenderer(width, height);
+                view = new StackPane(canvas);
+            } else {
+                Renderer layeredRenderer = new Renderer(width, height);
+                renderer = layeredRenderer;
+                view = new StackPane(layeredRenderer.getStaticLayer(), canvas);
+            }
+            long start = System.nanoTime();
+            cellsDrawn = renderer.draw(canvas.getGraphicsContext2D(), frames[0]);
+            view.snapshot(null, target);
+            coldNanos += System.nanoTime() - start;
+
+            // Only the last round's renderer draws the rest of the frames
+            if (round == COLD_ROUNDS - 1) {
+                start = System.nanoTime();
+                for (int i = 1; i < frames.length; i++) {
+                    renderer.draw(canvas.getGraphicsContext2D(), frames[i]);
+                    view.snapshot(null, target);
+                }
+                warmNanos = System.nanoTime() - start;
+            }
+        }
+        if (report) {
+            System.out.printf("%s: %.1f us for a full redraw of %d cells, %.1f us per frame after it%n",
+                    name, coldNanos / NANOS_PER_MICRO / COLD_ROUNDS, cellsDrawn,
+                    warmNanos / NANOS_PER_MICRO / (frames.length - 1));
+        }
+    }
+
+    /**
+     * Runs the benchmark on a level.
+     * @param args the level file, then optionally the number of frames to draw.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: RenderBenchmark levelFile [frames]");
+            return;
+        }
+        launch(args);
+    }
+}
@@ -1,34 +1,148 @@
+import java.util.Arrays;
+import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
 
 /**
  * Renderer is responsible for rendering the game's grid and its elements onto the canvas.
+ * Tiles that rarely change (walls, doors, the exit and terrain) are kept on an
+ * off-screen static layer beneath the game canvas, and only repainted for cells
+ * whose static tile actually changed. Everything else is drawn every frame on
+ * the dynamic layer, which is the game canvas itself.
+ * The static layer covers twice the viewport in each direction, centred on it,
+ * and is cached by grid cell. Scrolling slides the layer under the viewport,
+ * so only the cells scrolling into view for the first time are painted; the
+ * layer is only repainted whole once the viewport reaches its edge.
  * @author Omar Sanad
  * @author Alex Vesely
  */
-public class Renderer {
+public class Renderer implements GameRenderer {
     private static final int GRID_CELL_WIDTH = Main.GRID_CELL_WIDTH;
     private static final int GRID_CELL_HEIGHT = Main.GRID_CELL_HEIGHT;
+    private static final Color BACKGROUND = Color.GRAY;
+
+    private final Canvas staticLayer;
+    // Shows the part of the static layer under the viewport
+    private final Pane staticView;
+    private final Image[] sprites = new Image[Sprites.GRID_SPRITES.length];
+    // The tile last painted on the static layer for each of its cells, EMPTY for bare background
+    private byte[] staticTiles = new byte[0];
+    // The static layer's size in cells, and the grid cell at its top left
+    private int layerRows;
+    private int layerColumns;
+    private int originRow;
+    private int originColumn;
+
+    /**
+     * Creates a renderer whose static layer shows through a view the size of the game canvas.
+     * @param width the width of the game canvas, in pixels.
+     * @param height the height of the game canvas, in pixels.
+     */
+    public Renderer(double width, double height) {
+        this.staticLayer = new Canvas();
+        this.staticView = new Pane(staticLayer);
+        staticView.setMinSize(width, height);
+        staticView.setPrefSize(width, height);
+        staticView.setMaxSize(width, height);
+        staticView.setClip(new Rectangle(width, height));
+        for (int i = 0; i < sprites.length; i++) {
+            sprites[i] = new Image(Sprites.GRID_SPRITES[i]);
+        }
+    }
+
+    /**
+     * Retrieves the node showing the static layer, which sits beneath the game canvas.
+     * @return the static layer's view.
+     */
+    public Pane getStaticLayer() {
+        return staticView;
+    }
 
     /**
-     * Renders the provided grid of elements onto the canvas.
-     * Each element in the grid is drawn at its respective grid position.
-     * @param gc the GraphicsContext object used for drawing.
-     * @param elementGrid 2D array of Element objects representing the grid to be drawn.
+     * Renders the cells held by a frame.
+     * Static tiles are only painted when they changed since the last frame.
+     * @param gc the GraphicsContext of the dynamic layer.
+     * @param frame the frame to draw.
+     * @return the number of cells that were painted on either layer.
      */
-    public void draw(GraphicsContext gc, Element[][] elementGrid) {
+    @Override
+    public int draw(GraphicsContext gc, FrameSnapshot frame) {
+        int rows = frame.getRows();
+        int cols = frame.getColumns();
+        int firstRow = frame.getFirstRow();
+        int firstCol = frame.getFirstColumn();
+        if (layerRows != rows * 2 || layerColumns != cols * 2
+                || firstRow < originRow || firstRow + rows > originRow + layerRows
+                || firstCol < originColumn || firstCol + cols > originColumn + layerColumns) {
+            recentre(rows, cols, firstRow, firstCol);
+        }
+        // Slide the static layer so that the viewport's cells sit under the game canvas
+        int rowOffset = firstRow - originRow;
+        int colOffset = firstCol - originColumn;
+        staticLayer.setLayoutX(-colOffset * GRID_CELL_WIDTH);
+        staticLayer.setLayoutY(-rowOffset * GRID_CELL_HEIGHT);
+        GraphicsContext staticGc = staticLayer.getGraphicsContext2D();
+
+        int cellsDrawn = 0;
         gc.clearRect(0, 0, gc.getCanvas().getWidth(), gc.getCanvas().getHeight());
-        gc.setFill(Color.GRAY);
-        gc.fillRect(0, 0, gc.getCanvas().getWidth(), gc.getCanvas().getHeight());
-
-        // Draw all elements
-        for (int row = 0; row < elementGrid.length; row++) {
-            for (int col = 0; col < elementGrid[row].length; col++) {
-                Element element = elementGrid[row][col];
-                if (element.getImage() != null) {
-                    gc.drawImage(element.getImage(), col * GRID_CELL_WIDTH, row * GRID_CELL_HEIGHT);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                byte tile = frame.getTile(row, col);
+                double x = col * GRID_CELL_WIDTH;
+                double y = row * GRID_CELL_HEIGHT;
+
+                // A dynamic element sits on bare background in the static layer
+                boolean isStatic = FrameSnapshot.isStatic(tile);
+                byte staticTile = isStatic ? tile : FrameSnapshot.EMPTY;
+                int cell = (row + rowOffset) * layerColumns + col + colOffset;
+                if (staticTiles[cell] != staticTile) {
+                    double staticX = (col + colOffset) * GRID_CELL_WIDTH;
+                    double staticY = (row + rowOffset) * GRID_CELL_HEIGHT;
+                    staticGc.setFill(BACKGROUND);
+                    staticGc.fillRect(staticX, staticY, GRID_CELL_WIDTH, GRID_CELL_HEIGHT);
+                    int staticSprite = FrameSnapshot.spriteOf(staticTile);
+                    if (staticSprite != Sprites.NO_SPRITE) {
+                        staticGc.drawImage(sprites[staticSprite], staticX, staticY);
+                    }
+                    staticTiles[cell] = staticTile;
+                    cellsDrawn++;
+                }
+
+                int sprite = FrameSnapshot.spriteOf(tile);
+                if (!isStatic && sprite != Sprites.NO_SPRITE) {
+                    gc.drawImage(sprites[sprite], x, y);
+                    cellsDrawn++;
                 }
             }
         }
+        return cellsDrawn;
+    }
+
+    /**
+     * Centres the static layer on the viewport and clears it to bare background,
+     * such as when the viewport has scrolled to the layer's edge or jumped.
+     * @param rows the number of rows in the viewport.
+     * @param cols the number of columns in the viewport.
+     * @param firstRow the grid row at the top of the viewport.
+     * @param firstCol the grid column at the left of the viewport.
+     */
+    private void recentre(int rows, int cols, int firstRow, int firstCol) {
+        layerRows = rows * 2;
+        layerColumns = cols * 2;
+        originRow = firstRow - rows / 2;
+        originColumn = firstCol - cols / 2;
+        if (staticTiles.length != layerRows * layerColumns) {
+            staticTiles = new byte[layerRows * layerColumns];
+            staticLayer.setWidth(layerColumns * GRID_CELL_WIDTH);
+            staticLayer.setHeight(layerRows * GRID_CELL_HEIGHT);
+        } else {
+            Arrays.fill(staticTiles, FrameSnapshot.EMPTY);
+        }
+        GraphicsContext staticGc = staticLayer.getGraphicsContext2D();
+        staticGc.setFill(BACKGROUND);
+        staticGc.fillRect(0, 0, staticLayer.getWidth(), staticLayer.getHeight());
     }
 }
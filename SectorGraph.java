@@ -0,0 +1,822 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+
+/**
+ * Hierarchical pathfinding for frogs on very large maps, in the style of HPA*.
+ * The grid is cut into square sectors. Each stretch of border between two sectors
+ * with open ground on both sides gets one entrance in its middle: a pair of nodes,
+ * one on each side, one step apart. Within a sector, the distance
+ * between every pair of its nodes is worked out once with a breadth-first search.
+ * Every frog chases the same player, so once per frog tick refresh works out the
+ * distance from the player to every entrance it can reach, searching this much
+ * smaller graph rather than the grid. A frog's query then only searches its own
+ * sector, to the entrance with the shortest way on to the player. If the player
+ * or the grid has changed since the refresh, a query searches the entrance graph
+ * from the frog with A* instead. Either way, only the part of the path inside the
+ * frog's sector is refined into cells, and paths are near shortest rather than shortest.
+ *
+ * Sectors are built the first time they are needed and thrown away by cellChanged
+ * when open ground appears or disappears, so only the sectors around a change are
+ * rebuilt. Open ground counts creatures as well as paths, so that creatures moving
+ * about do not throw sectors away; only the frog's search of its own sector avoids them.
+ * Built sectors never change, so queries can run in parallel; two threads
+ * building the same sector at once build identical copies.
+ * @author Alex Vesely
+ */
+public class SectorGraph {
+    /**
+     * The width and height of a sector, in cells.
+     */
+    public static final int SECTOR_SIZE = 32;
+
+    // A border of SECTOR_SIZE cells has at most SECTOR_SIZE / 2 entrances, and a sector has four borders
+    private static final int MAX_NODES = 2 * SECTOR_SIZE;
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final GridManager gridManager;
+    private final int rows;
+    private final int columns;
+    private final int sectorColumns;
+    private final AtomicReferenceArray<Sector> sectors;
+    private final ThreadLocal<Search> searches = ThreadLocal.withInitial(Search::new);
+    // Sectors are built partway through a query, so building has buffers of its own
+    private final ThreadLocal<Search> builders = ThreadLocal.withInitial(Search::new);
+    private final int[] playerDistances;
+    private int refreshedPlayerCell = -1;
+    private boolean refreshed;
+    private boolean prebuilt;
+
+    /**
+     * Creates the sector graph of a grid. Sectors are built as queries reach them.
+     * @param gridManager the grid to find paths in.
+     */
+    public SectorGraph(GridManager gridManager) {
+        this.gridManager = gridManager;
+        this.rows = gridManager.getRows();
+        this.columns = gridManager.getColumns();
+        int sectorRows = (rows + SECTOR_SIZE - 1) / SECTOR_SIZE;
+        this.sectorColumns = (columns + SECTOR_SIZE - 1) / SECTOR_SIZE;
+        this.sectors = new AtomicReferenceArray<>(sectorRows * sectorColumns);
+        this.playerDistances = new int[sectorRows * sectorColumns * MAX_NODES];
+    }
+
+    /**
+     * Throws every sector away, such as when the grid is being reloaded.
+     */
+    public void invalidateAll() {
+        for (int i = 0; i < sectors.length(); i++) {
+            sectors.set(i, null);
+        }
+        refreshed = false;
+        prebuilt = false;
+    }
+
+    /**
+     * Throws away the sectors affected by a cell becoming or ceasing to be open ground: its own sector,
+     * and any neighbouring sector whose shared border the cell lies on.
+     * Must not be called while queries are running.
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     */
+    public void cellChanged(int row, int col) {
+        int sector = sectorOf(row, col);
+        sectors.set(sector, null);
+        refreshed = false;
+        int localRow = row % SECTOR_SIZE;
+        int localCol = col % SECTOR_SIZE;
+        if (localRow == 0 && row > 0) {
+            sectors.set(sector - sectorColumns, null);
+        }
+        if (localRow == SECTOR_SIZE - 1 && row + 1 < rows) {
+            sectors.set(sector + sectorColumns, null);
+        }
+        if (localCol == 0 && col > 0) {
+            sectors.set(sector - 1, null);
+        }
+        if (localCol == SECTOR_SIZE - 1 && col + 1 < columns) {
+            sectors.set(sector + 1, null);
+        }
+    }
+
+    /**
+     * Finds the first step of a frog towards the player. Only reads the grid,
+     * so it can run alongside other frogs' queries.
+     * @param frogRow the frog row position.
+     * @param frogCol the frog column position.
+     * @param playerRow the player row position.
+     * @param playerCol the player column position.
+     * @return the cell index (row * columns + column) of the first step towards
+     * the player, or FrogPathfinder.NO_MOVE if the player cannot be reached.
+     */
+    public int findNextStep(int frogRow, int frogCol, int playerRow, int playerCol) {
+        Search search = searches.get();
+        int frogCell = frogRow * columns + frogCol;
+        int playerCell = playerRow * columns + playerCol;
+        if (frogCell == playerCell) {
+            return FrogPathfinder.NO_MOVE; // Nowhere to go, as with a search of the grid
+        }
+        int frogSector = sectorOf(frogRow, frogCol);
+        int playerSector = sectorOf(playerRow, playerCol);
+        boolean useRefresh = refreshed && refreshedPlayerCell == playerCell;
+
+        if (!useRefresh) {
+            // Distances from the player to the entrances of the player's sector, for A*
+            Sector goal = getSector(playerSector);
+            search.searchSector(this, playerSector, playerCell, true);
+            for (int i = 0; i < goal.nodes.length; i++) {
+                search.goalDistances[i] = search.localDistance(this, goal.nodes[i]);
+            }
+        }
+
+        // Distances from the frog to the entrances of its own sector, kept for the refinement
+        search.searchSector(this, frogSector, frogCell, false);
+        if (frogSector == playerSector && search.localDistance(this, playerCell) != UNREACHABLE) {
+            return search.firstStep(this, playerCell, frogCell);
+        }
+
+        int exit;
+        if (useRefresh) {
+            exit = nearestExit(search, frogSector);
+        } else {
+            exit = search.searchEntrances(this, frogSector, playerSector, playerRow, playerCol);
+        }
+        if (exit == FrogPathfinder.NO_MOVE || sectorOf(exit / columns, exit % columns) != frogSector) {
+            return exit; // No way through, or straight across the border from an entrance the frog stands on
+        }
+        return search.firstStep(this, exit, frogCell);
+    }
+
+    /**
+     * Works out the distance from the player to every entrance the player can reach,
+     * unless it is already known for where the player stands. The first refresh after
+     * loading builds every sector, spread over all processors, rather than one by one
+     * as the search reaches them; after that only sectors thrown away are rebuilt.
+     * Must be called on the simulation thread, outside of any parallel decide phase.
+     * @param player the player, or null.
+     */
+    public void refresh(Player player) {
+        if (player == null) {
+            return;
+        }
+        int playerCell = player.getRow() * columns + player.getColumn();
+        if (refreshed && refreshedPlayerCell == playerCell) {
+            return;
+        }
+        if (!prebuilt) {
+            IntStream.range(0, sectors.length()).parallel().forEach(this::getSector);
+            prebuilt = true;
+        }
+        searches.get().searchFromPlayer(this, player.getRow(), player.getColumn(), playerDistances);
+        refreshedPlayerCell = playerCell;
+        refreshed = true;
+    }
+
+    /**
+     * Picks the entrance of the frog's sector with the shortest way to the player,
+     * counting the way there from the frog and the refreshed way on from it.
+     * Expects the frog's sector search to be filled in.
+     * @param search the thread's search buffers.
+     * @param frogSector the frog's sector.
+     * @return the cell of the entrance, the cell across the border if the frog stands
+     * on the entrance, or FrogPathfinder.NO_MOVE if none leads to the player.
+     */
+    private int nearestExit(Search search, int frogSector) {
+        Sector start = getSector(frogSector);
+        int frogCell = search.startCell(this);
+        int best = UNREACHABLE;
+        int exit = FrogPathfinder.NO_MOVE;
+        for (int i = 0; i < start.nodes.length; i++) {
+            int toEntrance;
+            int onward;
+            int cell;
+            if (start.nodes[i] == frogCell) {
+                int crossing = crossingFrom(start, i);
+                toEntrance = 1;
+                onward = crossing < 0 ? UNREACHABLE : playerDistances[crossing];
+                cell = start.partners[i];
+            } else {
+                toEntrance = search.localDistance(this, start.nodes[i]);
+                onward = playerDistances[frogSector * MAX_NODES + i];
+                cell = start.nodes[i];
+            }
+            if (toEntrance != UNREACHABLE && onward != UNREACHABLE && toEntrance + onward < best) {
+                best = toEntrance + onward;
+                exit = cell;
+            }
+        }
+        return exit;
+    }
+
+    /**
+     * Finds the entrance node a frog standing on an entrance would step across the border to.
+     * @param sector the frog's sector.
+     * @param index the index of the entrance the frog stands on.
+     * @return the node across the border, or -1 if the frog cannot move into it now.
+     */
+    private int crossingFrom(Sector sector, int index) {
+        int across = sector.partners[index];
+        int acrossRow = across / columns;
+        int acrossCol = across % columns;
+        if (!isWalkable(acrossRow, acrossCol, false)) {
+            return -1;
+        }
+        int acrossSector = sectorOf(acrossRow, acrossCol);
+        int partner = partnerIndex(getSector(acrossSector), across, sector.nodes[index]);
+        return partner < 0 ? -1 : acrossSector * MAX_NODES + partner;
+    }
+
+    /**
+     * Finds which entrance across a border matches an entrance of a sector.
+     * @param other the sector across the border.
+     * @param across the cell across the border from the entrance.
+     * @param cell the cell of the entrance.
+     * @return the index of the matching entrance in the other sector, or -1 if there is none.
+     */
+    private static int partnerIndex(Sector other, int across, int cell) {
+        for (int j = 0; j < other.nodes.length; j++) {
+            if (other.nodes[j] == across && other.partners[j] == cell) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves a sector, building it if it has been thrown away.
+     * @param sector the index of the sector.
+     * @return the built sector.
+     */
+    private Sector getSector(int sector) {
+        Sector built = sectors.get(sector);
+        if (built == null) {
+            built = buildSector(sector);
+            sectors.compareAndSet(sector, null, built);
+        }
+        return built;
+    }
+
+    /**
+     * Builds a sector: finds the entrances on its four borders and the distances between them.
+     * @param sector the index of the sector.
+     * @return the new sector.
+     */
+    private Sector buildSector(int sector) {
+        int firstRow = sector / sectorColumns * SECTOR_SIZE;
+        int firstCol = sector % sectorColumns * SECTOR_SIZE;
+        int lastRow = Math.min(firstRow + SECTOR_SIZE, rows) - 1;
+        int lastCol = Math.min(firstCol + SECTOR_SIZE, columns) - 1;
+        int[] nodes = new int[MAX_NODES];
+        int[] partners = new int[MAX_NODES];
+        int count = 0;
+        if (firstRow > 0) {
+            count = addEntrances(nodes, partners, count, firstRow, firstCol, 0, 1, lastCol - firstCol + 1, -1, 0);
+        }
+        if (lastRow + 1 < rows) {
+            count = addEntrances(nodes, partners, count, lastRow, firstCol, 0, 1, lastCol - firstCol + 1, 1, 0);
+        }
+        if (firstCol > 0) {
+            count = addEntrances(nodes, partners, count, firstRow, firstCol, 1, 0, lastRow - firstRow + 1, 0, -1);
+        }
+        if (lastCol + 1 < columns) {
+            count = addEntrances(nodes, partners, count, firstRow, lastCol, 1, 0, lastRow - firstRow + 1, 0, 1);
+        }
+        nodes = Arrays.copyOf(nodes, count);
+        partners = Arrays.copyOf(partners, count);
+
+        int[] distances = new int[count * count];
+        Search search = builders.get();
+        search.loadSector(this, sector, true);
+        for (int i = 0; i < count; i++) {
+            search.searchLoaded(this, nodes[i]);
+            for (int j = 0; j < count; j++) {
+                distances[i * count + j] = search.localDistance(this, nodes[j]);
+            }
+        }
+        return new Sector(nodes, partners, distances);
+    }
+
+    /**
+     * Finds the entrances along one border of a sector: one in the middle of
+     * every stretch with open ground on both sides of the border.
+     * Both sectors of a border walk it in the same direction, so they agree on the entrances.
+     * @param nodes the entrance cells inside the sector, added to.
+     * @param partners the matching cells across the border, added to.
+     * @param count the number of entrances found so far.
+     * @param row the row of the first border cell inside the sector.
+     * @param col the column of the first border cell inside the sector.
+     * @param rowStep the row step along the border.
+     * @param colStep the column step along the border.
+     * @param length the number of cells along the border.
+     * @param rowAcross the row offset of the cell across the border.
+     * @param colAcross the column offset of the cell across the border.
+     * @return the number of entrances found so far, including this border's.
+     */
+    private int addEntrances(int[] nodes, int[] partners, int count, int row, int col,
+                             int rowStep, int colStep, int length, int rowAcross, int colAcross) {
+        int runStart = -1;
+        for (int i = 0; i <= length; i++) {
+            int r = row + i * rowStep;
+            int c = col + i * colStep;
+            boolean crossable = i < length && isWalkable(r, c, true)
+                    && isWalkable(r + rowAcross, c + colAcross, true);
+            if (crossable && runStart < 0) {
+                runStart = i;
+            } else if (!crossable && runStart >= 0) {
+                int middle = runStart + (i - 1 - runStart) / 2;
+                int nodeRow = row + middle * rowStep;
+                int nodeCol = col + middle * colStep;
+                nodes[count] = nodeRow * columns + nodeCol;
+                partners[count] = (nodeRow + rowAcross) * columns + nodeCol + colAcross;
+                count++;
+                runStart = -1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether a frog can walk on a cell, now or once the creatures on it move on.
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     * @param ground true to count any open ground, false to count only cells a frog can move into now.
+     * @return true if the cell can be walked on, false otherwise.
+     */
+    private boolean isWalkable(int row, int col, boolean ground) {
+        Element element = gridManager.getElement(row, col);
+        int flag = ground ? ElementKind.OPEN_GROUND : ElementKind.FROG_ENTERABLE;
+        return element != null && element.getKind().has(flag);
+    }
+
+    /**
+     * Works out which sector a cell is in.
+     * @param row the row of the cell.
+     * @param col the column of the cell.
+     * @return the index of the sector.
+     */
+    private int sectorOf(int row, int col) {
+        return row / SECTOR_SIZE * sectorColumns + col / SECTOR_SIZE;
+    }
+
+    /**
+     * The entrances of a built sector and the distances between them. Never changes once built.
+     */
+    private static final class Sector {
+        private final int[] nodes;
+        private final int[] partners;
+        private final int[] distances;
+
+        /**
+         * Creates a built sector.
+         * @param nodes the cell of each entrance inside the sector.
+         * @param partners the cell across the border from each entrance.
+         * @param distances the distance from entrance i to entrance j at [i * nodes.length + j].
+         */
+        Sector(int[] nodes, int[] partners, int[] distances) {
+            this.nodes = nodes;
+            this.partners = partners;
+            this.distances = distances;
+        }
+    }
+
+    /**
+     * One thread's reusable buffers for searching within a sector and across the entrance graph.
+     */
+    private static final class Search {
+        private final int[] queue = new int[SECTOR_SIZE * SECTOR_SIZE];
+        private final int[] distance = new int[SECTOR_SIZE * SECTOR_SIZE];
+        private final int[] previous = new int[SECTOR_SIZE * SECTOR_SIZE];
+        private final int[] visitedStamp = new int[SECTOR_SIZE * SECTOR_SIZE];
+        private final boolean[] walkable = new boolean[SECTOR_SIZE * SECTOR_SIZE];
+        private final int[] goalDistances = new int[MAX_NODES];
+        private int stamp;
+        private int firstRow;
+        private int firstCol;
+        private int sectorRows;
+        private int sectorCols;
+
+        // Open-addressed table of entrance nodes reached by A*, cleared by moving to a new stamp
+        private int[] keys = new int[256];
+        private int[] costs = new int[256];
+        private int[] origins = new int[256];
+        private int[] slotStamp = new int[256];
+        private int tableStamp;
+        private int tableSize;
+
+        // Binary heap of (estimate, cost, node) for A*
+        private int[] heapEstimates = new int[256];
+        private int[] heapCosts = new int[256];
+        private int[] heapNodes = new int[256];
+        private int heapSize;
+
+        /**
+         * Searches breadth-first from a cell through the walkable cells of one sector.
+         * The start cell itself need not be walkable.
+         * @param graph the sector graph.
+         * @param sector the sector to search.
+         * @param startCell the cell index to start from.
+         * @param ground true to walk on any open ground, false only on cells a frog can move into now.
+         */
+        void searchSector(SectorGraph graph, int sector, int startCell, boolean ground) {
+            loadSector(graph, sector, ground);
+            searchLoaded(graph, startCell);
+        }
+
+        /**
+         * Reads which cells of a sector can be walked on, ready for searchLoaded.
+         * Reading them once saves asking the grid again for every search of the sector.
+         * @param graph the sector graph.
+         * @param sector the sector to read.
+         * @param ground true to count any open ground, false only cells a frog can move into now.
+         */
+        void loadSector(SectorGraph graph, int sector, boolean ground) {
+            firstRow = sector / graph.sectorColumns * SECTOR_SIZE;
+            firstCol = sector % graph.sectorColumns * SECTOR_SIZE;
+            sectorRows = Math.min(SECTOR_SIZE, graph.rows - firstRow);
+            sectorCols = Math.min(SECTOR_SIZE, graph.columns - firstCol);
+            for (int row = 0; row < sectorRows; row++) {
+                for (int col = 0; col < sectorCols; col++) {
+                    walkable[row * SECTOR_SIZE + col] = graph.isWalkable(firstRow + row, firstCol + col, ground);
+                }
+            }
+        }
+
+        /**
+         * Searches breadth-first from a cell through the sector last read by loadSector.
+         * The start cell itself need not be walkable.
+         * @param graph the sector graph.
+         * @param startCell the cell index to start from.
+         */
+        void searchLoaded(SectorGraph graph, int startCell) {
+            if (stamp == Integer.MAX_VALUE) {
+                Arrays.fill(visitedStamp, 0);
+                stamp = 0;
+            }
+            stamp++;
+
+            int start = localIndex(graph, startCell);
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            visitedStamp[start] = stamp;
+            distance[start] = 0;
+            previous[start] = -1;
+            // Sectors are searched hundreds of thousands of times when a big map is first built,
+            // so the four neighbours are checked in line
+            while (head < tail) {
+                int current = queue[head++];
+                int currRow = current / SECTOR_SIZE;
+                int currCol = current % SECTOR_SIZE;
+                int nextDistance = distance[current] + 1;
+                if (currRow > 0) {
+                    tail = visit(current - SECTOR_SIZE, current, nextDistance, tail);
+                }
+                if (currRow + 1 < sectorRows) {
+                    tail = visit(current + SECTOR_SIZE, current, nextDistance, tail);
+                }
+                if (currCol > 0) {
+                    tail = visit(current - 1, current, nextDistance, tail);
+                }
+                if (currCol + 1 < sectorCols) {
+                    tail = visit(current + 1, current, nextDistance, tail);
+                }
+            }
+        }
+
+        /**
+         * Queues a neighbouring cell in a sector search if it is walkable and not yet reached.
+         * @param next the index within the sector of the neighbour.
+         * @param current the index within the sector of the cell being searched from.
+         * @param nextDistance the distance to the neighbour through the current cell.
+         * @param tail the end of the queue.
+         * @return the new end of the queue.
+         */
+        private int visit(int next, int current, int nextDistance, int tail) {
+            if (visitedStamp[next] != stamp && walkable[next]) {
+                visitedStamp[next] = stamp;
+                distance[next] = nextDistance;
+                previous[next] = current;
+                queue[tail++] = next;
+            }
+            return tail;
+        }
+
+        /**
+         * Retrieves how far the last sector search got to a cell.
+         * @param graph the sector graph.
+         * @param cell a cell index inside the last searched sector.
+         * @return the distance, or UNREACHABLE.
+         */
+        int localDistance(SectorGraph graph, int cell) {
+            int local = localIndex(graph, cell);
+            return visitedStamp[local] == stamp ? distance[local] : UNREACHABLE;
+        }
+
+        /**
+         * Retrieves the cell the last sector search started from.
+         * @param graph the sector graph.
+         * @return the grid cell index of the start.
+         */
+        int startCell(SectorGraph graph) {
+            int start = queue[0];
+            return (firstRow + start / SECTOR_SIZE) * graph.columns + firstCol + start % SECTOR_SIZE;
+        }
+
+        /**
+         * Walks back along the last sector search from a cell to the step next to its start.
+         * @param graph the sector graph.
+         * @param cell the cell reached, inside the last searched sector.
+         * @param startCell the cell the search started from.
+         * @return the cell index of the first step from the start.
+         */
+        int firstStep(SectorGraph graph, int cell, int startCell) {
+            int start = localIndex(graph, startCell);
+            int step = localIndex(graph, cell);
+            while (previous[step] != start) {
+                step = previous[step];
+            }
+            return (firstRow + step / SECTOR_SIZE) * graph.columns + firstCol + step % SECTOR_SIZE;
+        }
+
+        /**
+         * Turns a grid cell index into an index within the last searched sector.
+         * @param graph the sector graph.
+         * @param cell the grid cell index.
+         * @return the index within the sector.
+         */
+        private int localIndex(SectorGraph graph, int cell) {
+            return (cell / graph.columns - firstRow) * SECTOR_SIZE + cell % graph.columns - firstCol;
+        }
+
+        /**
+         * Searches the entrance graph with A*, from the entrances the frog can reach in its
+         * sector to the entrances of the player's sector. Expects the frog's sector search
+         * and goalDistances to be filled in.
+         * @param graph the sector graph.
+         * @param frogSector the frog's sector.
+         * @param playerSector the player's sector.
+         * @param playerRow the player row position, for the heuristic.
+         * @param playerCol the player column position, for the heuristic.
+         * @return the cell of the entrance in the frog's sector that the best path
+         * leaves through, the cell across the border if the frog stands on that entrance,
+         * or FrogPathfinder.NO_MOVE if there is no path.
+         */
+        int searchEntrances(SectorGraph graph, int frogSector, int playerSector, int playerRow, int playerCol) {
+            clearTable();
+            heapSize = 0;
+            Sector start = graph.getSector(frogSector);
+            int frogCell = startCell(graph);
+            for (int i = 0; i < start.nodes.length; i++) {
+                if (start.nodes[i] == frogCell) {
+                    int crossing = graph.crossingFrom(start, i);
+                    if (crossing >= 0) {
+                        relax(graph, crossing, start.partners[i], 1, crossing, playerRow, playerCol);
+                    }
+                    continue;
+                }
+                int cost = localDistance(graph, start.nodes[i]);
+                if (cost != UNREACHABLE) {
+                    int node = frogSector * MAX_NODES + i;
+                    relax(graph, node, start.nodes[i], cost, node, playerRow, playerCol);
+                }
+            }
+
+            int bestCost = UNREACHABLE;
+            int bestOrigin = -1;
+            while (heapSize > 0) {
+                int estimate = heapEstimates[0];
+                int cost = heapCosts[0];
+                int node = heapNodes[0];
+                pop();
+                if (estimate >= bestCost) {
+                    break;
+                }
+                int slot = find(node);
+                if (costs[slot] != cost) {
+                    continue; // A cheaper way to this node was found after this entry was queued
+                }
+                int origin = origins[slot];
+                int sectorIndex = node / MAX_NODES;
+                int index = node % MAX_NODES;
+                Sector sector = graph.getSector(sectorIndex);
+                if (sectorIndex == playerSector && goalDistances[index] != UNREACHABLE
+                        && cost + goalDistances[index] < bestCost) {
+                    bestCost = cost + goalDistances[index];
+                    bestOrigin = origin;
+                }
+                int count = sector.nodes.length;
+                for (int j = 0; j < count; j++) {
+                    int between = sector.distances[index * count + j];
+                    if (j != index && between != UNREACHABLE) {
+                        relax(graph, sectorIndex * MAX_NODES + j, sector.nodes[j], cost + between,
+                                origin, playerRow, playerCol);
+                    }
+                }
+                // Cross the border to the matching entrance on the other side
+                int across = sector.partners[index];
+                int acrossSector = graph.sectorOf(across / graph.columns, across % graph.columns);
+                int partner = partnerIndex(graph.getSector(acrossSector), across, sector.nodes[index]);
+                if (partner >= 0) {
+                    relax(graph, acrossSector * MAX_NODES + partner, across, cost + 1, origin, playerRow, playerCol);
+                }
+            }
+            if (bestOrigin < 0) {
+                return FrogPathfinder.NO_MOVE;
+            }
+            return graph.getSector(bestOrigin / MAX_NODES).nodes[bestOrigin % MAX_NODES];
+        }
+
+        /**
+         * Searches the entrance graph from the player with Dijkstra's algorithm,
+         * to every entrance the player can reach.
+         * @param graph the sector graph.
+         * @param playerRow the player row position.
+         * @param playerCol the player column position.
+         * @param distances filled with the distance to each entrance node, or UNREACHABLE.
+         */
+        void searchFromPlayer(SectorGraph graph, int playerRow, int playerCol, int[] distances) {
+            Arrays.fill(distances, UNREACHABLE);
+            heapSize = 0;
+            int playerSector = graph.sectorOf(playerRow, playerCol);
+            Sector goal = graph.getSector(playerSector);
+            searchSector(graph, playerSector, playerRow * graph.columns + playerCol, true);
+            for (int i = 0; i < goal.nodes.length; i++) {
+                int cost = localDistance(graph, goal.nodes[i]);
+                if (cost != UNREACHABLE) {
+                    distances[playerSector * MAX_NODES + i] = cost;
+                    push(cost, cost, playerSector * MAX_NODES + i);
+                }
+            }
+
+            while (heapSize > 0) {
+                int cost = heapCosts[0];
+                int node = heapNodes[0];
+                pop();
+                if (distances[node] != cost) {
+                    continue; // A cheaper way to this node was found after this entry was queued
+                }
+                int sectorIndex = node / MAX_NODES;
+                int index = node % MAX_NODES;
+                Sector sector = graph.getSector(sectorIndex);
+                int count = sector.nodes.length;
+                for (int j = 0; j < count; j++) {
+                    int between = sector.distances[index * count + j];
+                    int next = sectorIndex * MAX_NODES + j;
+                    if (between != UNREACHABLE && cost + between < distances[next]) {
+                        distances[next] = cost + between;
+                        push(cost + between, cost + between, next);
+                    }
+                }
+                int across = sector.partners[index];
+                int acrossSector = graph.sectorOf(across / graph.columns, across % graph.columns);
+                int partner = partnerIndex(graph.getSector(acrossSector), across, sector.nodes[index]);
+                int next = acrossSector * MAX_NODES + partner;
+                if (partner >= 0 && cost + 1 < distances[next]) {
+                    distances[next] = cost + 1;
+                    push(cost + 1, cost + 1, next);
+                }
+            }
+        }
+
+        /**
+         * Records a way to reach an entrance node if it is cheaper than any found so far, and queues it.
+         * @param graph the sector graph.
+         * @param node the entrance node, sector * MAX_NODES + index.
+         * @param cell the cell of the entrance.
+         * @param cost the length of this way to it.
+         * @param origin the node in the frog's sector this way left through.
+         * @param playerRow the player row position, for the heuristic.
+         * @param playerCol the player column position, for the heuristic.
+         */
+        private void relax(SectorGraph graph, int node, int cell, int cost, int origin,
+                           int playerRow, int playerCol) {
+            int slot = find(node);
+            if (slotStamp[slot] == tableStamp && costs[slot] <= cost) {
+                return;
+            }
+            if (slotStamp[slot] != tableStamp) {
+                if ((tableSize + 1) * 2 > keys.length) {
+                    growTable();
+                    slot = find(node);
+                }
+                slotStamp[slot] = tableStamp;
+                keys[slot] = node;
+                tableSize++;
+            }
+            costs[slot] = cost;
+            origins[slot] = origin;
+            int estimate = cost + Math.abs(cell / graph.columns - playerRow)
+                    + Math.abs(cell % graph.columns - playerCol);
+            push(estimate, cost, node);
+        }
+
+        /**
+         * Finds the table slot of a node, or the empty slot where it would go.
+         * @param node the entrance node.
+         * @return the slot.
+         */
+        private int find(int node) {
+            int mask = keys.length - 1;
+            int slot = (node * 0x9E3779B9) >>> 1 & mask;
+            while (slotStamp[slot] == tableStamp && keys[slot] != node) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        /**
+         * Empties the table by moving on to a fresh stamp.
+         */
+        private void clearTable() {
+            if (tableStamp == Integer.MAX_VALUE) {
+                Arrays.fill(slotStamp, 0);
+                tableStamp = 0;
+            }
+            tableStamp++;
+            tableSize = 0;
+        }
+
+        /**
+         * Doubles the table, moving every current entry across.
+         */
+        private void growTable() {
+            int[] oldKeys = keys;
+            int[] oldCosts = costs;
+            int[] oldOrigins = origins;
+            int[] oldStamps = slotStamp;
+            int oldStamp = tableStamp;
+            keys = new int[oldKeys.length * 2];
+            costs = new int[oldKeys.length * 2];
+            origins = new int[oldKeys.length * 2];
+            slotStamp = new int[oldKeys.length * 2];
+            tableStamp = 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldStamps[i] == oldStamp) {
+                    int slot = find(oldKeys[i]);
+                    slotStamp[slot] = tableStamp;
+                    keys[slot] = oldKeys[i];
+                    costs[slot] = oldCosts[i];
+                    origins[slot] = oldOrigins[i];
+                }
+            }
+        }
+
+        /**
+         * Adds an entry to the heap.
+         * @param estimate the A* estimate of the whole path length through the node.
+         * @param cost the length of the path to the node.
+         * @param node the entrance node.
+         */
+        private void push(int estimate, int cost, int node) {
+            if (heapSize == heapNodes.length) {
+                heapEstimates = Arrays.copyOf(heapEstimates, heapSize * 2);
+                heapCosts = Arrays.copyOf(heapCosts, heapSize * 2);
+                heapNodes = Arrays.copyOf(heapNodes, heapSize * 2);
+            }
+            int i = heapSize++;
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (heapEstimates[parent] <= estimate) {
+                    break;
+                }
+                heapEstimates[i] = heapEstimates[parent];
+                heapCosts[i] = heapCosts[parent];
+                heapNodes[i] = heapNodes[parent];
+                i = parent;
+            }
+            heapEstimates[i] = estimate;
+            heapCosts[i] = cost;
+            heapNodes[i] = node;
+        }
+
+        /**
+         * Removes the entry with the lowest estimate from the heap.
+         */
+        private void pop() {
+            heapSize--;
+            int estimate = heapEstimates[heapSize];
+            int cost = heapCosts[heapSize];
+            int node = heapNodes[heapSize];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && heapEstimates[child + 1] < heapEstimates[child]) {
+                    child++;
+                }
+                if (heapEstimates[child] >= estimate) {
+                    break;
+                }
+                heapEstimates[i] = heapEstimates[child];
+                heapCosts[i] = heapCosts[child];
+                heapNodes[i] = heapNodes[child];
+                i = child;
+            }
+            heapEstimates[i] = estimate;
+            heapCosts[i] = cost;
+            heapNodes[i] = node;
+        }
+    }
+}
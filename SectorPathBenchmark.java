@@ -0,0 +1,226 @@
+import java.util.Arrays;
+
+/**
+ * Compares the two ways frogs can find their way to the player on a dense grid:
+ * a breadth-first search of the grid itself with FrogPathfinder, and a search of
+ * the SectorGraph, which is what setSectorPathfinding(true) turns on. It loads
+ * a level headless and has a sample of its frogs pick their next step both ways,
+ * timing each way. Each sampled frog then follows the sector graph's steps all
+ * the way to the player, and the length of its route is set against the true
+ * distance from the player, worked out once by a search of the whole grid.
+ * Nothing moves while it does, so a route can go round in circles where the sector
+ * graph counts creatures as ground but the frog's own sector search walks around
+ * them; these routes are counted, not failed, as the creatures would move on in a game.
+ * Large levels with walls and rooms, such as 1000x1000 ones, show the difference best.
+ * Run it from the command line; it exits with status 1 if the two ways disagree on
+ * which frogs can reach the player, if a grid search does not take a shortest step,
+ * or if a route through the sector graph comes to a dead end.
+ * @author Alex Vesely
+ */
+public class SectorPathBenchmark {
+    private static final int DEFAULT_SAMPLES = 100;
+    private static final int UNREACHABLE = -1;
+    private static final int LOOPED = -2;
+    private static final double NANOS_PER_MICRO = 1_000.0;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final int[][] DIRECTIONS = {
+            {-1, 0}, {1, 0}, {0, -1}, {0, 1} // Up, down, left, right
+    };
+
+    /**
+     * Runs the benchmark on a level.
+     * @param args the level file, then optionally the number of frogs to sample.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: SectorPathBenchmark levelFile [samples]");
+            return;
+        }
+        int samples = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SAMPLES;
+        GridManager gridManager = FileHandler.readGridManagerFromLevelFile(args[0]);
+        if (gridManager.isChunked()) {
+            System.out.println("Chunked grids can only be searched through their sector graph");
+            return;
+        }
+        Player player = gridManager.getPlayer();
+        if (player == null) {
+            System.out.println("The level has no player");
+            return;
+        }
+        EnemyStore<Frog> frogs = gridManager.getFrogs();
+        int sampled = Math.min(samples, frogs.size());
+        int[] frogRows = new int[sampled];
+        int[] frogCols = new int[sampled];
+        for (int i = 0; i < sampled; i++) {
+            // Spread the sample over the whole list
+            Frog frog = frogs.get((int) ((long) i * frogs.size() / sampled));
+            frogRows[i] = frog.getRow();
+            frogCols[i] = frog.getColumn();
+        }
+        int[] distances = distancesFromPlayer(gridManager, player);
+        int cols = gridManager.getColumns();
+
+        gridManager.setSectorPathfinding(false);
+        FrogPathfinder pathfinder = gridManager.getFrogPathfinder();
+        int[] gridSteps = new int[sampled];
+        long start = System.nanoTime();
+        for (int i = 0; i < sampled; i++) {
+            gridSteps[i] = pathfinder.findNextStep(gridManager, frogRows[i], frogCols[i],
+                    player.getRow(), player.getColumn());
+        }
+        long gridNanos = System.nanoTime() - start;
+
+        gridManager.setSectorPathfinding(true);
+        SectorGraph sectorGraph = gridManager.getSectorGraph();
+        start = System.nanoTime();
+        sectorGraph.refresh(player);
+        long refreshNanos = System.nanoTime() - start;
+        int[] sectorSteps = new int[sampled];
+        start = System.nanoTime();
+        for (int i = 0; i < sampled; i++) {
+            sectorSteps[i] = sectorGraph.findNextStep(frogRows[i], frogCols[i],
+                    player.getRow(), player.getColumn());
+        }
+        long sectorNanos = System.nanoTime() - start;
+
+        boolean failed = false;
+        int reachable = 0;
+        long shortest = 0;
+        long bySectors = 0;
+        int shortestSteps = 0;
+        int looped = 0;
+        int[] visitedBy = new int[distances.length];
+        for (int i = 0; i < sampled; i++) {
+            if ((gridSteps[i] == FrogPathfinder.NO_MOVE) != (sectorSteps[i] == FrogPathfinder.NO_MOVE)) {
+                System.out.println("Frog at " + frogRows[i] + "," + frogCols[i] + " can reach the player by "
+                        + (gridSteps[i] == FrogPathfinder.NO_MOVE ? "the sector graph" : "the grid") + " only");
+                failed = true;
+            } else if (gridSteps[i] != FrogPathfinder.NO_MOVE) {
+                reachable++;
+                if (distances[sectorSteps[i]] == distances[gridSteps[i]]) {
+                    shortestSteps++;
+                }
+                if (distances[gridSteps[i]] + 1 != shortestFrom(distances, gridManager, frogRows[i], frogCols[i])) {
+                    System.out.println("The grid search from " + frogRows[i] + "," + frogCols[i]
+                            + " did not take a shortest step");
+                    failed = true;
+                }
+                int route = followRoute(sectorGraph, frogRows[i], frogCols[i], player, cols, visitedBy, i + 1);
+                if (route == UNREACHABLE) {
+                    System.out.println("The route from " + frogRows[i] + "," + frogCols[i] + " comes to a dead end");
+                    failed = true;
+                } else if (route == LOOPED) {
+                    looped++;
+                } else {
+                    shortest += 1 + distances[gridSteps[i]];
+                    bySectors += route;
+                }
+            }
+        }
+
+        System.out.println(gridManager.getColumns() + "x" + gridManager.getRows() + " cells, "
+                + sampled + " of " + frogs.size() + " frogs sampled, " + reachable + " can reach the player");
+        System.out.printf("Grid search: %.1f us per frog%n", gridNanos / NANOS_PER_MICRO / sampled);
+        System.out.printf("Sector graph: %.1f ms to build and refresh, %.1f us per frog%n",
+                refreshNanos / NANOS_PER_MILLI, sectorNanos / NANOS_PER_MICRO / sampled);
+        if (reachable > 0) {
+            System.out.printf("Sector routes are %.2f%% longer than the shortest, %d of %d first steps are on a shortest path%n",
+                    100.0 * (bySectors - shortest) / Math.max(1, shortest), shortestSteps, reachable);
+            System.out.println(looped + " of " + reachable + " routes go round in circles among creatures that stay put");
+        }
+        if (failed) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Works out how far every cell is from the player, moving only through cells frogs can enter.
+     * @param gridManager the grid to search.
+     * @param player the player.
+     * @return the distance of every cell, by cell index, or UNREACHABLE.
+     */
+    private static int[] distancesFromPlayer(GridManager gridManager, Player player) {
+        int rows = gridManager.getRows();
+        int cols = gridManager.getColumns();
+        int[] distances = new int[rows * cols];
+        Arrays.fill(distances, UNREACHABLE);
+        int[] queue = new int[rows * cols];
+        int head = 0;
+        int tail = 0;
+        int playerCell = player.getRow() * cols + player.getColumn();
+        queue[tail++] = playerCell;
+        distances[playerCell] = 0;
+        while (head < tail) {
+            int current = queue[head++];
+            for (int[] dir : DIRECTIONS) {
+                int row = current / cols + dir[0];
+                int col = current % cols + dir[1];
+                if (gridManager.isInBounds(row, col) && distances[row * cols + col] == UNREACHABLE
+                        && gridManager.getElement(row, col).getKind().has(ElementKind.FROG_ENTERABLE)) {
+                    distances[row * cols + col] = distances[current] + 1;
+                    queue[tail++] = row * cols + col;
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Follows the sector graph's steps from a frog until it stands on the player.
+     * The player does not move, so every step after the first uses the same refresh.
+     * @param sectorGraph the refreshed sector graph.
+     * @param frogRow the frog row position.
+     * @param frogCol the frog column position.
+     * @param player the player.
+     * @param cols the number of columns in the grid.
+     * @param visitedBy the route that last stepped on each cell, by cell index.
+     * @param route a number for this route that no other route uses.
+     * @return the number of steps taken, UNREACHABLE if the route comes to a dead end,
+     * or LOOPED if it steps on a cell it has already stepped on.
+     */
+    private static int followRoute(SectorGraph sectorGraph, int frogRow, int frogCol,
+                                   Player player, int cols, int[] visitedBy, int route) {
+        int playerCell = player.getRow() * cols + player.getColumn();
+        int row = frogRow;
+        int col = frogCol;
+        for (int steps = 1; ; steps++) {
+            int step = sectorGraph.findNextStep(row, col, player.getRow(), player.getColumn());
+            if (step == FrogPathfinder.NO_MOVE) {
+                return UNREACHABLE;
+            }
+            if (step == playerCell) {
+                return steps;
+            }
+            if (visitedBy[step] == route) {
+                return LOOPED;
+            }
+            visitedBy[step] = route;
+            row = step / cols;
+            col = step % cols;
+        }
+    }
+
+    /**
+     * Works out the length of a shortest path from a frog to the player.
+     * @param distances the distances from the player, by cell index.
+     * @param gridManager the grid.
+     * @param frogRow the frog row position.
+     * @param frogCol the frog column position.
+     * @return the number of steps on a shortest path, or UNREACHABLE.
+     */
+    private static int shortestFrom(int[] distances, GridManager gridManager, int frogRow, int frogCol) {
+        int best = UNREACHABLE;
+        for (int[] dir : DIRECTIONS) {
+            int row = frogRow + dir[0];
+            int col = frogCol + dir[1];
+            if (gridManager.isInBounds(row, col)) {
+                int distance = distances[row * gridManager.getColumns() + col];
+                if (distance != UNREACHABLE && (best == UNREACHABLE || distance + 1 < best)) {
+                    best = distance + 1;
+                }
+            }
+        }
+        return best;
+    }
+}
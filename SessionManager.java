@@ -0,0 +1,179 @@
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs many headless GameSessions at once on a work-stealing ForkJoinPool,
+ * for bot leagues and automated level testing. Each session runs a slice of
+ * steps at a time and then queues its next slice behind the others, so thousands
+ * of sessions share a handful of threads fairly, and idle threads steal slices
+ * from busy ones. Every session owns all of its game state, so sessions never
+ * share anything but the pool.
+ * @author Alex Vesely
+ */
+public class SessionManager {
+    private static final int STEPS_PER_SLICE = 64;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    private final ForkJoinPool pool;
+    private final ArrayList<GameSession> sessions = new ArrayList<>();
+    private final LatencyHistogram tickLatencies = new LatencyHistogram();
+    private long wallNanos;
+
+    /**
+     * Creates a session manager.
+     * @param parallelism the number of threads sessions are run on.
+     */
+    public SessionManager(int parallelism) {
+        // Async mode runs queued slices first in, first out, so sessions take turns
+        this.pool = new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+    }
+
+    /**
+     * Adds a session to be run by the next call to runAll.
+     * @param session the session to add.
+     */
+    public void addSession(GameSession session) {
+        sessions.add(session);
+    }
+
+    /**
+     * Runs every session until it finishes, then gathers their tick latencies.
+     * @throws InterruptedException if interrupted while waiting for the sessions.
+     */
+    public void runAll() throws InterruptedException {
+        CountDownLatch remaining = new CountDownLatch(sessions.size());
+        long start = System.nanoTime();
+        for (GameSession session : sessions) {
+            pool.execute(new SessionSlice(session, remaining));
+        }
+        remaining.await();
+        wallNanos = System.nanoTime() - start;
+
+        for (GameSession session : sessions) {
+            tickLatencies.merge(session.getTickLatencies());
+        }
+    }
+
+    /**
+     * Shuts the pool down once the sessions are no longer needed.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Retrieves the number of ticks run by every session per second of wall-clock time.
+     * @return the aggregate ticks per second.
+     */
+    public double getTicksPerSecond() {
+        return wallNanos == 0 ? 0 : tickLatencies.getCount() * NANOS_PER_SECOND / wallNanos;
+    }
+
+    /**
+     * Retrieves the wall-clock cost of every tick run by every session.
+     * @return the merged tick latency histogram.
+     */
+    public LatencyHistogram getTickLatencies() {
+        return tickLatencies;
+    }
+
+    /**
+     * Builds a one-line summary of the last run.
+     * @return the report.
+     */
+    public String getReport() {
+        long gameNanos = 0;
+        int won = 0;
+        long searchesAvoided = 0;
+        int failed = 0;
+        for (GameSession session : sessions) {
+            gameNanos += session.getSimulatedNanos();
+            won += session.isWon() ? 1 : 0;
+            failed += session.getFailure() != null ? 1 : 0;
+            Connectivity connectivity = session.getGameController().getGridManager().getConnectivity();
+            searchesAvoided += connectivity == null ? 0 : connectivity.getSearchesAvoided();
+        }
+        return String.format("%d sessions (%d won, %d failed) on %d threads in %.2f s: %.0f ticks/s,"
+                        + " %.0fx real time, tick p50 %.1f us, p99 %.1f us, max %.1f us,"
+                        + " %d frog searches avoided",
+                sessions.size(), won, failed, pool.getParallelism(), wallNanos / NANOS_PER_SECOND,
+                getTicksPerSecond(), wallNanos == 0 ? 0 : (double) gameNanos / wallNanos,
+                tickLatencies.getPercentile(50) / NANOS_PER_MICRO,
+                tickLatencies.getPercentile(99) / NANOS_PER_MICRO,
+                tickLatencies.getMax() / NANOS_PER_MICRO, searchesAvoided);
+    }
+
+    /**
+     * Runs a batch of bot sessions on a level and prints the report.
+     * Usage: SessionManager levelFile [sessions] [threads] [detailRadius farInterval]
+     * @param args the level file, then optionally the number of sessions and threads,
+     *             and a level of detail to run the sessions at.
+     * @throws InterruptedException if interrupted while waiting for the sessions.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Usage: SessionManager levelFile [sessions] [threads] [detailRadius farInterval]");
+            return;
+        }
+        LevelData level = FileHandler.readLevelData(args[0]);
+        int sessionCount = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        DetailLevel detailLevel = args.length > 4
+                ? new DetailLevel(Integer.parseInt(args[3]), Integer.parseInt(args[4])) : null;
+
+        SessionManager manager = new SessionManager(threads);
+        for (int i = 0; i < sessionCount; i++) {
+            GameSession session = new GameSession(i, level, i);
+            session.getGameController().setDetailLevel(detailLevel);
+            manager.addSession(session);
+        }
+        manager.runAll();
+        manager.shutdown();
+        System.out.println(manager.getReport());
+        for (GameSession session : manager.sessions) {
+            if (session.getFailure() != null) {
+                System.out.println("Session " + session.getId() + " stopped on a failed tick:");
+                session.getFailure().printStackTrace(System.out);
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * Runs up to STEPS_PER_SLICE steps of one session, then queues the next slice
+     * behind the other sessions' slices, or counts the session down once it has finished.
+     */
+    private static class SessionSlice extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final GameSession session;
+        private final CountDownLatch remaining;
+
+        /**
+         * Creates a slice of a session.
+         * @param session the session to step.
+         * @param remaining counted down when the session finishes.
+         */
+        SessionSlice(GameSession session, CountDownLatch remaining) {
+            this.session = session;
+            this.remaining = remaining;
+        }
+
+        /**
+         * Steps the session and schedules whatever comes next.
+         */
+        @Override
+        protected void compute() {
+            for (int i = 0; i < STEPS_PER_SLICE; i++) {
+                if (!session.step()) {
+                    remaining.countDown();
+                    return;
+                }
+            }
+            new SessionSlice(session, remaining).fork();
+        }
+    }
+}
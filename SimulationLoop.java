@@ -0,0 +1,195 @@
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Runs the game rules on their own thread, so a slow tick never holds up input
+ * or painting on the JavaFX Application Thread, and painting never holds up a tick.
+ * Each tick keeps the period its Timeline used to have, kept by a TickScheduler. Whenever a tick asks for
+ * a redraw, the loop publishes a new immutable FrameSnapshot through a single
+ * atomic slot, and the JavaFX side only ever reads the latest one.
+ * Anything else that needs to touch the grid from outside is submitted as a
+ * command and run on the simulation thread between ticks.
+ * @author Alex Vesely
+ */
+public class SimulationLoop implements Runnable {
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final long IDLE_WAIT_NANOS = 50 * NANOS_PER_MILLI;
+
+    private final GameController gameController;
+    private final Camera camera;
+    private final Runnable onLevelComplete;
+    private final Consumer<RuntimeException> onTickFailure;
+    private final TickScheduler scheduler;
+    private final LongConsumer tickRecorder = this::recordTick;
+    private final AtomicReference<FrameSnapshot> latestFrame = new AtomicReference<>();
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private volatile boolean stopped;
+    private volatile PerformanceOverlay performanceOverlay;
+    private long frameSequence;
+    private boolean failureReported;
+
+    /**
+     * Creates a paused simulation for a loaded level and publishes its first frame.
+     * @param gameController the game controller holding the rules and the grid.
+     * @param amoebaGrowthRate the amoeba tick period in milliseconds.
+     * @param viewportWidth the width of the game canvas, in pixels.
+     * @param viewportHeight the height of the game canvas, in pixels.
+     * @param onLevelComplete called on the simulation thread when the player wins.
+     * @param onTickFailure called on the simulation thread with the exception of a tick
+     *                      or command that failed, after which the ticks stay stopped.
+     */
+    public SimulationLoop(GameController gameController, int amoebaGrowthRate,
+                          double viewportWidth, double viewportHeight, Runnable onLevelComplete,
+                          Consumer<RuntimeException> onTickFailure) {
+        this.gameController = gameController;
+        this.camera = new Camera(viewportWidth, viewportHeight, Main.GRID_CELL_WIDTH, Main.GRID_CELL_HEIGHT);
+        this.onLevelComplete = onLevelComplete;
+        this.onTickFailure = onTickFailure;
+        this.scheduler = TickScheduler.forGame(gameController, amoebaGrowthRate, this::checkLevelWin);
+        this.thread = new Thread(this, "simulation");
+        this.thread.setDaemon(true);
+        publishFrame();
+    }
+
+    /**
+     * Starts the simulation thread. The game stays paused until setRunning(true).
+     */
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Stops the simulation thread and waits for it to finish its current step,
+     * so the grid can safely be used by the calling thread afterwards.
+     */
+    public void stop() {
+        stopped = true;
+        LockSupport.unpark(thread);
+        if (thread.isAlive() && Thread.currentThread() != thread) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Resumes or pauses the ticks. Resumed ticks first fire one full period later,
+     * as a Timeline does when it is played.
+     * @param running true to run the ticks, false to pause them.
+     */
+    public void setRunning(boolean running) {
+        submit(() -> scheduler.setRunning(running, System.nanoTime()));
+    }
+
+    /**
+     * Runs a command on the simulation thread before the next tick.
+     * @param command the command to run.
+     */
+    public void submit(Runnable command) {
+        commands.add(command);
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Retrieves the most recently published frame. Safe to call from any thread.
+     * @return the latest frame.
+     */
+    public FrameSnapshot getLatestFrame() {
+        return latestFrame.get();
+    }
+
+    /**
+     * Retrieves the thread the simulation runs on.
+     * @return the simulation thread.
+     */
+    public Thread getThread() {
+        return thread;
+    }
+
+    /**
+     * Sets the overlay that tick costs and draw requests are reported to.
+     * @param performanceOverlay the overlay, or null to stop reporting.
+     */
+    public void setPerformanceOverlay(PerformanceOverlay performanceOverlay) {
+        this.performanceOverlay = performanceOverlay;
+    }
+
+    /**
+     * The body of the simulation thread. Runs pending commands, then every tick
+     * that is due, reports a tick or command that failed, publishes a frame if a redraw was
+     * requested, and sleeps until the next tick is due or a command arrives.
+     */
+    @Override
+    public void run() {
+        while (!stopped) {
+            Runnable command;
+            while ((command = commands.poll()) != null) {
+                try {
+                    gameController.getGridManager().write(command);
+                } catch (RuntimeException e) {
+                    // Reported below, with the ticks stopped as for a failed tick
+                    scheduler.fail(e);
+                }
+            }
+
+            long wait = Math.min(IDLE_WAIT_NANOS, scheduler.runDue(System.nanoTime(), tickRecorder));
+            if (scheduler.getFailure() != null && !failureReported) {
+                failureReported = true;
+                onTickFailure.accept(scheduler.getFailure());
+            }
+
+            int drawRequests = gameController.consumeDrawRequests();
+            if (drawRequests > 0) {
+                PerformanceOverlay overlay = performanceOverlay;
+                if (overlay != null) {
+                    overlay.recordDrawRequests(drawRequests);
+                }
+                publishFrame();
+            }
+
+            if (wait > 0 && commands.isEmpty()) {
+                LockSupport.parkNanos(this, wait);
+            }
+        }
+    }
+
+    /**
+     * Reports the cost of a tick to the performance overlay, if there is one.
+     * @param tickNanos how long the tick took, in nanoseconds.
+     */
+    private void recordTick(long tickNanos) {
+        PerformanceOverlay overlay = performanceOverlay;
+        if (overlay != null) {
+            overlay.recordTick(tickNanos);
+        }
+    }
+
+    /**
+     * Pauses the game and reports the win if the player has completed the level.
+     */
+    private void checkLevelWin() {
+        if (gameController.checkLevelWinTick()) {
+            scheduler.pause();
+            onLevelComplete.run();
+        }
+    }
+
+    /**
+     * Moves the camera to the player and publishes a snapshot of what it sees.
+     */
+    private void publishFrame() {
+        GridManager gridManager = gameController.getGridManager();
+        Player player = gridManager.getPlayer();
+        if (player != null) {
+            camera.follow(player.getRow(), player.getColumn(), gridManager.getRows(), gridManager.getColumns());
+        }
+        latestFrame.set(FrameSnapshot.capture(frameSequence++, gridManager, camera,
+                gameController.getDiamondsRequired()));
+    }
+}
@@ -0,0 +1,174 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Random;
+import java.util.function.LongConsumer;
+
+/**
+ * Soaks the simulation for memory leaks and slowdowns. It plays a level headless
+ * for many simulated minutes, resetting it after every minute: by reloading the
+ * grid in place, as the Reset Level button does, and by making a whole new game,
+ * as an environment reset does, in turn. After each reset it checks that the
+ * grid's lists hold what the level holds, and records the heap retained after a
+ * full collection and the mean cost of a tick over the minute.
+ * Run it from the command line; it exits with status 1 if a list comes back from
+ * a reset bigger than it started, or if the retained heap or tick cost of the
+ * last quarter of the run has grown past the first quarter's.
+ * @author Alex Vesely
+ */
+public class SoakTest {
+    private static final int DEFAULT_MINUTES = 120;
+    private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+    private static final int SEED = 7;
+    // Growth in retained heap put down to noise
+    private static final long HEAP_SLACK_BYTES = 1 << 20;
+    // How many times slower the last quarter's ticks may be than the first quarter's
+    private static final double TICK_COST_GROWTH = 2.0;
+    // Ignores every tick's cost, without a lambda made per call
+    private static final LongConsumer NO_COST = cost -> { };
+
+    private final String levelFile;
+    private final LevelData level;
+    private final Random inputs = new Random(SEED);
+    private final GameController.PlayerInput[] directions = GameController.PlayerInput.values();
+    private GameController gameController;
+    private TickScheduler scheduler;
+    private long ticksRun;
+
+    /**
+     * Sets up a level to be soaked, with a first game made.
+     * @param levelFile the path of the level file.
+     */
+    public SoakTest(String levelFile) {
+        this.levelFile = levelFile;
+        this.level = FileHandler.readLevelData(levelFile);
+        newGame();
+    }
+
+    /**
+     * Throws the current game away and makes a new one from the level.
+     */
+    public void newGame() {
+        gameController = level.createGame(SEED);
+        scheduler = TickScheduler.forGame(gameController, level.getAmoebaGrowthRate(), () -> { });
+        scheduler.setRunning(true, 0);
+    }
+
+    /**
+     * Reloads the level into the current game's grid, keeping the game.
+     */
+    public void reloadGrid() {
+        FileHandler.reloadGridFromLevelFile(levelFile, gameController.getGridManager());
+        FileHandler.applyLevelSettings(gameController, levelFile);
+    }
+
+    /**
+     * Plays a simulated minute of the current game, feeding the player random moves.
+     * @return the mean wall-clock cost of a tick, in nanoseconds.
+     */
+    public double playMinute() {
+        long start = scheduler.getNextDue();
+        long ticksBefore = ticksRun;
+        long began = System.nanoTime();
+        for (long now = start; now - start < NANOS_PER_MINUTE; now = scheduler.getNextDue()) {
+            gameController.registerInput(directions[inputs.nextInt(directions.length)]);
+            scheduler.runDue(now, NO_COST);
+            ticksRun++;
+        }
+        return (double) (System.nanoTime() - began) / Math.max(1, ticksRun - ticksBefore);
+    }
+
+    /**
+     * Retrieves the sizes of the current grid's lists.
+     * @return the sizes of its boulders, diamonds, flies, frogs, amoebas and amoeba groups.
+     */
+    public int[] listSizes() {
+        GridManager gridManager = gameController.getGridManager();
+        return new int[] {
+                gridManager.getBoulders().size(),
+                gridManager.getDiamonds().size(),
+                gridManager.getFlies().size(),
+                gridManager.getFrogs().size(),
+                gridManager.getAmoebas().size(),
+                gridManager.getAmoebaGroups().size()
+        };
+    }
+
+    /**
+     * Measures the heap still reachable, after collecting everything that is not.
+     * @return the bytes of heap in use.
+     */
+    public static long retainedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        memory.gc();
+        memory.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Runs the soak test on a level.
+     * @param args the level file, then optionally the number of simulated minutes to play.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: SoakTest levelFile [minutes]");
+            return;
+        }
+        int minutes = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MINUTES;
+        if (minutes < 4) {
+            throw new IllegalArgumentException("The soak needs at least 4 minutes to compare its quarters");
+        }
+        SoakTest soak = new SoakTest(args[0]);
+        int[] loadedSizes = soak.listSizes();
+        long[] heap = new long[minutes];
+        double[] tickCost = new double[minutes];
+        boolean failed = false;
+
+        for (int minute = 0; minute < minutes; minute++) {
+            tickCost[minute] = soak.playMinute();
+            if (minute % 2 == 0) {
+                soak.reloadGrid();
+            } else {
+                soak.newGame();
+            }
+            int[] sizes = soak.listSizes();
+            for (int i = 0; i < sizes.length; i++) {
+                if (sizes[i] != loadedSizes[i]) {
+                    System.out.println("Minute " + minute + ": list " + i + " holds " + sizes[i]
+                            + " after a reset, not " + loadedSizes[i]);
+                    failed = true;
+                }
+            }
+            heap[minute] = retainedHeap();
+            System.out.printf("Minute %d: %.0f ns per tick, %d bytes retained%n",
+                    minute, tickCost[minute], heap[minute]);
+        }
+
+        // The first minute warms the JIT up, so the first quarter starts after it
+        int quarter = minutes / 4;
+        long firstHeap = 0;
+        double firstCost = Double.MAX_VALUE;
+        for (int minute = 1; minute <= quarter; minute++) {
+            firstHeap = Math.max(firstHeap, heap[minute]);
+            firstCost = Math.min(firstCost, tickCost[minute]);
+        }
+        long lastHeap = Long.MAX_VALUE;
+        double lastCost = Double.MAX_VALUE;
+        for (int minute = minutes - quarter; minute < minutes; minute++) {
+            lastHeap = Math.min(lastHeap, heap[minute]);
+            lastCost = Math.min(lastCost, tickCost[minute]);
+        }
+        System.out.println(soak.ticksRun + " ticks over " + minutes + " minutes");
+        if (lastHeap > firstHeap + HEAP_SLACK_BYTES) {
+            System.out.println("Retained heap grew from " + firstHeap + " to " + lastHeap + " bytes");
+            failed = true;
+        }
+        if (lastCost > firstCost * TICK_COST_GROWTH) {
+            System.out.printf("Tick cost grew from %.0f to %.0f ns%n", firstCost, lastCost);
+            failed = true;
+        }
+        if (failed) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+    }
+}
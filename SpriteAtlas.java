@@ -0,0 +1,72 @@
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+
+/**
+ * Packs every grid sprite into a single ARGB pixel array, one cell-sized slot
+ * per sprite laid out side by side in the order of Sprites.GRID_SPRITES.
+ * Each sprite is composited over the grid background once when the atlas is
+ * built, so copying a sprite into a frame is a plain row-by-row array copy
+ * with no blending. JavaFX does the compositing, layering a canvas of sprites
+ * over a canvas of background just as Renderer does, so the blended pixels
+ * round exactly as Renderer's do.
+ * @author Alex Vesely
+ */
+public class SpriteAtlas {
+    private final int spriteWidth;
+    private final int spriteHeight;
+    private final int atlasWidth;
+    private final int[] pixels;
+
+    /**
+     * Builds the atlas by loading every grid sprite.
+     * Must be called on the JavaFX Application Thread, as the sprites are composited by snapshot.
+     * @param spriteWidth the width of a sprite, in pixels.
+     * @param spriteHeight the height of a sprite, in pixels.
+     * @param background the opaque ARGB colour the sprites are drawn over.
+     */
+    public SpriteAtlas(int spriteWidth, int spriteHeight, int background) {
+        this.spriteWidth = spriteWidth;
+        this.spriteHeight = spriteHeight;
+        this.atlasWidth = spriteWidth * Sprites.GRID_SPRITES.length;
+        this.pixels = new int[atlasWidth * spriteHeight];
+
+        Canvas backgroundLayer = new Canvas(atlasWidth, spriteHeight);
+        GraphicsContext backgroundGc = backgroundLayer.getGraphicsContext2D();
+        backgroundGc.setFill(Color.rgb((background >> 16) & 0xFF, (background >> 8) & 0xFF, background & 0xFF));
+        backgroundGc.fillRect(0, 0, atlasWidth, spriteHeight);
+        Canvas spriteLayer = new Canvas(atlasWidth, spriteHeight);
+        GraphicsContext spriteGc = spriteLayer.getGraphicsContext2D();
+        for (int slot = 0; slot < Sprites.GRID_SPRITES.length; slot++) {
+            spriteGc.drawImage(new Image(Sprites.GRID_SPRITES[slot]), slot * spriteWidth, 0);
+        }
+        WritableImage atlas = new StackPane(backgroundLayer, spriteLayer).snapshot(null, null);
+        atlas.getPixelReader().getPixels(0, 0, atlasWidth, spriteHeight,
+                PixelFormat.getIntArgbInstance(), pixels, 0, atlasWidth);
+    }
+
+    /**
+     * Copies a sprite into a frame buffer, clipped to the frame.
+     * @param slot the atlas slot of the sprite, which is its index in Sprites.GRID_SPRITES.
+     * @param frame the ARGB frame buffer.
+     * @param frameWidth the width of the frame, in pixels.
+     * @param frameHeight the height of the frame, in pixels.
+     * @param x the left edge of the sprite in the frame.
+     * @param y the top edge of the sprite in the frame.
+     */
+    public void copyTo(int slot, int[] frame, int frameWidth, int frameHeight, int x, int y) {
+        int width = Math.min(spriteWidth, frameWidth - x);
+        int height = Math.min(spriteHeight, frameHeight - y);
+        int source = slot * spriteWidth;
+        int target = y * frameWidth + x;
+        for (int row = 0; row < height; row++) {
+            System.arraycopy(pixels, source, frame, target, width);
+            source += atlasWidth;
+            target += frameWidth;
+        }
+    }
+}
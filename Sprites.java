@@ -0,0 +1,51 @@
+import java.util.HashMap;
+
+/**
+ * Names every sprite used to draw the grid. Elements only hold the index of
+ * their sprite, so the game rules never load an image and can run without JavaFX.
+ * The renderers turn these indices into images.
+ * @author Alex Vesely
+ */
+public class Sprites {
+    /**
+     * Every sprite used to draw the grid, in atlas order.
+     */
+    public static final String[] GRID_SPRITES = {
+            "images/amoeba.png", "images/boulder.png", "images/butterfly.png",
+            "images/diamond.png", "images/dirt.png", "images/exit.png",
+            "images/explosion.png", "images/firefly.png", "images/frog.png",
+            "images/magic-wall.png", "images/normal-wall.png", "images/titanium-wall.png",
+            "images/player.png", "images/player-looking-right.png",
+            "images/red-key.png", "images/green-key.png", "images/yellow-key.png",
+            "images/blue-key.png", "images/rainbow-key.png",
+            "images/red-locked-door.png", "images/green-locked-door.png",
+            "images/yellow-locked-door.png", "images/blue-locked-door.png"
+    };
+
+    /**
+     * The sprite index of an element that is not drawn.
+     */
+    public static final int NO_SPRITE = -1;
+
+    private static final HashMap<String, Integer> INDICES = new HashMap<>();
+
+    static {
+        for (int i = 0; i < GRID_SPRITES.length; i++) {
+            INDICES.put(GRID_SPRITES[i], i);
+        }
+    }
+
+    /**
+     * Finds the index of a sprite file in GRID_SPRITES.
+     * @param path the path of the sprite, e.g. "images/dirt.png".
+     * @return the sprite index.
+     * @throws IllegalArgumentException if the file is not a grid sprite.
+     */
+    public static int index(String path) {
+        Integer index = INDICES.get(path);
+        if (index == null) {
+            throw new IllegalArgumentException("Not a grid sprite: " + path);
+        }
+        return index;
+    }
+}
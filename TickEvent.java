@@ -0,0 +1,25 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event emitted each time a simulation tick is executed.
+ * The event's duration covers the whole tick, so it can be lined up
+ * against GC pauses and other JVM events in JDK Mission Control.
+ * @author Alex Vesely
+ */
+@Name("boulderdash.Tick")
+@Label("Simulation Tick")
+@Category({"Boulder Dash", "Simulation"})
+@Description("A single tick of one game subsystem")
+public class TickEvent extends jdk.jfr.Event {
+
+    @Label("Subsystem")
+    @Description("The subsystem that ticked, e.g. player, fly or rockFall")
+    String subsystem;
+
+    @Label("Entities Processed")
+    @Description("The number of entities the tick iterated over")
+    int entitiesProcessed;
+}
@@ -0,0 +1,173 @@
+import java.util.function.LongConsumer;
+
+/**
+ * Keeps the deadlines of a set of periodic ticks and runs the ones that are due.
+ * It does not read the clock itself: the caller passes in the current time,
+ * so the same schedule can follow the real clock on the simulation thread
+ * or a simulated clock in a headless GameSession.
+ * @author Alex Vesely
+ */
+public class TickScheduler {
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final Runnable[] ticks;
+    private final long[] periods;
+    private final long[] nextDue;
+    private boolean running;
+    private RuntimeException failure;
+
+    /**
+     * Creates a paused schedule.
+     * @param ticks the ticks to run, checked in this order whenever several are due.
+     * @param periodsMillis the period of each tick, in milliseconds.
+     */
+    public TickScheduler(Runnable[] ticks, long[] periodsMillis) {
+        this.ticks = ticks;
+        this.periods = new long[ticks.length];
+        for (int i = 0; i < ticks.length; i++) {
+            this.periods[i] = periodsMillis[i] * NANOS_PER_MILLI;
+        }
+        this.nextDue = new long[ticks.length];
+    }
+
+    /**
+     * Creates the paused schedule of a game, with each tick at the period its Timeline used to have.
+     * @param gameController the game controller whose ticks are run.
+     * @param amoebaGrowthRate the amoeba tick period in milliseconds.
+     * @param checkLevelWin run every 49 milliseconds to check whether the player has won.
+     * @return the new schedule.
+     */
+    public static TickScheduler forGame(GameController gameController, int amoebaGrowthRate,
+                                        Runnable checkLevelWin) {
+        GridManager gridManager = gameController.getGridManager();
+        Runnable[] ticks = new Runnable[] {
+                locked(gridManager, gameController::playerTick),
+                locked(gridManager, gameController::killTick),
+                locked(gridManager, gameController::dangerousRockRollTick),
+                locked(gridManager, gameController::dangerousRockFallTick),
+                locked(gridManager, gameController::flyTick),
+                locked(gridManager, gameController::frogTick),
+                locked(gridManager, gameController::amoebaTick),
+                locked(gridManager, gameController::explosionTick),
+                checkLevelWin
+        };
+        return new TickScheduler(ticks, new long[] {150, 50, 120, 100, 2000, 2000, amoebaGrowthRate, 1000, 49});
+    }
+
+    /**
+     * Wraps a tick so that it holds the grid's write lock while it runs.
+     * @param gridManager the grid the tick changes.
+     * @param tick the tick.
+     * @return the wrapped tick.
+     */
+    private static Runnable locked(GridManager gridManager, Runnable tick) {
+        return () -> gridManager.write(tick);
+    }
+
+    /**
+     * Resumes or pauses the ticks. Resumed ticks first fire one full period later,
+     * as a Timeline does when it is played. A schedule stopped by a failed tick stays stopped.
+     * @param running true to run the ticks, false to pause them.
+     * @param now the current time, in nanoseconds.
+     */
+    public void setRunning(boolean running, long now) {
+        this.running = running && failure == null;
+        for (int i = 0; i < ticks.length; i++) {
+            nextDue[i] = now + periods[i];
+        }
+    }
+
+    /**
+     * Pauses the ticks, including any that are still due in the current call to runDue.
+     */
+    public void pause() {
+        running = false;
+    }
+
+    /**
+     * Checks whether the ticks are running.
+     * @return true if running, false if paused.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Runs every tick that is due. A tick that fell more than a period behind
+     * skips the ticks it missed rather than running them all at once.
+     * @param now the current time, in nanoseconds.
+     * @param tickCost told the wall-clock cost of each tick run, in nanoseconds.
+     * @return how long until the next tick is due, in nanoseconds, or Long.MAX_VALUE if paused.
+     */
+    public long runDue(long now, LongConsumer tickCost) {
+        long wait = Long.MAX_VALUE;
+        for (int i = 0; i < ticks.length && running; i++) {
+            if (now - nextDue[i] >= 0) {
+                runTick(i, tickCost);
+                nextDue[i] += periods[i];
+                if (now - nextDue[i] >= 0) {
+                    // Fell more than a period behind, so skip the missed ticks
+                    nextDue[i] = now + periods[i];
+                }
+            }
+            wait = Math.min(wait, nextDue[i] - now);
+        }
+        return running ? wait : Long.MAX_VALUE;
+    }
+
+    /**
+     * Retrieves the time the next tick is due.
+     * @return the earliest deadline, in nanoseconds, or Long.MAX_VALUE if paused.
+     */
+    public long getNextDue() {
+        if (!running) {
+            return Long.MAX_VALUE;
+        }
+        long earliest = nextDue[0];
+        for (int i = 1; i < ticks.length; i++) {
+            if (nextDue[i] - earliest < 0) {
+                earliest = nextDue[i];
+            }
+        }
+        return earliest;
+    }
+
+    /**
+     * Stops the ticks for good after something run between them failed, such as
+     * a command reloading the grid, and may have left the grid half changed,
+     * just as a failed tick does. The first failure is the one kept.
+     * @param failure the exception that was thrown.
+     */
+    public void fail(RuntimeException failure) {
+        if (this.failure == null) {
+            this.failure = failure;
+        }
+        running = false;
+    }
+
+    /**
+     * Retrieves the exception that stopped the ticks, if one did.
+     * @return the exception thrown by the failed tick or command, or null if none has failed.
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Runs a single tick and reports its cost.
+     * A tick that throws may have left the grid half changed, so the schedule stops
+     * for good: no further tick runs, and the exception is kept for getFailure.
+     * @param index the index of the tick to run.
+     * @param tickCost told the wall-clock cost of the tick, in nanoseconds.
+     */
+    private void runTick(int index, LongConsumer tickCost) {
+        long tickStart = System.nanoTime();
+        try {
+            ticks[index].run();
+        } catch (RuntimeException e) {
+            failure = e;
+            running = false;
+        }
+        tickCost.accept(System.nanoTime() - tickStart);
+    }
+}
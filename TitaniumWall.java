@@ -1,5 +1,3 @@
-import javafx.scene.image.Image;
-
 /**
  * Represents a Titanium Wall tile in the game.
  * This tile cannot be entered or exploded.
@@ -14,11 +12,7 @@ public class TitaniumWall extends Element {
      * @param column the column position of the tile
      */
     public TitaniumWall(final int row, final int column) {
-        super(row, column);
-        image = new Image("images/titanium-wall.png");
-        canBeEntered = false;
-        canExplode = false;
-        name = "TitaniumWall";
+        super(ElementKind.TITANIUM_WALL, row, column);
     }
 
     /**
@@ -0,0 +1,63 @@
+/**
+ * The random 64-bit keys behind GridManager's Zobrist hash. A grid's hash is the
+ * XOR of one key per cell, picked by the cell and the kind of element in it, so
+ * changing a cell only needs the old cell's key XORed out and the new one XORed in.
+ * The keys are worked out on demand by mixing the cell and kind through SplitMix64
+ * rather than stored in a table, which would cost 128 bytes per cell on big maps.
+ * They are the same on every run, so hashes from different runs can be compared.
+ * @author Alex Vesely
+ */
+public final class ZobristKeys {
+    private static final long CELL_SEED = 0x9E3779B97F4A7C15L;
+    private static final long DIAMOND_SEED = 0xD1B54A32D192ED03L;
+    private static final long KEY_SEED = 0x8CB92BA72F3D8DD7L;
+    private static final int KIND_COUNT = ElementKind.values().length;
+
+    /**
+     * Prevents instantiation, as every key is worked out by a static method.
+     */
+    private ZobristKeys() {
+    }
+
+    /**
+     * Retrieves the key of a cell holding an element of a kind.
+     * @param cell the index of the cell, row * columns + column.
+     * @param kind the kind of element in the cell.
+     * @return the key.
+     */
+    public static long cellKey(int cell, ElementKind kind) {
+        return mix(CELL_SEED + (long) cell * KIND_COUNT + kind.ordinal());
+    }
+
+    /**
+     * Retrieves the key of the player's diamond count.
+     * @param diamondCount the number of diamonds collected.
+     * @return the key.
+     */
+    public static long diamondKey(int diamondCount) {
+        return mix(DIAMOND_SEED + diamondCount);
+    }
+
+    /**
+     * Retrieves the key of one key in the player's inventory.
+     * Inventory keys are added together rather than XORed, so that
+     * holding two keys of the same colour does not cancel out.
+     * @param colour the colour of the key.
+     * @return the key.
+     */
+    public static long inventoryKey(KeyColour colour) {
+        return mix(KEY_SEED + colour.ordinal());
+    }
+
+    /**
+     * Scrambles a value with the SplitMix64 finaliser.
+     * @param value the value to scramble.
+     * @return the scrambled value.
+     */
+    private static long mix(long value) {
+        long z = value * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}